@@ -23,7 +23,7 @@ DROP TABLE IF EXISTS `direction`;
 /*!40101 SET @saved_cs_client     = @@character_set_client */;
 /*!40101 SET character_set_client = utf8 */;
 CREATE TABLE `direction` (
-                             `id` bigint(20) NOT NULL AUTO_INCREMENT,
+                             `id` bigint(20) NOT NULL,
                              `created_date` datetime(6) DEFAULT NULL,
                              `modified_date` datetime(6) DEFAULT NULL,
                              `distance` double NOT NULL,
@@ -34,10 +34,44 @@ CREATE TABLE `direction` (
                              `target_latitude` double NOT NULL,
                              `target_longitude` double NOT NULL,
                              `target_pharmacy_name` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
-                             PRIMARY KEY (`id`)
+                             PRIMARY KEY (`id`),
+                             KEY `idx_direction_created_date` (`created_date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `direction_archive`
+--
+
+DROP TABLE IF EXISTS `direction_archive`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!40101 SET character_set_client = utf8 */;
+CREATE TABLE `direction_archive` (
+                             `id` bigint(20) NOT NULL,
+                             `created_date` datetime(6) DEFAULT NULL,
+                             `modified_date` datetime(6) DEFAULT NULL,
+                             `archived_date` datetime(6) DEFAULT NULL,
+                             `distance` double NOT NULL,
+                             `input_address` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+                             `input_latitude` double NOT NULL,
+                             `input_longitude` double NOT NULL,
+                             `target_address` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+                             `target_latitude` double NOT NULL,
+                             `target_longitude` double NOT NULL,
+                             `target_pharmacy_name` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
+                             PRIMARY KEY (`id`),
+                             KEY `idx_direction_archive_created_date` (`created_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Sequence structure for `direction_seq`
+-- id 는 애플리케이션이 이 시퀀스로만 발급한다. (이미 데이터가 있는 DB 는 database/migration/001_direction_sequence.sql)
+--
+
+DROP SEQUENCE IF EXISTS `direction_seq`;
+CREATE SEQUENCE `direction_seq` START WITH 1 INCREMENT BY 100;
+
 --
 -- Dumping data for table `direction`
 --
@@ -30,7 +30,8 @@ CREATE TABLE `pharmacy` (
                             `longitude` double NOT NULL,
                             `pharmacy_address` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
                             `pharmacy_name` varchar(255) COLLATE utf8mb4_unicode_ci DEFAULT NULL,
-                            PRIMARY KEY (`id`)
+                            PRIMARY KEY (`id`),
+                            KEY `idx_pharmacy_latitude_longitude` (`latitude`,`longitude`)
 ) ENGINE=InnoDB AUTO_INCREMENT=202 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
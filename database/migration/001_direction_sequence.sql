@@ -0,0 +1,17 @@
+-- 이미 운영 중인 DB 의 direction id 발급을 AUTO_INCREMENT 에서 direction_seq 시퀀스로 옮긴다.
+-- (새로 만드는 DB 는 database/init/direction.sql 에 반영되어 있다.)
+--
+-- 시퀀스 방식(DirectionIdAllocator, pooled-lo)으로 배포하기 전에, 이전 버전 서버를 모두 중지한 상태에서 실행한다.
+-- $ mysql -u {user} -p pharmacy-recommendation < database/migration/001_direction_sequence.sql
+
+CREATE SEQUENCE IF NOT EXISTS `direction_seq` START WITH 1 INCREMENT BY 100;
+
+-- 기존 id 와 겹치지 않도록 max(id) 다음 값부터 발급
+SET @direction_next_id = (SELECT COALESCE(MAX(`id`), 0) + 1 FROM `direction`);
+SET @direction_restart_sql = CONCAT('ALTER SEQUENCE `direction_seq` RESTART WITH ', @direction_next_id);
+PREPARE direction_restart_stmt FROM @direction_restart_sql;
+EXECUTE direction_restart_stmt;
+DEALLOCATE PREPARE direction_restart_stmt;
+
+-- 두 가지 방식으로 id 가 발급되지 않도록 AUTO_INCREMENT 를 제거
+ALTER TABLE `direction` MODIFY `id` bigint(20) NOT NULL;
@@ -0,0 +1,120 @@
+package com.example.project.api.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.project.config.SampledRequestTurboFilter;
+import java.io.OutputStream;
+import java.net.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 요청 경로의 로그 비용 벤치마크.
+ * 출력은 버리고(null output stream) 로그 이벤트 생성, 포맷팅 비용만 비교한다. (appender: sync, async)
+ *
+ * buildUriWithInfoLog 는 변경 전처럼 요청마다 INFO 로그를 남기는 경우이고, buildUri 는 현재 코드(DEBUG, 비활성)이다.
+ */
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String ADDRESS = "서울 성북구 종암로 10길";
+    private static final String ERROR_MESSAGE = "I/O error on GET request";
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private final KakaoUriBuilderService kakaoUriBuilderService = new KakaoUriBuilderService();
+    private Logger logger;
+    private Appender<ILoggingEvent> rootAppender;
+    private URI uri;
+
+    @Setup
+    public void setup() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        SampledRequestTurboFilter turboFilter = new SampledRequestTurboFilter();
+        turboFilter.start();
+        context.addTurboFilter(turboFilter);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("ts=%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} level=%level thread=%thread "
+            + "traceId=%X{traceId:-} logger=%logger{39} msg=\"%msg\"%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> outputAppender = new OutputStreamAppender<>();
+        outputAppender.setContext(context);
+        outputAppender.setEncoder(encoder);
+        outputAppender.setOutputStream(OutputStream.nullOutputStream());
+        outputAppender.start();
+        rootAppender = outputAppender;
+
+        if ("async".equals(appender)) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(outputAppender);
+            asyncAppender.start();
+            rootAppender = asyncAppender;
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(rootAppender);
+
+        logger = context.getLogger(KakaoUriBuilderService.class);
+        uri = kakaoUriBuilderService.buildUriByAddressSearch(ADDRESS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rootAppender.stop();
+    }
+
+    @Benchmark
+    public URI buildUriWithInfoLog() {
+        URI result = kakaoUriBuilderService.buildUriByAddressSearch(ADDRESS);
+        logger.info("[KakaoUriBuilderService.buildUriByAddressSearch] address: {}, uri:{}", ADDRESS, result);
+        return result;
+    }
+
+    @Benchmark
+    public URI buildUri() {
+        return kakaoUriBuilderService.buildUriByAddressSearch(ADDRESS);
+    }
+
+    // 비활성 level 이어도 문자열을 먼저 만드는 경우
+    @Benchmark
+    public void disabledDebugEager() {
+        logger.debug("[KakaoUriBuilderService.buildUriByAddressSearch] uri: " + uri);
+    }
+
+    @Benchmark
+    public void disabledDebugParameterized() {
+        logger.debug("[KakaoUriBuilderService.buildUriByAddressSearch] uri: {}", uri);
+    }
+
+    @Benchmark
+    public void errorEager() {
+        logger.error("ALl the retries failed. address: " + ADDRESS, ERROR_MESSAGE);
+    }
+
+    @Benchmark
+    public void errorParameterized() {
+        logger.error("[KakaoAddressSearchService recover] all the retries failed. address: {}, error: {}",
+            ADDRESS, ERROR_MESSAGE);
+    }
+}
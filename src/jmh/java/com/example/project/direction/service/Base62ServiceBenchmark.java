@@ -0,0 +1,46 @@
+package com.example.project.direction.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 길안내 링크 id 인코딩/디코딩 벤치마크. legacy 는 기존 형식(seruco base62) 경로이다.
+ */
+@State(Scope.Benchmark)
+public class Base62ServiceBenchmark {
+
+    private static final long DIRECTION_ID = 123_456_789L;
+
+    private Base62Service base62Service;
+    private String encodedId;
+    private String legacyEncodedId;
+
+    @Setup
+    public void setup() {
+        base62Service = new Base62Service();
+        encodedId = base62Service.encodeDirectionId(DIRECTION_ID);
+        legacyEncodedId = base62Service.encodeLegacyDirectionId(DIRECTION_ID);
+    }
+
+    @Benchmark
+    public String encode() {
+        return base62Service.encodeDirectionId(DIRECTION_ID);
+    }
+
+    @Benchmark
+    public Long decode() {
+        return base62Service.decodeDirectionId(encodedId);
+    }
+
+    @Benchmark
+    public String encodeLegacy() {
+        return base62Service.encodeLegacyDirectionId(DIRECTION_ID);
+    }
+
+    @Benchmark
+    public Long decodeLegacy() {
+        return base62Service.decodeDirectionId(legacyEncodedId);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.project.direction.service;
+
+import com.example.project.api.dto.DocumentDto;
+import com.example.project.direction.entity.Direction;
+import com.example.project.pharmacy.PharmacyBenchmarkData;
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.example.project.pharmacy.index.GeoDistance;
+import com.example.project.pharmacy.index.PharmacyIndexService;
+import com.example.project.pharmacy.service.PharmacySearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 추천 hot path(DirectionService.buildDirectionList) 벤치마크.
+ * fullScan 은 인덱스 도입 전처럼 전체 약국의 거리를 계산하고 정렬하는 방식으로, 비교 기준으로 사용한다.
+ */
+@State(Scope.Benchmark)
+public class DirectionServiceBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+    private static final int MAX_SEARCH_COUNT = 3;
+    private static final double RADIUS_KM = 10.0;
+
+    @Param({"200", "25000", "250000"})
+    private int pharmacyCount;
+
+    private List<PharmacyDto> pharmacyDtoList;
+    private DocumentDto[] documentDtos;
+    private DirectionService directionService;
+    private int queryIndex;
+
+    @Setup
+    public void setup() {
+        pharmacyDtoList = PharmacyBenchmarkData.createPharmacyDtoList(pharmacyCount);
+
+        double[][] points = PharmacyBenchmarkData.createQueryPoints(pharmacyDtoList, QUERY_COUNT);
+        documentDtos = new DocumentDto[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            documentDtos[i] = DocumentDto.builder()
+                .addressName("서울 성북구 종암로 10길")
+                .latitude(points[i][0])
+                .longitude(points[i][1])
+                .build();
+        }
+
+        // Redis, DB 없이 고정된 스냅샷을 사용
+        PharmacySnapshot snapshot = PharmacySnapshot.of(0L, pharmacyDtoList);
+        PharmacySearchService pharmacySearchService = new PharmacySearchService(null, null, null) {
+            @Override
+            public PharmacySnapshot getSnapshot() {
+                return snapshot;
+            }
+        };
+
+        // 검색 전략을 주입하지 않으므로 인메모리 인덱스로 검색
+        directionService = new DirectionService(new PharmacyIndexService(pharmacySearchService),
+            pharmacySearchService, null, null, null, new Base62Service(), null, null,
+            new SimpleMeterRegistry());
+
+        // 인덱스는 첫 검색 때 만들어지므로 측정 전에 미리 만든다.
+        directionService.buildDirectionList(documentDtos[0]);
+    }
+
+    @Benchmark
+    public List<Direction> buildDirectionList() {
+        return directionService.buildDirectionList(nextDocumentDto());
+    }
+
+    @Benchmark
+    public List<Direction> fullScan() {
+        DocumentDto documentDto = nextDocumentDto();
+        return pharmacyDtoList.stream()
+            .map(pharmacyDto -> Direction.builder()
+                .inputAddress(documentDto.getAddressName())
+                .inputLatitude(documentDto.getLatitude())
+                .inputLongitude(documentDto.getLongitude())
+                .targetAddress(pharmacyDto.getPharmacyAddress())
+                .targetPharmacyName(pharmacyDto.getPharmacyName())
+                .targetLatitude(pharmacyDto.getLatitude())
+                .targetLongitude(pharmacyDto.getLongitude())
+                .distance(GeoDistance.calculateDistance(documentDto.getLatitude(), documentDto.getLongitude(),
+                    pharmacyDto.getLatitude(), pharmacyDto.getLongitude()))
+                .build())
+            .filter(direction -> direction.getDistance() <= RADIUS_KM)
+            .sorted(Comparator.comparingDouble(Direction::getDistance))
+            .limit(MAX_SEARCH_COUNT)
+            .collect(Collectors.toList());
+    }
+
+    private DocumentDto nextDocumentDto() {
+        queryIndex = (queryIndex + 1) & (QUERY_COUNT - 1);
+        return documentDtos[queryIndex];
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.project.pharmacy;
+
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 가상 약국 데이터.
+ * 매 실행마다 같은 데이터가 만들어지도록 seed 를 고정한다.
+ */
+public final class PharmacyBenchmarkData {
+
+    // 대략적인 국내 좌표 범위
+    private static final double MIN_LATITUDE = 33.2;
+    private static final double MAX_LATITUDE = 38.6;
+    private static final double MIN_LONGITUDE = 126.0;
+    private static final double MAX_LONGITUDE = 129.6;
+
+    private static final long SEED = 20220601L;
+
+    private PharmacyBenchmarkData() {
+    }
+
+    public static List<PharmacyDto> createPharmacyDtoList(int size) {
+        Random random = new Random(SEED);
+        List<PharmacyDto> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(PharmacyDto.builder()
+                .id((long) i + 1)
+                .pharmacyName("약국" + i)
+                .pharmacyAddress("서울특별시 성북구 종암로 " + i)
+                .latitude(MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE))
+                .longitude(MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE))
+                .build());
+        }
+        return list;
+    }
+
+    /**
+     * 약국 위치 주변(약 1km 이내)의 검색 좌표 목록. [latitude, longitude] 쌍으로 반환한다.
+     */
+    public static double[][] createQueryPoints(List<PharmacyDto> pharmacyDtoList, int count) {
+        Random random = new Random(SEED + 1);
+        double[][] points = new double[count][];
+        for (int i = 0; i < count; i++) {
+            PharmacyDto pharmacyDto = pharmacyDtoList.get(random.nextInt(pharmacyDtoList.size()));
+            points[i] = new double[]{
+                pharmacyDto.getLatitude() + (random.nextDouble() - 0.5) * 0.02,
+                pharmacyDto.getLongitude() + (random.nextDouble() - 0.5) * 0.02
+            };
+        }
+        return points;
+    }
+}
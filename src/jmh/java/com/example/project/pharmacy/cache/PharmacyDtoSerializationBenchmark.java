@@ -0,0 +1,58 @@
+package com.example.project.pharmacy.cache;
+
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Redis 에 저장하는 PharmacyDto 의 직렬화/역직렬화 벤치마크.
+ * json 은 기존 ObjectMapper 경로, binary 는 PharmacyDtoRedisSerializer 의 기본 형식이다.
+ */
+@State(Scope.Benchmark)
+public class PharmacyDtoSerializationBenchmark {
+
+    private PharmacyDtoRedisSerializer jsonSerializer;
+    private PharmacyDtoRedisSerializer binarySerializer;
+    private PharmacyDto pharmacyDto;
+    private byte[] jsonValue;
+    private byte[] binaryValue;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonSerializer = new PharmacyDtoRedisSerializer(objectMapper, PharmacyCacheFormat.JSON);
+        binarySerializer = new PharmacyDtoRedisSerializer(objectMapper, PharmacyCacheFormat.BINARY);
+        pharmacyDto = PharmacyDto.builder()
+            .id(1L)
+            .pharmacyName("돌곶이온누리약국")
+            .pharmacyAddress("서울특별시 성북구 월곡로 107 (석관동)")
+            .latitude(37.61040424)
+            .longitude(127.0569046)
+            .build();
+        jsonValue = jsonSerializer.serialize(pharmacyDto);
+        binaryValue = binarySerializer.serialize(pharmacyDto);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(pharmacyDto);
+    }
+
+    @Benchmark
+    public PharmacyDto deserializeJson() {
+        return jsonSerializer.deserialize(jsonValue);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(pharmacyDto);
+    }
+
+    @Benchmark
+    public PharmacyDto deserializeBinary() {
+        return binarySerializer.deserialize(binaryValue);
+    }
+}
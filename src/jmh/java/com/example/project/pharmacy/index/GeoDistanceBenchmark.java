@@ -0,0 +1,95 @@
+package com.example.project.pharmacy.index;
+
+import com.example.project.pharmacy.PharmacyBenchmarkData;
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 거리 계산 방식 비교.
+ * haversine 이 GeoDistance.calculateDistance, kernelDistances 가 인덱스 검색에서 사용하는 GeoDistanceKernel 이다.
+ */
+@State(Scope.Benchmark)
+@OperationsPerInvocation(GeoDistanceBenchmark.PAIR_COUNT)
+public class GeoDistanceBenchmark {
+
+    static final int PAIR_COUNT = 1024;
+
+    private double[] fromLatitudes;
+    private double[] fromLongitudes;
+    private double[] toLatitudes;
+    private double[] toLongitudes;
+
+    private GeoDistanceKernel distanceKernel;
+    private double[] out;
+
+    @Setup
+    public void setup() {
+        List<PharmacyDto> pharmacyDtoList = PharmacyBenchmarkData.createPharmacyDtoList(PAIR_COUNT);
+        double[][] points = PharmacyBenchmarkData.createQueryPoints(pharmacyDtoList, PAIR_COUNT);
+
+        fromLatitudes = new double[PAIR_COUNT];
+        fromLongitudes = new double[PAIR_COUNT];
+        toLatitudes = new double[PAIR_COUNT];
+        toLongitudes = new double[PAIR_COUNT];
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            fromLatitudes[i] = points[i][0];
+            fromLongitudes[i] = points[i][1];
+            toLatitudes[i] = pharmacyDtoList.get(i).getLatitude();
+            toLongitudes[i] = pharmacyDtoList.get(i).getLongitude();
+        }
+
+        distanceKernel = GeoDistanceKernel.of(PharmacySnapshot.of(0L, pharmacyDtoList));
+        out = new double[PAIR_COUNT];
+    }
+
+    // 기존 DirectionService.calculateDistance 의 구현
+    @Benchmark
+    public double sphericalLawOfCosines() {
+        double sum = 0;
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            double lat1 = Math.toRadians(fromLatitudes[i]);
+            double lon1 = Math.toRadians(fromLongitudes[i]);
+            double lat2 = Math.toRadians(toLatitudes[i]);
+            double lon2 = Math.toRadians(toLongitudes[i]);
+            sum += GeoDistance.EARTH_RADIUS_KM * Math.acos(
+                Math.sin(lat1) * Math.sin(lat2) + Math.cos(lat1) * Math.cos(lat2) * Math.cos(lon1 - lon2));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double haversine() {
+        double sum = 0;
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            sum += GeoDistance.calculateDistance(fromLatitudes[i], fromLongitudes[i], toLatitudes[i], toLongitudes[i]);
+        }
+        return sum;
+    }
+
+    // 한 지점에서 모든 약국까지의 거리
+    @Benchmark
+    public double[] kernelDistances() {
+        distanceKernel.distances(fromLatitudes[0], fromLongitudes[0], out);
+        return out;
+    }
+
+    // 짧은 거리에서만 쓸 수 있는 근사값
+    @Benchmark
+    public double equirectangular() {
+        double sum = 0;
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            double lat1 = Math.toRadians(fromLatitudes[i]);
+            double lat2 = Math.toRadians(toLatitudes[i]);
+            double x = Math.toRadians(toLongitudes[i] - fromLongitudes[i]) * Math.cos((lat1 + lat2) / 2);
+            double y = lat2 - lat1;
+            sum += GeoDistance.EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.project.loadtest
+
+import groovy.json.JsonOutput
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.RecordedRequest
+
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * kakao 로컬 api(주소 검색, 카테고리 검색) stub.
+ *
+ * 주소는 문자열 hash 로 서울 범위 안의 좌표를 정하고, 카테고리 검색은 요청 좌표 주변에 약국을 만들어 응답한다.
+ * 같은 요청에는 항상 같은 결과를 응답하므로 캐시 효과도 실제와 비슷하게 측정된다.
+ * 응답마다 latencyMillis(+ jitter) 만큼 지연하고, errorRate 비율로 503 을 응답한다.
+ */
+class KakaoStubDispatcher extends Dispatcher {
+
+    static final double MIN_LATITUDE = 37.45
+    static final double MAX_LATITUDE = 37.65
+    static final double MIN_LONGITUDE = 126.85
+    static final double MAX_LONGITUDE = 127.15
+
+    private static final String ADDRESS_SEARCH_PATH = "/v2/local/search/address.json"
+    private static final String CATEGORY_SEARCH_PATH = "/v2/local/search/category.json"
+
+    // 카테고리 검색 결과는 2 페이지(15 + 15)
+    private static final int PAGE_SIZE = 15
+    private static final int CATEGORY_TOTAL_COUNT = 30
+
+    private final long latencyMillis
+    private final long latencyJitterMillis
+    private final double errorRate
+
+    final AtomicLong addressRequestCount = new AtomicLong()
+    final AtomicLong categoryRequestCount = new AtomicLong()
+    final AtomicLong errorCount = new AtomicLong()
+
+    KakaoStubDispatcher(long latencyMillis, long latencyJitterMillis, double errorRate) {
+        this.latencyMillis = latencyMillis
+        this.latencyJitterMillis = latencyJitterMillis
+        this.errorRate = errorRate
+    }
+
+    @Override
+    MockResponse dispatch(RecordedRequest request) {
+        def url = request.requestUrl
+        def path = url.encodedPath()
+
+        def body
+        if (path == ADDRESS_SEARCH_PATH) {
+            addressRequestCount.incrementAndGet()
+            body = addressSearchBody(url.queryParameter("query"))
+        } else if (path == CATEGORY_SEARCH_PATH) {
+            categoryRequestCount.incrementAndGet()
+            def page = url.queryParameter("page")
+            body = categorySearchBody(
+                    Double.parseDouble(url.queryParameter("y")),
+                    Double.parseDouble(url.queryParameter("x")),
+                    Double.parseDouble(url.queryParameter("radius")),
+                    page == null ? 1 : Integer.parseInt(page))
+        } else {
+            return new MockResponse().setResponseCode(404)
+        }
+
+        def random = ThreadLocalRandom.current()
+        long delay = latencyMillis + (latencyJitterMillis > 0 ? random.nextLong(latencyJitterMillis + 1) : 0)
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            errorCount.incrementAndGet()
+            return new MockResponse()
+                    .setResponseCode(503)
+                    .setHeadersDelay(delay, TimeUnit.MILLISECONDS)
+        }
+
+        return new MockResponse()
+                .addHeader("Content-Type", "application/json;charset=UTF-8")
+                .setBody(JsonOutput.toJson(body))
+                .setHeadersDelay(delay, TimeUnit.MILLISECONDS)
+    }
+
+    // 주소마다 고정된 좌표
+    static double[] coordinateOf(String address) {
+        int hash = address == null ? 0 : address.hashCode()
+        double latitudeRatio = Math.floorMod(hash, 10007) / 10007.0
+        double longitudeRatio = Math.floorMod(Integer.rotateLeft(hash, 16) * 31 + 17, 10009) / 10009.0
+        return [MIN_LATITUDE + (MAX_LATITUDE - MIN_LATITUDE) * latitudeRatio,
+                MIN_LONGITUDE + (MAX_LONGITUDE - MIN_LONGITUDE) * longitudeRatio] as double[]
+    }
+
+    private static Map addressSearchBody(String query) {
+        if (query == null || query.isBlank()) {
+            return [meta: [total_count: 0], documents: []]
+        }
+        double[] coordinate = coordinateOf(query)
+        return [meta     : [total_count: 1],
+                documents: [[address_name: query, y: coordinate[0], x: coordinate[1]]]]
+    }
+
+    // 요청 좌표에서 반경 안에 가까운 순으로 약국을 만든다.
+    private static Map categorySearchBody(double latitude, double longitude, double radiusMeters, int page) {
+        def documents = []
+        int from = (page - 1) * PAGE_SIZE
+        int to = Math.min(CATEGORY_TOTAL_COUNT, from + PAGE_SIZE)
+        for (int i = from; i < to; i++) {
+            double distance = radiusMeters * (i + 1) / (CATEGORY_TOTAL_COUNT + 1)
+            double bearing = Math.toRadians(i * 137.5)
+            double placeLatitude = latitude + distance * Math.cos(bearing) / 111_000.0
+            double placeLongitude = longitude + distance * Math.sin(bearing) / (111_000.0 * Math.cos(Math.toRadians(latitude)))
+            documents << [place_name  : String.format("stub 약국 %.4f,%.4f", placeLatitude, placeLongitude),
+                          address_name: String.format("stub 주소 %.4f,%.4f", placeLatitude, placeLongitude),
+                          y           : placeLatitude,
+                          x           : placeLongitude,
+                          distance    : Math.round(distance)]
+        }
+        return [meta: [total_count: CATEGORY_TOTAL_COUNT], documents: documents]
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.project.loadtest
+
+/**
+ * 요청별 지연 시간(ns)과 성공 여부를 기록하고 백분위수를 계산한다.
+ * 부하 테스트 한 번의 요청 수(수십만 건 이하)만 다루므로 모든 값을 그대로 보관한다.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024]
+    private int size
+    private long totalNanos
+    private long errorCount
+    private long droppedCount
+
+    synchronized void record(long latencyNanos, boolean success) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2)
+        }
+        latencies[size++] = latencyNanos
+        totalNanos += latencyNanos
+        if (!success) {
+            errorCount++
+        }
+    }
+
+    // 동시 요청 수 제한으로 보내지 못한 요청. 오류로 집계한다.
+    synchronized void recordDropped() {
+        droppedCount++
+    }
+
+    /**
+     * 측정 구간(elapsedSeconds)의 결과.
+     * 지연 시간은 ms, 백분위수는 nearest-rank 방식이다.
+     */
+    synchronized Map<String, Object> summary(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, size)
+        Arrays.sort(sorted)
+
+        long count = size + droppedCount
+        long errors = errorCount + droppedCount
+        return [count        : count,
+                errors       : errors,
+                dropped      : droppedCount,
+                errorRate    : count == 0 ? 0.0 : (double) errors / count,
+                throughputRps: elapsedSeconds > 0 ? (size - errorCount) / elapsedSeconds : 0.0,
+                latencyMillis: [min : toMillis(size == 0 ? 0 : sorted[0]),
+                                mean: toMillis(size == 0 ? 0 : totalNanos.intdiv(size)),
+                                p50 : toMillis(percentile(sorted, 50)),
+                                p95 : toMillis(percentile(sorted, 95)),
+                                p99 : toMillis(percentile(sorted, 99)),
+                                max : toMillis(size == 0 ? 0 : sorted[size - 1])]]
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length)
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)]
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.project.loadtest
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class LatencyRecorderTest extends Specification {
+
+    def "summary - nearest-rank 백분위수, 처리량, 오류율 계산"() {
+        given:
+        def recorder = new LatencyRecorder()
+        (1..100).each { recorder.record(TimeUnit.MILLISECONDS.toNanos(it), it <= 95) }
+        recorder.recordDropped()
+
+        when:
+        def summary = recorder.summary(10.0)
+
+        then:
+        summary.count == 101
+        summary.errors == 6
+        summary.dropped == 1
+        summary.errorRate == 6 / 101d
+        summary.throughputRps == 9.5
+        summary.latencyMillis.min == 1.0
+        summary.latencyMillis.p50 == 50.0
+        summary.latencyMillis.p95 == 95.0
+        summary.latencyMillis.p99 == 99.0
+        summary.latencyMillis.max == 100.0
+        summary.latencyMillis.mean == 50.5
+    }
+
+    def "summary - 기록이 없으면 0"() {
+        when:
+        def summary = new LatencyRecorder().summary(10.0)
+
+        then:
+        summary.count == 0
+        summary.errorRate == 0.0
+        summary.latencyMillis.p99 == 0.0
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.project.loadtest
+
+import java.net.http.HttpClient
+import java.net.http.HttpRequest
+import java.net.http.HttpResponse
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.LockSupport
+import java.util.function.Supplier
+
+/**
+ * 목표 RPS 로 요청을 보내는 부하 생성기 (open model).
+ *
+ * 응답을 기다리지 않고 정해진 간격마다 요청을 보내므로 서버가 느려져도 부하가 줄지 않는다.
+ * 지연 시간은 실제로 보낸 시각이 아니라 보내기로 예정된 시각부터 측정한다. (coordinated omission 방지)
+ * 동시 요청이 maxInFlight 를 넘으면 요청을 보내지 않고 dropped(오류)로 기록한다.
+ */
+class LoadGenerator {
+
+    /**
+     * 보낼 요청 하나. name 별로 결과를 집계하고, 응답을 받으면 onResponse 를 호출한다.
+     */
+    static class LoadRequest {
+        String name
+        HttpRequest request
+        Closure onResponse
+    }
+
+    private final HttpClient httpClient
+    private final int maxInFlight
+    private final Duration requestTimeout
+    private final AtomicInteger inFlight = new AtomicInteger()
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>()
+
+    LoadGenerator(int maxInFlight, Duration requestTimeout) {
+        this.maxInFlight = maxInFlight
+        this.requestTimeout = requestTimeout
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(requestTimeout)
+                .build()
+    }
+
+    /**
+     * warmup 동안 보낸 요청은 기록하지 않고, 이후 duration 동안의 요청만 기록한다.
+     * 모든 응답을 받은 후(최대 requestTimeout) 요청 이름별 결과와 전체(total) 결과를 반환한다.
+     */
+    Map<String, Object> run(int rps, Duration warmup, Duration duration, Supplier<LoadRequest> nextRequest) {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1).intdiv(rps)
+        long warmupCount = (warmup.toMillis() * rps).intdiv(1000)
+        long totalCount = warmupCount + (duration.toMillis() * rps).intdiv(1000)
+        LatencyRecorder total = new LatencyRecorder()
+
+        long startNanos = System.nanoTime()
+        for (long i = 0; i < totalCount; i++) {
+            long intendedNanos = startNanos + i * periodNanos
+            long waitNanos = intendedNanos - System.nanoTime()
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos)
+            }
+
+            boolean measured = i >= warmupCount
+            LoadRequest loadRequest = nextRequest.get()
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    recorder(loadRequest.name).recordDropped()
+                    total.recordDropped()
+                }
+                continue
+            }
+
+            inFlight.incrementAndGet()
+            httpClient.sendAsync(loadRequest.request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete { HttpResponse<String> response, Throwable e ->
+                        long latencyNanos = System.nanoTime() - intendedNanos
+                        inFlight.decrementAndGet()
+                        boolean success = e == null && response.statusCode() < 400
+                        if (success && loadRequest.onResponse != null) {
+                            loadRequest.onResponse.call(response)
+                        }
+                        if (measured) {
+                            recorder(loadRequest.name).record(latencyNanos, success)
+                            total.record(latencyNanos, success)
+                        }
+                    }
+        }
+
+        awaitInFlight()
+        double elapsedSeconds = (System.nanoTime() - startNanos - warmupCount * periodNanos) / 1_000_000_000.0
+
+        Map<String, Object> result = new TreeMap<>()
+        recorders.each { name, recorder -> result[name] = recorder.summary(elapsedSeconds) }
+        result["total"] = total.summary(elapsedSeconds)
+        return result
+    }
+
+    private LatencyRecorder recorder(String name) {
+        return recorders.computeIfAbsent(name, { new LatencyRecorder() })
+    }
+
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + requestTimeout.toNanos()
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10)
+        }
+    }
+}
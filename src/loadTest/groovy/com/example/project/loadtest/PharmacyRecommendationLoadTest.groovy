@@ -0,0 +1,178 @@
+package com.example.project.loadtest
+
+import com.example.project.AbstractIntegrationContainerBaseTest
+import com.example.project.pharmacy.entity.Pharmacy
+import com.example.project.pharmacy.repository.PharmacyRepository
+import com.example.project.pharmacy.service.PharmacyCacheLoadService
+import groovy.json.JsonOutput
+import okhttp3.mockwebserver.MockWebServer
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.web.server.LocalServerPort
+
+import java.net.http.HttpRequest
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+import java.util.regex.Pattern
+
+/**
+ * 전체 서버(MariaDB, Redis 컨테이너 + kakao stub)에 /search, /dir/{id} 부하를 주고 결과를 json 으로 기록한다.
+ *
+ * $ ./gradlew loadTest -PloadTest.rps=100 -PloadTest.kakaoLatencyMillis=100 -PloadTest.kakaoErrorRate=0.05
+ * 설정은 loadTest.* 시스템 프로퍼티로 받고, pharmacy.* 프로퍼티로 서버 설정(추천 방식 등)을 바꿔 비교할 수 있다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PharmacyRecommendationLoadTest extends AbstractIntegrationContainerBaseTest {
+
+    static final int RPS = Integer.getInteger("loadTest.rps", 50)
+    static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadTest.warmupSeconds", 10))
+    static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadTest.durationSeconds", 30))
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(Long.getLong("loadTest.requestTimeoutSeconds", 10))
+    static final int MAX_IN_FLIGHT = Integer.getInteger("loadTest.maxInFlight", 512)
+
+    // 전체 요청 중 /dir/{id} 요청 비율
+    static final double DIRECTION_RATIO = Double.parseDouble(System.getProperty("loadTest.directionRatio", "0.5"))
+
+    static final int PHARMACY_COUNT = Integer.getInteger("loadTest.pharmacyCount", 5000)
+    static final int ADDRESS_COUNT = Integer.getInteger("loadTest.addressCount", 1000)
+
+    static final long KAKAO_LATENCY_MILLIS = Long.getLong("loadTest.kakaoLatencyMillis", 50)
+    static final long KAKAO_LATENCY_JITTER_MILLIS = Long.getLong("loadTest.kakaoLatencyJitterMillis", 20)
+    static final double KAKAO_ERROR_RATE = Double.parseDouble(System.getProperty("loadTest.kakaoErrorRate", "0.0"))
+
+    // 지정하면 전체 오류율이 이보다 높을 때 실패
+    static final String MAX_ERROR_RATE = System.getProperty("loadTest.maxErrorRate")
+
+    static final Path OUTPUT = Path.of(System.getProperty("loadTest.output", "build/results/load-test/result.json"))
+
+    static final Pattern DIRECTION_ID_PATTERN = Pattern.compile("/dir/([0-9A-Za-z]+)")
+
+    static final KakaoStubDispatcher KAKAO_STUB
+    static final MockWebServer KAKAO_SERVER
+
+    static {
+        KAKAO_STUB = new KakaoStubDispatcher(KAKAO_LATENCY_MILLIS, KAKAO_LATENCY_JITTER_MILLIS, KAKAO_ERROR_RATE)
+        KAKAO_SERVER = new MockWebServer()
+        KAKAO_SERVER.setDispatcher(KAKAO_STUB)
+        KAKAO_SERVER.start()
+
+        String baseUrl = KAKAO_SERVER.url("/").toString()
+        System.setProperty("kakao.api.base-url", baseUrl.substring(0, baseUrl.length() - 1))
+        System.setProperty("spring.jpa.show-sql", "false")
+    }
+
+    @LocalServerPort
+    private int port
+
+    @Autowired
+    private PharmacyRepository pharmacyRepository
+
+    @Autowired
+    private PharmacyCacheLoadService pharmacyCacheLoadService
+
+    // /search 응답에서 얻은 길안내 id (최근 것만 보관)
+    private final AtomicReferenceArray<String> directionIds = new AtomicReferenceArray<>(1024)
+    private final AtomicLong directionIdCount = new AtomicLong()
+
+    def cleanupSpec() {
+        KAKAO_SERVER.shutdown()
+    }
+
+    def "추천 부하 테스트 - /search, /dir/{id} 의 지연 시간, 처리량, 오류율을 json 으로 기록"() {
+        given:
+        seedPharmacies()
+        def generator = new LoadGenerator(MAX_IN_FLIGHT, REQUEST_TIMEOUT)
+
+        when:
+        def result = generator.run(RPS, WARMUP, DURATION, { nextRequest() })
+        def report = [name     : System.getProperty("loadTest.name", "default"),
+                      createdAt: Instant.now().toString(),
+                      config   : [rps                     : RPS,
+                                  warmupSeconds           : WARMUP.toSeconds(),
+                                  durationSeconds         : DURATION.toSeconds(),
+                                  directionRatio          : DIRECTION_RATIO,
+                                  pharmacyCount           : PHARMACY_COUNT,
+                                  addressCount            : ADDRESS_COUNT,
+                                  kakaoLatencyMillis      : KAKAO_LATENCY_MILLIS,
+                                  kakaoLatencyJitterMillis: KAKAO_LATENCY_JITTER_MILLIS,
+                                  kakaoErrorRate          : KAKAO_ERROR_RATE,
+                                  serverProperties        : serverProperties()],
+                      results  : result,
+                      kakao    : [addressRequests : KAKAO_STUB.addressRequestCount.get(),
+                                  categoryRequests: KAKAO_STUB.categoryRequestCount.get(),
+                                  injectedErrors  : KAKAO_STUB.errorCount.get()]]
+
+        Files.createDirectories(OUTPUT.toAbsolutePath().getParent())
+        Files.writeString(OUTPUT, JsonOutput.prettyPrint(JsonOutput.toJson(report)), StandardCharsets.UTF_8)
+        println("load test result: ${OUTPUT.toAbsolutePath()}")
+
+        then:
+        result["search"]["count"] > 0
+        MAX_ERROR_RATE == null || result["total"]["errorRate"] <= Double.parseDouble(MAX_ERROR_RATE)
+    }
+
+    // stub 주소 좌표와 같은 범위에 약국을 저장하고 캐시에 적재한다.
+    private void seedPharmacies() {
+        def random = new Random(PHARMACY_COUNT)
+        def pharmacyList = (1..PHARMACY_COUNT).collect {
+            Pharmacy.builder()
+                    .pharmacyName("부하 테스트 약국 " + it)
+                    .pharmacyAddress("부하 테스트 주소 " + it)
+                    .latitude(KakaoStubDispatcher.MIN_LATITUDE
+                            + (KakaoStubDispatcher.MAX_LATITUDE - KakaoStubDispatcher.MIN_LATITUDE) * random.nextDouble())
+                    .longitude(KakaoStubDispatcher.MIN_LONGITUDE
+                            + (KakaoStubDispatcher.MAX_LONGITUDE - KakaoStubDispatcher.MIN_LONGITUDE) * random.nextDouble())
+                    .build()
+        }
+        pharmacyRepository.saveAll(pharmacyList)
+        pharmacyCacheLoadService.load()
+    }
+
+    private LoadGenerator.LoadRequest nextRequest() {
+        def random = ThreadLocalRandom.current()
+        long count = directionIdCount.get()
+        String id = count > 0 && random.nextDouble() < DIRECTION_RATIO
+                ? directionIds.get((int) random.nextLong(Math.min(count, directionIds.length())))
+                : null
+        if (id != null) {
+            return new LoadGenerator.LoadRequest(
+                    name: "direction",
+                    request: HttpRequest.newBuilder(URI.create("http://localhost:${port}/dir/${id}"))
+                            .timeout(REQUEST_TIMEOUT)
+                            .GET()
+                            .build())
+        }
+
+        String address = "서울특별시 부하테스트구 " + random.nextInt(ADDRESS_COUNT)
+        String form = "address=" + URLEncoder.encode(address, StandardCharsets.UTF_8)
+        return new LoadGenerator.LoadRequest(
+                name: "search",
+                request: HttpRequest.newBuilder(URI.create("http://localhost:${port}/search"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                onResponse: { response -> collectDirectionIds(response.body() as String) })
+    }
+
+    private void collectDirectionIds(String body) {
+        def matcher = DIRECTION_ID_PATTERN.matcher(body)
+        while (matcher.find()) {
+            long index = directionIdCount.getAndIncrement()
+            directionIds.set((int) (index % directionIds.length()), matcher.group(1))
+        }
+    }
+
+    // 비교할 수 있도록 결과에 함께 남기는 서버 설정
+    private static Map<String, String> serverProperties() {
+        return System.getProperties().findAll { key, value -> key.toString().startsWith("pharmacy.") }
+                .collectEntries { key, value -> [(key.toString()): value.toString()] }
+                .sort()
+    }
+}
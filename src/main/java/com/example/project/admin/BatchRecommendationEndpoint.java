@@ -0,0 +1,71 @@
+package com.example.project.admin;
+
+import com.example.project.direction.dto.BatchInputDto;
+import com.example.project.pharmacy.service.PharmacyBatchRecommendationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 여러 주소의 약국 추천 결과를 처리되는 순서대로 한 줄에 하나씩(NDJSON) 응답하는 관리용 endpoint.
+ *
+ * 요청 하나로 kakao api 호출, 길안내 저장이 수천 건 발생하므로 기본으로 비활성화되어 있고,
+ * admin profile 에서만 외부에 공개하지 않는 management port 로 노출한다.
+ * 응답은 management port 의 요청 스레드에서 바로 쓴다. (서비스 port 의 tomcat 스레드는 사용하지 않는다)
+ * 처리 중 오류가 나면 응답을 중단하므로, 클라이언트는 끝까지 받지 못한 응답을 실패로 알 수 있다.
+ * $ curl -X POST -H 'Content-Type: application/json' -d '{"addressList":["서울 성북구 종암동"]}' \
+ *     localhost:8081/actuator/recommendations
+ */
+@Slf4j
+@Component
+@RestControllerEndpoint(id = "recommendations", enableByDefault = false)
+@RequiredArgsConstructor
+public class BatchRecommendationEndpoint {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final PharmacyBatchRecommendationService pharmacyBatchRecommendationService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${pharmacy.recommendation.batch.max-size:5000}")
+    private int maxSize;
+
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void recommendPharmacyList(@RequestBody BatchInputDto batchInputDto, HttpServletResponse response)
+        throws IOException {
+        if (CollectionUtils.isEmpty(batchInputDto.getAddressList())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "addressList must not be empty");
+        }
+        if (batchInputDto.getAddressList().size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "addressList size must be at most " + maxSize);
+        }
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+        pharmacyBatchRecommendationService.recommendPharmacyList(batchInputDto.getAddressList(),
+            batchOutputDto -> write(outputStream, batchOutputDto));
+    }
+
+    private void write(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write(NEW_LINE);
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.project.admin;
+
+import com.example.project.direction.dto.DirectionRetentionResultDto;
+import com.example.project.direction.service.DirectionRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보관 기간이 지난 길안내를 바로 정리하는 관리용 endpoint. (스케줄 실행과 같은 작업)
+ *
+ * 기본으로 비활성화되어 있고, admin profile 에서만 외부에 공개하지 않는 management port 로 노출한다.
+ * $ curl -X POST localhost:8081/actuator/directionretention
+ */
+@Component
+@Endpoint(id = "directionretention", enableByDefault = false)
+@RequiredArgsConstructor
+public class DirectionRetentionEndpoint {
+
+    private final DirectionRetentionService directionRetentionService;
+
+    @WriteOperation
+    public DirectionRetentionResultDto purgeExpiredDirections() {
+        return directionRetentionService.purge();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.project.admin;
+
+import com.example.project.pharmacy.entity.PharmacyImportResultDto;
+import com.example.project.pharmacy.service.PharmacyImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 약국 원본 데이터(csv, pharmacy.import.directory 안의 파일)를 DB 와 캐시에 반영하는 관리용 endpoint.
+ *
+ * 약국 데이터를 삭제할 수 있으므로 기본으로 비활성화되어 있고, admin profile 에서만
+ * 외부에 공개하지 않는 management port 로 노출한다.
+ * $ curl -X POST -H 'Content-Type: application/json' -d '{"file":"pharmacy.csv"}' localhost:8081/actuator/pharmacyimport
+ */
+@Component
+@Endpoint(id = "pharmacyimport", enableByDefault = false)
+@RequiredArgsConstructor
+public class PharmacyImportEndpoint {
+
+    private final PharmacyImportService pharmacyImportService;
+
+    // resume=true 이면 이전에 중단된 위치(checkpoint)부터 이어서 처리
+    @WriteOperation
+    public PharmacyImportResultDto importPharmacy(String file, @Nullable Boolean resume) {
+        return pharmacyImportService.importFile(file, Boolean.TRUE.equals(resume));
+    }
+}
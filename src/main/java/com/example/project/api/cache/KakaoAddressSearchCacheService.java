@@ -0,0 +1,214 @@
+package com.example.project.api.cache;
+
+import com.example.project.api.dto.KakaoApiResponseDto;
+import com.example.project.api.service.KakaoAddressSearchService;
+import com.example.project.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * 주소 검색(geocoding) 결과 캐시.
+ * 로컬 캐시(Caffeine, W-TinyLFU) -> Redis -> kakao api 순서로 조회한다.
+ * 검색 결과가 없는 주소(negative)도 짧은 시간 동안 캐시한다.
+ * 정규화한 주소(공백, 대소문자)는 캐시 key 로만 사용하고, kakao api 에는 입력한 주소를 그대로 보낸다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KakaoAddressSearchCacheService {
+
+    private static final String CACHE_KEY_PREFIX = "ADDRESS_SEARCH:";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String GEOCODE_METRIC_NAME = "pharmacy.geocode";
+
+    private final KakaoAddressSearchService kakaoAddressSearchService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kakao.address.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${kakao.address.cache.local.expire-after-write:10m}")
+    private Duration localExpireAfterWrite;
+
+    @Value("${kakao.address.cache.redis-ttl:7d}")
+    private Duration redisTtl;
+
+    @Value("${kakao.address.cache.negative-ttl:5m}")
+    private Duration negativeTtl;
+
+    private Cache<String, KakaoApiResponseDto> localCache;
+
+    // 같은 주소를 동시에 검색하는 경우 Redis 조회, kakao api 호출은 한 번만 한다.
+    private final SingleFlight<String, KakaoApiResponseDto> addressSearchFlight = new SingleFlight<>();
+
+    private final LongAdder redisHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfter(new Expiry<String, KakaoApiResponseDto>() {
+                @Override
+                public long expireAfterCreate(String key, KakaoApiResponseDto value, long currentTime) {
+                    return localTtlOf(value).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, KakaoApiResponseDto value, long currentTime,
+                    long currentDuration) {
+                    return localTtlOf(value).toNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, KakaoApiResponseDto value, long currentTime,
+                    long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    public KakaoApiResponseDto requestAddressSearch(String address) {
+        if (ObjectUtils.isEmpty(address)) return null;
+
+        String normalizedAddress = normalize(address);
+        if (normalizedAddress.isEmpty()) {
+            return kakaoAddressSearchService.requestAddressSearch(address);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        KakaoApiResponseDto cached = localCache.getIfPresent(normalizedAddress);
+        if (Objects.nonNull(cached)) {
+            sample.stop(geocodeTimer("local"));
+            return cached;
+        }
+
+        // Redis 또는 kakao api (같은 주소의 동시 요청은 먼저 들어온 요청의 결과를 기다린다.)
+        try {
+            return addressSearchFlight.execute(normalizedAddress, () -> load(normalizedAddress, address));
+        } finally {
+            sample.stop(geocodeTimer("remote"));
+        }
+    }
+
+    public long getLocalHitCount() {
+        return localCache.stats().hitCount();
+    }
+
+    public long getRedisHitCount() {
+        return redisHitCount.sum();
+    }
+
+    // 로컬, Redis 모두 없어서 kakao api 를 호출한 횟수
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    // 로컬 또는 Redis 캐시로 처리한 비율
+    public double getHitRatio() {
+        long hitCount = getLocalHitCount() + getRedisHitCount();
+        long requestCount = hitCount + getMissCount();
+        return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+    }
+
+    public long getEvictionCount() {
+        return localCache.stats().evictionCount();
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    // 같은 주소를 동시에 검색하여, 먼저 들어온 요청의 결과를 함께 사용한 횟수
+    public long getCoalescedCount() {
+        return addressSearchFlight.getCoalescedCount();
+    }
+
+    static String normalize(String address) {
+        return WHITESPACE.matcher(address.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private KakaoApiResponseDto load(String normalizedAddress, String address) {
+        KakaoApiResponseDto cached = findFromRedis(normalizedAddress);
+        if (Objects.nonNull(cached)) {
+            redisHitCount.increment();
+            localCache.put(normalizedAddress, cached);
+            return cached;
+        }
+
+        missCount.increment();
+        KakaoApiResponseDto response = kakaoAddressSearchService.requestAddressSearch(address);
+
+        // null 은 api 호출 실패(retry 모두 실패)이므로 캐시하지 않는다.
+        if (Objects.nonNull(response)) {
+            localCache.put(normalizedAddress, response);
+            saveToRedis(normalizedAddress, response);
+        }
+        return response;
+    }
+
+    private Timer geocodeTimer(String source) {
+        return Timer.builder(GEOCODE_METRIC_NAME)
+            .tag("source", source)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private KakaoApiResponseDto findFromRedis(String normalizedAddress) {
+        try {
+            Object value = redisTemplate.opsForValue().get(CACHE_KEY_PREFIX + normalizedAddress);
+            if (Objects.isNull(value)) {
+                return null;
+            }
+            return objectMapper.readValue(value.toString(), KakaoApiResponseDto.class);
+        } catch (Exception e) {
+            log.error("[KakaoAddressSearchCacheService findFromRedis error] {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveToRedis(String normalizedAddress, KakaoApiResponseDto response) {
+        try {
+            redisTemplate.opsForValue().set(CACHE_KEY_PREFIX + normalizedAddress,
+                objectMapper.writeValueAsString(response), redisTtlOf(response));
+        } catch (JsonProcessingException e) {
+            log.error("[KakaoAddressSearchCacheService saveToRedis serialize error] {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("[KakaoAddressSearchCacheService saveToRedis error] {}", e.getMessage());
+        }
+    }
+
+    private Duration localTtlOf(KakaoApiResponseDto response) {
+        return isNegative(response) ? negativeTtl : localExpireAfterWrite;
+    }
+
+    private Duration redisTtlOf(KakaoApiResponseDto response) {
+        return isNegative(response) ? negativeTtl : redisTtl;
+    }
+
+    private boolean isNegative(KakaoApiResponseDto response) {
+        return CollectionUtils.isEmpty(response.getDocumentList());
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.project.api.cache;
+
+import com.example.project.api.dto.CategorySearchTileDto;
+import com.example.project.api.dto.DocumentDto;
+import com.example.project.api.dto.KakaoApiResponseDto;
+import com.example.project.api.service.KakaoCategorySearchService;
+import com.example.project.pharmacy.index.GeoCell;
+import com.example.project.pharmacy.index.GeoDistance;
+import com.example.project.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * 약국 카테고리 검색 결과 캐시.
+ *
+ * 입력 좌표가 속한 격자(GeoCell) 중심에서 "반경 + 격자 반 대각선" 으로 한 번 검색한 후보 목록을
+ * 로컬 캐시(Caffeine) -> Redis 에 격자 단위로 보관하고, 요청마다 입력 좌표와의 거리로 다시 정렬한다.
+ * 후보 목록만으로 가까운 순서를 보장할 수 없는 경우(후보가 잘린 밀집 지역)에만 입력 좌표로 다시 검색하여 합친다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KakaoCategorySearchCacheService {
+
+    private static final String CACHE_KEY_PREFIX = "CATEGORY_SEARCH:PM9:";
+    private static final String CATEGORY_SEARCH_METRIC_NAME = "pharmacy.category-search";
+
+    // kakao 카테고리 검색의 최대 반경, 한 페이지 크기
+    private static final double MAX_RADIUS_KM = 20.0;
+    private static final int PAGE_SIZE = 15;
+
+    // kakao 거리와 직접 계산한 거리의 차이로 경계의 약국이 빠지지 않도록 10m 여유를 둔다.
+    private static final double MARGIN_KM = 0.01;
+
+    private final KakaoCategorySearchService kakaoCategorySearchService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kakao.category.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${kakao.category.cache.local.expire-after-write:10m}")
+    private Duration localExpireAfterWrite;
+
+    @Value("${kakao.category.cache.redis-ttl:1d}")
+    private Duration redisTtl;
+
+    // 격자 후보를 만들 때 조회할 최대 페이지 수
+    @Value("${kakao.category.cache.max-pages:3}")
+    private int maxPages = 3;
+
+    private Cache<String, CategorySearchTileDto> localCache;
+
+    // 같은 격자를 동시에 검색하는 경우 Redis 조회, kakao api 호출은 한 번만 한다.
+    private final SingleFlight<String, CategorySearchTileDto> tileSearchFlight = new SingleFlight<>();
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder apiRequestCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localExpireAfterWrite)
+            .build();
+    }
+
+    /**
+     * 입력 좌표에서 반경 이내의 약국을 가까운 순으로 limit 개까지 반환한다.
+     * distance 는 입력 좌표와의 거리(m)이다.
+     */
+    public List<DocumentDto> searchNearestPharmacies(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        requestCount.increment();
+
+        GeoCell cell = GeoCell.of(latitude, longitude);
+        String key = CACHE_KEY_PREFIX + cell.toGeoHash() + ":" + Math.round(radiusKm * 1000);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CategorySearchTileDto tile = localCache.getIfPresent(key);
+        String source = "local";
+        if (Objects.isNull(tile)) {
+            source = "remote";
+            tile = tileSearchFlight.execute(key, () -> load(key, cell, radiusKm));
+        }
+
+        if (Objects.nonNull(tile)) {
+            List<DocumentDto> ranked = rank(tile.getDocumentList(), latitude, longitude, radiusKm, limit);
+            double coveredKm = tile.getCoverageKm()
+                - GeoDistance.calculateDistance(cell.getCenterLatitude(), cell.getCenterLongitude(), latitude, longitude);
+            if (isExact(ranked, radiusKm, limit, coveredKm)) {
+                sample.stop(categorySearchTimer(source));
+                return ranked;
+            }
+        }
+
+        // 격자 후보만으로는 가까운 순서를 보장할 수 없으므로 입력 좌표로 검색하여 합친다.
+        fallbackCount.increment();
+        apiRequestCount.increment();
+        List<DocumentDto> merged = new ArrayList<>(search(latitude, longitude, radiusKm, 1));
+        if (Objects.nonNull(tile)) {
+            merged.addAll(tile.getDocumentList());
+        }
+        List<DocumentDto> ranked = rank(merged, latitude, longitude, radiusKm, limit);
+        sample.stop(categorySearchTimer("fallback"));
+        return ranked;
+    }
+
+    // 요청 중 kakao api 를 호출하지 않고 처리한 비율
+    public double getHitRatio() {
+        long requests = requestCount.sum();
+        return requests == 0 ? 0.0 : 1.0 - (double) apiRequestCount.sum() / requests;
+    }
+
+    public long getFallbackCount() {
+        return fallbackCount.sum();
+    }
+
+    // 중심에서 coveredKm 이내의 약국은 모두 후보에 있으므로, 결과가 그 안에 있으면 후보 밖에 더 가까운 약국은 없다.
+    static boolean isExact(List<DocumentDto> ranked, double radiusKm, int limit, double coveredKm) {
+        if (radiusKm <= coveredKm) {
+            return true;
+        }
+        return ranked.size() >= limit && ranked.get(limit - 1).getDistance() * 0.001 <= coveredKm;
+    }
+
+    // 입력 좌표와의 거리로 다시 계산하여, 반경 이내의 약국만 가까운 순으로 정렬한다. (같은 약국은 한 번만)
+    static List<DocumentDto> rank(List<DocumentDto> documentList, double latitude, double longitude,
+        double radiusKm, int limit) {
+        Map<String, DocumentDto> unique = new LinkedHashMap<>();
+        for (DocumentDto documentDto : documentList) {
+            double distanceKm = GeoDistance.calculateDistance(latitude, longitude,
+                documentDto.getLatitude(), documentDto.getLongitude());
+            if (distanceKm > radiusKm) {
+                continue;
+            }
+            unique.putIfAbsent(documentDto.getPlaceName() + "|" + documentDto.getAddressName(),
+                DocumentDto.builder()
+                    .placeName(documentDto.getPlaceName())
+                    .addressName(documentDto.getAddressName())
+                    .latitude(documentDto.getLatitude())
+                    .longitude(documentDto.getLongitude())
+                    .distance(distanceKm * 1000)
+                    .build());
+        }
+
+        List<DocumentDto> ranked = new ArrayList<>(unique.values());
+        ranked.sort(Comparator.comparingDouble(DocumentDto::getDistance));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    private CategorySearchTileDto load(String key, GeoCell cell, double radiusKm) {
+        CategorySearchTileDto cached = findFromRedis(key);
+        if (Objects.nonNull(cached)) {
+            localCache.put(key, cached);
+            return cached;
+        }
+
+        apiRequestCount.increment();
+        CategorySearchTileDto tile = searchTile(cell, radiusKm);
+        // null 은 api 호출 실패이므로 캐시하지 않는다.
+        if (Objects.nonNull(tile)) {
+            localCache.put(key, tile);
+            saveToRedis(key, tile);
+        }
+        return tile;
+    }
+
+    // 격자 중심에서 격자 안의 모든 지점의 반경을 포함하도록 검색한다. (최대 maxPages 페이지)
+    private CategorySearchTileDto searchTile(GeoCell cell, double radiusKm) {
+        double centerLatitude = cell.getCenterLatitude();
+        double centerLongitude = cell.getCenterLongitude();
+        double searchRadiusKm = Math.min(MAX_RADIUS_KM, radiusKm + cell.getHalfDiagonalKm() + MARGIN_KM);
+
+        List<DocumentDto> documentList = new ArrayList<>();
+        boolean complete = false;
+        for (int page = 1; page <= maxPages; page++) {
+            KakaoApiResponseDto response = request(centerLatitude, centerLongitude, searchRadiusKm, page);
+            if (Objects.isNull(response)) {
+                return null;
+            }
+            List<DocumentDto> pageList = CollectionUtils.isEmpty(response.getDocumentList())
+                ? Collections.emptyList()
+                : response.getDocumentList();
+            documentList.addAll(pageList);
+
+            Integer totalCount = Objects.isNull(response.getMetaDto()) ? null : response.getMetaDto().getTotalCount();
+            if (pageList.size() < PAGE_SIZE || (Objects.nonNull(totalCount) && documentList.size() >= totalCount)) {
+                complete = true;
+                break;
+            }
+        }
+
+        // 후보가 잘린 경우 가장 먼 후보까지만 모두 있다고 본다.
+        double coverageKm = searchRadiusKm;
+        if (!complete) {
+            coverageKm = documentList.stream()
+                .mapToDouble(documentDto -> GeoDistance.calculateDistance(centerLatitude, centerLongitude,
+                    documentDto.getLatitude(), documentDto.getLongitude()))
+                .max()
+                .orElse(0.0);
+        }
+        return new CategorySearchTileDto(Math.max(0.0, coverageKm - MARGIN_KM), documentList);
+    }
+
+    private List<DocumentDto> search(double latitude, double longitude, double radiusKm, int page) {
+        KakaoApiResponseDto response = request(latitude, longitude, radiusKm, page);
+        if (Objects.isNull(response) || CollectionUtils.isEmpty(response.getDocumentList())) {
+            return Collections.emptyList();
+        }
+        return response.getDocumentList();
+    }
+
+    private KakaoApiResponseDto request(double latitude, double longitude, double radiusKm, int page) {
+        try {
+            return kakaoCategorySearchService.requestPharmacyCategorySearch(latitude, longitude, radiusKm, page);
+        } catch (Exception e) {
+            log.error("[KakaoCategorySearchCacheService request error] {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Timer categorySearchTimer(String source) {
+        return Timer.builder(CATEGORY_SEARCH_METRIC_NAME)
+            .tag("source", source)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private CategorySearchTileDto findFromRedis(String key) {
+        try {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (Objects.isNull(value)) {
+                return null;
+            }
+            return objectMapper.readValue(value.toString(), CategorySearchTileDto.class);
+        } catch (Exception e) {
+            log.error("[KakaoCategorySearchCacheService findFromRedis error] {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveToRedis(String key, CategorySearchTileDto tile) {
+        try {
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(tile), redisTtl);
+        } catch (JsonProcessingException e) {
+            log.error("[KakaoCategorySearchCacheService saveToRedis serialize error] {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("[KakaoCategorySearchCacheService saveToRedis error] {}", e.getMessage());
+        }
+    }
+}
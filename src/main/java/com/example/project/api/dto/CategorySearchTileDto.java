@@ -0,0 +1,20 @@
+package com.example.project.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 격자(tile) 중심에서 카테고리 검색한 후보 목록.
+ * 중심에서 coverageKm 이내의 장소는 모두 documentList 에 있다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategorySearchTileDto {
+
+    private double coverageKm;
+
+    private List<DocumentDto> documentList;
+}
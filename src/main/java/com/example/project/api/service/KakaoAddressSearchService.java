@@ -1,51 +1,48 @@
 package com.example.project.api.service;
 
 import com.example.project.api.dto.KakaoApiResponseDto;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import java.net.URI;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
-import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KakaoAddressSearchService {
 
-    private final RestTemplate restTemplate;
+    private final KakaoApiClient kakaoApiClient;
     private final KakaoUriBuilderService kakaoUriBuilderService;
 
-    @Value("${kakao.rest.api.key}")
-    private String kakaoRestApiKey;
-
+    // 재시도 간격은 지수적으로 늘리되 무작위로 흩어서, 여러 요청이 같은 시점에 다시 몰리지 않도록 한다.
+    // circuit breaker 가 열린 경우는 재시도하지 않고 바로 recover
     @Retryable(
         value = {RuntimeException.class},
-        maxAttempts = 2,
-        backoff = @Backoff(delay = 2000)
+        exclude = {CallNotPermittedException.class},
+        maxAttemptsExpression = "${kakao.api.retry.max-attempts:2}",
+        backoff = @Backoff(
+            delayExpression = "${kakao.api.retry.delay-millis:200}",
+            maxDelayExpression = "${kakao.api.retry.max-delay-millis:2000}",
+            multiplier = 2,
+            random = true)
     )
     public KakaoApiResponseDto requestAddressSearch(String address){
         if(ObjectUtils.isEmpty(address)) return null;
 
         // kakao api 호출
         URI uri = kakaoUriBuilderService.buildUriByAddressSearch(address);
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.AUTHORIZATION, "KakaoAK "+kakaoRestApiKey);
-        HttpEntity httpEntity = new HttpEntity(headers);
 
-        return restTemplate.exchange(uri, HttpMethod.GET, httpEntity, KakaoApiResponseDto.class).getBody();
+        return kakaoApiClient.get(KakaoApiClient.Endpoint.ADDRESS_SEARCH, uri);
     }
 
     @Recover
     public KakaoApiResponseDto recover(RuntimeException e, String address){
-        log.error("ALl the retries failed. address: " + address, e.getMessage());
+        log.error("[KakaoAddressSearchService recover] all the retries failed. address: {}, error: {}", address, e.getMessage());
         return null;
     }
 }
@@ -0,0 +1,75 @@
+package com.example.project.api.service;
+
+import com.example.project.api.dto.KakaoApiResponseDto;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * kakao api 호출 공통 처리.
+ * api 별 circuit breaker 로 장애가 계속되면 바로 실패(CallNotPermittedException)하고, 호출 시간을 api 별로 기록한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KakaoApiClient {
+
+    private static final String REQUEST_METRIC_NAME = "kakao.api.requests";
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${kakao.rest.api.key}")
+    private String kakaoRestApiKey;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Endpoint {
+        ADDRESS_SEARCH("address-search"),
+        CATEGORY_SEARCH("category-search");
+
+        private final String name;
+    }
+
+    public KakaoApiResponseDto get(Endpoint endpoint, URI uri) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(endpoint.getName());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return circuitBreaker.executeSupplier(() -> exchange(uri));
+        } catch (CallNotPermittedException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(REQUEST_METRIC_NAME)
+                .tag("endpoint", endpoint.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    private KakaoApiResponseDto exchange(URI uri) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "KakaoAK " + kakaoRestApiKey);
+        HttpEntity<Void> httpEntity = new HttpEntity<>(headers);
+
+        return restTemplate.exchange(uri, HttpMethod.GET, httpEntity, KakaoApiResponseDto.class).getBody();
+    }
+}
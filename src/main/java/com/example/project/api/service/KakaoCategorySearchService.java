@@ -4,12 +4,7 @@ import com.example.project.api.dto.KakaoApiResponseDto;
 import java.net.URI;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 @Service
@@ -18,23 +13,20 @@ public class KakaoCategorySearchService {
 
     private final KakaoUriBuilderService kakaoUriBuilderService;
 
-    private final RestTemplate restTemplate;
+    private final KakaoApiClient kakaoApiClient;
 
     private static final String PHARMACY_CATEGORY = "PM9"; // 약국 카테고리
 
-    @Value("${kakao.rest.api.key}")
-    private String kakaoRestApiKey;
-
     public KakaoApiResponseDto requestPharmacyCategorySearch(double latitude, double longitude, double radius) {
+        return requestPharmacyCategorySearch(latitude, longitude, radius, 1);
+    }
 
-        URI uri = kakaoUriBuilderService.buildUriByCategorySearch(latitude, longitude, radius,
-            PHARMACY_CATEGORY);
+    public KakaoApiResponseDto requestPharmacyCategorySearch(double latitude, double longitude, double radius,
+        int page) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.AUTHORIZATION, "KakaoAK " + kakaoRestApiKey);
-        HttpEntity httpEntity = new HttpEntity<>(headers);
+        URI uri = kakaoUriBuilderService.buildUriByCategorySearch(latitude, longitude, radius,
+            PHARMACY_CATEGORY, page);
 
-        return restTemplate.exchange(uri, HttpMethod.GET, httpEntity, KakaoApiResponseDto.class)
-            .getBody();
+        return kakaoApiClient.get(KakaoApiClient.Endpoint.CATEGORY_SEARCH, uri);
     }
 }
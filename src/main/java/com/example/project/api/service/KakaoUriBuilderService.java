@@ -2,6 +2,7 @@ package com.example.project.api.service;
 
 import java.net.URI;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -9,31 +10,43 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Service
 public class KakaoUriBuilderService {
 
-    private static final String KAKAO_LOCAL_SEARCH_ADDRESS_URL = "https://dapi.kakao.com/v2/local/search/address.json";
-    private static final String KAKAO_LOCAL_CATEGORY_SEARCH_URL = "https://dapi.kakao.com/v2/local/search/category.json";
+    private static final String KAKAO_LOCAL_SEARCH_ADDRESS_PATH = "/v2/local/search/address.json";
+    private static final String KAKAO_LOCAL_CATEGORY_SEARCH_PATH = "/v2/local/search/category.json";
+
+    // 부하 테스트 등에서 kakao api 대신 stub 서버를 사용할 때 변경
+    @Value("${kakao.api.base-url:https://dapi.kakao.com}")
+    private String baseUrl = "https://dapi.kakao.com";
 
     public URI buildUriByAddressSearch(String address){
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(KAKAO_LOCAL_SEARCH_ADDRESS_URL);
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUrl + KAKAO_LOCAL_SEARCH_ADDRESS_PATH);
         uriBuilder.queryParam("query", address);
         URI uri = uriBuilder.build().encode().toUri();
-        log.info("[KakaoUriBuilderService.buildUriByAddressSearch] address: {}, uri:{}", address, uri);
+        log.debug("[KakaoUriBuilderService.buildUriByAddressSearch] address: {}, uri:{}", address, uri);
         return uri;
     }
 
     public URI buildUriByCategorySearch(double latitude, double longitude, double radius, String category) {
+        return buildUriByCategorySearch(latitude, longitude, radius, category, 1);
+    }
+
+    // page 는 1부터 시작 (한 페이지에 최대 15개)
+    public URI buildUriByCategorySearch(double latitude, double longitude, double radius, String category, int page) {
 
         double meterRadius = radius * 1000;
 
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(KAKAO_LOCAL_CATEGORY_SEARCH_URL);
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUrl + KAKAO_LOCAL_CATEGORY_SEARCH_PATH);
         uriBuilder.queryParam("category_group_code", category);
         uriBuilder.queryParam("x", longitude);
         uriBuilder.queryParam("y", latitude);
         uriBuilder.queryParam("radius", meterRadius);
         uriBuilder.queryParam("sort","distance");
+        if (page > 1) {
+            uriBuilder.queryParam("page", page);
+        }
 
         URI uri = uriBuilder.build().encode().toUri();
 
-        log.info("[KakaoAddressSearchService buildUriByCategorySearch] uri: {} ", uri);
+        log.debug("[KakaoUriBuilderService buildUriByCategorySearch] uri: {} ", uri);
 
         return uri;
     }
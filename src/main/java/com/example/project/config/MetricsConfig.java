@@ -0,0 +1,97 @@
+package com.example.project.config;
+
+import com.example.project.api.cache.KakaoAddressSearchCacheService;
+import com.example.project.api.cache.KakaoCategorySearchCacheService;
+import com.example.project.direction.cache.DirectionUrlCacheService;
+import com.example.project.direction.service.DirectionRetentionService;
+import com.example.project.direction.service.DirectionService;
+import com.example.project.direction.service.DirectionWriteBehindService;
+import com.example.project.pharmacy.service.PharmacySearchService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // 동시에 들어온 같은 요청을 합쳐서 처리한 횟수
+    @Bean
+    public MeterBinder singleFlightMetrics(KakaoAddressSearchCacheService kakaoAddressSearchCacheService,
+        DirectionService directionService) {
+        return registry -> {
+            FunctionCounter.builder("single.flight.coalesced", kakaoAddressSearchCacheService,
+                    KakaoAddressSearchCacheService::getCoalescedCount)
+                .tag("name", "address-search")
+                .register(registry);
+            FunctionCounter.builder("single.flight.coalesced", directionService,
+                    DirectionService::getNearestSearchCoalescedCount)
+                .tag("name", "nearest-search")
+                .register(registry);
+        };
+    }
+
+    // 메모리에 보관 중인 약국 수, write-behind 대기/재시도/실패 건수
+    @Bean
+    public MeterBinder pharmacyDataMetrics(PharmacySearchService pharmacySearchService,
+        DirectionWriteBehindService directionWriteBehindService) {
+        return registry -> {
+            Gauge.builder("pharmacy.dataset.size", pharmacySearchService, PharmacySearchService::getSnapshotSize)
+                .register(registry);
+            Gauge.builder("direction.write-behind.queue.depth", directionWriteBehindService,
+                    DirectionWriteBehindService::getQueueDepth)
+                .register(registry);
+            FunctionCounter.builder("direction.write-behind.retried", directionWriteBehindService,
+                    DirectionWriteBehindService::getRetriedCount)
+                .register(registry);
+            // 0 보다 커지면 저장하지 못한 추천 결과가 있다. (알림 대상)
+            FunctionCounter.builder("direction.write-behind.failed", directionWriteBehindService,
+                    DirectionWriteBehindService::getFailedCount)
+                .register(registry);
+        };
+    }
+
+    // 캐시 적중률 (address-search 는 로컬 + Redis, direction-url 은 로컬 캐시 기준,
+    // category-search 는 kakao api 를 호출하지 않고 처리한 요청 기준), address-search 로컬 캐시에서 밀려난 수
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(KakaoAddressSearchCacheService kakaoAddressSearchCacheService,
+        DirectionUrlCacheService directionUrlCacheService,
+        KakaoCategorySearchCacheService kakaoCategorySearchCacheService) {
+        return registry -> {
+            Gauge.builder("cache.hit.ratio", kakaoAddressSearchCacheService,
+                    KakaoAddressSearchCacheService::getHitRatio)
+                .tag("cache", "address-search")
+                .register(registry);
+            FunctionCounter.builder("cache.evictions", kakaoAddressSearchCacheService,
+                    KakaoAddressSearchCacheService::getEvictionCount)
+                .tag("cache", "address-search")
+                .register(registry);
+            Gauge.builder("cache.hit.ratio", directionUrlCacheService, DirectionUrlCacheService::getLocalHitRatio)
+                .tag("cache", "direction-url")
+                .register(registry);
+            Gauge.builder("cache.hit.ratio", kakaoCategorySearchCacheService,
+                    KakaoCategorySearchCacheService::getHitRatio)
+                .tag("cache", "category-search")
+                .register(registry);
+            FunctionCounter.builder("category.search.fallback", kakaoCategorySearchCacheService,
+                    KakaoCategorySearchCacheService::getFallbackCount)
+                .register(registry);
+        };
+    }
+
+    // 보관 기간이 지나 옮기거나(archived) 삭제한(deleted) 길안내 수
+    @Bean
+    public MeterBinder directionRetentionMetrics(DirectionRetentionService directionRetentionService) {
+        return registry -> {
+            FunctionCounter.builder("direction.retention.rows", directionRetentionService,
+                    DirectionRetentionService::getArchivedCount)
+                .tag("action", "archived")
+                .register(registry);
+            FunctionCounter.builder("direction.retention.rows", directionRetentionService,
+                    DirectionRetentionService::getDeletedCount)
+                .tag("action", "deleted")
+                .register(registry);
+        };
+    }
+}
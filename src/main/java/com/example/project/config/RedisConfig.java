@@ -1,11 +1,19 @@
 package com.example.project.config;
 
+import com.example.project.pharmacy.cache.PharmacyCacheFormat;
+import com.example.project.pharmacy.cache.PharmacyCacheInvalidationListener;
+import com.example.project.pharmacy.cache.PharmacyDtoRedisSerializer;
+import com.example.project.pharmacy.cache.PharmacyRedisTemplateService;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -17,6 +25,9 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${pharmacy.cache.format:binary}")
+    private PharmacyCacheFormat pharmacyCacheFormat;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         return new LettuceConnectionFactory(redisHost, redisPort);
@@ -27,8 +38,31 @@ public class RedisConfig {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(redisConnectionFactory());
         redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer()); // geo member (약국 id)
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
         redisTemplate.setHashValueSerializer(new StringRedisSerializer());
         return redisTemplate;
     }
+
+    // 약국 캐시 전용. hash value 는 PharmacyDto 를 직접 직렬화한다.
+    @Bean
+    public RedisTemplate<String, PharmacyDto> pharmacyRedisTemplate(ObjectMapper objectMapper) {
+        RedisTemplate<String, PharmacyDto> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory());
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new PharmacyDtoRedisSerializer(objectMapper, pharmacyCacheFormat)); // 약국 데이터
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer()); // 약국 id
+        redisTemplate.setHashValueSerializer(new PharmacyDtoRedisSerializer(objectMapper, pharmacyCacheFormat));
+        return redisTemplate;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+        PharmacyCacheInvalidationListener pharmacyCacheInvalidationListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        container.addMessageListener(pharmacyCacheInvalidationListener,
+            new ChannelTopic(PharmacyRedisTemplateService.INVALIDATION_CHANNEL));
+        return container;
+    }
 }
@@ -0,0 +1,106 @@
+package com.example.project.config;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 요청마다 traceId 를 MDC 에 넣고, 일부 요청(sample-rate)만 추적한다.
+ *
+ * 추적 대상 요청은 MDC 의 sampled 값이 true 이며, logback 설정에서 이 요청의 DEBUG 로그까지 출력한다.
+ * 요청이 끝나면 처리 시간을 한 줄로 남긴다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_KEY = "traceId";
+    public static final String SAMPLED_KEY = "sampled";
+
+    @Value("${pharmacy.logging.trace.sample-rate:0.0}")
+    private double sampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        String traceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        long startedAt = System.nanoTime();
+
+        MDC.put(TRACE_ID_KEY, traceId);
+        if (sampled) {
+            MDC.put(SAMPLED_KEY, "true");
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (sampled) {
+                if (request.isAsyncStarted()) {
+                    // DeferredResult, StreamingResponseBody 는 비동기 처리가 끝난 뒤에 기록
+                    request.getAsyncContext().addListener(new TraceAsyncListener(traceId,
+                        request.getMethod(), request.getRequestURI(), startedAt));
+                } else {
+                    logTrace(request.getMethod(), request.getRequestURI(), response.getStatus(), startedAt);
+                }
+            }
+            MDC.remove(TRACE_ID_KEY);
+            MDC.remove(SAMPLED_KEY);
+        }
+    }
+
+    private static void logTrace(String method, String uri, int status, long startedAt) {
+        log.info("[RequestTraceFilter] method: {}, uri: {}, status: {}, elapsed: {}ms",
+            method, uri, status, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private static class TraceAsyncListener implements AsyncListener {
+
+        // 비동기 처리가 끝난 뒤에는 request 객체를 재사용할 수 있으므로 값을 미리 복사해 둔다.
+        private final String traceId;
+        private final String method;
+        private final String uri;
+        private final long startedAt;
+
+        private TraceAsyncListener(String traceId, String method, String uri, long startedAt) {
+            this.traceId = traceId;
+            this.method = method;
+            this.uri = uri;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            MDC.put(TRACE_ID_KEY, traceId);
+            try {
+                logTrace(method, uri, ((HttpServletResponse) event.getSuppliedResponse()).getStatus(), startedAt);
+            } finally {
+                MDC.remove(TRACE_ID_KEY);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
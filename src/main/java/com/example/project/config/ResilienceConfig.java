@@ -0,0 +1,37 @@
+package com.example.project.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Value("${kakao.api.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${kakao.api.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${kakao.api.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${kakao.api.circuit-breaker.wait-duration-in-open-state:10s}")
+    private Duration waitDurationInOpenState;
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .failureRateThreshold(failureRateThreshold)
+            .slidingWindowSize(slidingWindowSize)
+            .minimumNumberOfCalls(minimumNumberOfCalls)
+            .waitDurationInOpenState(waitDurationInOpenState)
+            // 4xx 는 요청 자체의 문제이므로 장애로 보지 않는다.
+            .recordException(e -> !(e instanceof HttpClientErrorException))
+            .build());
+    }
+}
@@ -1,14 +1,58 @@
 package com.example.project.config;
 
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${kakao.api.http.connect-timeout-millis:1000}")
+    private int connectTimeoutMillis;
+
+    @Value("${kakao.api.http.read-timeout-millis:3000}")
+    private int readTimeoutMillis;
+
+    // 커넥션 풀에서 커넥션을 얻기까지 기다리는 시간
+    @Value("${kakao.api.http.connection-request-timeout-millis:500}")
+    private int connectionRequestTimeoutMillis;
+
+    @Value("${kakao.api.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${kakao.api.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${kakao.api.http.idle-timeout-millis:30000}")
+    private long idleTimeoutMillis;
+
     @Bean
     public RestTemplate restTemplate(){
-        return new RestTemplate();
+        // keep-alive 커넥션을 재사용하고, 응답이 늦어도 요청 스레드가 무한정 기다리지 않도록 timeout 을 둔다.
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(connectTimeoutMillis)
+            .setSocketTimeout(readTimeoutMillis)
+            .setConnectionRequestTimeout(connectionRequestTimeoutMillis)
+            .build();
+
+        CloseableHttpClient httpClient = HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .evictIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+            .disableAutomaticRetries() // 재시도는 spring retry 에서 처리
+            .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 }
@@ -0,0 +1,28 @@
+package com.example.project.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * 추적 대상 요청(RequestTraceFilter 에서 sampled 로 표시)에서는 이 애플리케이션의 DEBUG 로그도 출력한다.
+ * 그 외의 요청은 logger 에 설정된 level 을 그대로 따른다. (logback-spring.xml 에서 등록)
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    private static final String APPLICATION_LOGGER_PREFIX = "com.example.project";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+        Throwable t) {
+        if (level.isGreaterOrEqual(Level.DEBUG)
+            && logger.getName().startsWith(APPLICATION_LOGGER_PREFIX)
+            && "true".equals(MDC.get(RequestTraceFilter.SAMPLED_KEY))) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.project.config;
+
+import com.example.project.direction.controller.RecommendationSourceHeaderInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RecommendationSourceHeaderInterceptor())
+            .addPathPatterns("/search");
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.project.direction.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+/**
+ * 길안내 링크(encodedId) -> 카카오 지도 url 캐시.
+ * 로컬 캐시(Caffeine) -> Redis 순서로 조회한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectionUrlCacheService {
+
+    private static final String CACHE_KEY_PREFIX = "DIRECTION_URL:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${pharmacy.direction.url-cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${pharmacy.direction.url-cache.local.expire-after-write:10m}")
+    private Duration localExpireAfterWrite;
+
+    @Value("${pharmacy.direction.url-cache.redis-ttl:7d}")
+    private Duration redisTtl;
+
+    private Cache<String, String> localCache;
+
+    @PostConstruct
+    public void init() {
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localExpireAfterWrite)
+            .recordStats()
+            .build();
+    }
+
+    public String get(String encodedId) {
+        String url = localCache.getIfPresent(encodedId);
+        if (Objects.nonNull(url)) {
+            return url;
+        }
+
+        try {
+            Object value = redisTemplate.opsForValue().get(CACHE_KEY_PREFIX + encodedId);
+            if (Objects.isNull(value)) {
+                return null;
+            }
+            localCache.put(encodedId, value.toString());
+            return value.toString();
+        } catch (Exception e) {
+            log.error("[DirectionUrlCacheService get error] {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public void put(String encodedId, String url) {
+        localCache.put(encodedId, url);
+        try {
+            redisTemplate.opsForValue().set(CACHE_KEY_PREFIX + encodedId, url, redisTtl);
+        } catch (Exception e) {
+            log.error("[DirectionUrlCacheService put error] {}", e.getMessage());
+        }
+    }
+
+    // 여러 길안내 url 을 한 번에 캐시한다. (Redis 는 pipeline 으로 한 번 왕복)
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<String, String> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        localCache.putAll(urls);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    urls.forEach((encodedId, url) ->
+                        redisOperations.opsForValue().set(CACHE_KEY_PREFIX + encodedId, url, redisTtl));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("[DirectionUrlCacheService putAll error] {}", e.getMessage());
+        }
+    }
+
+    // 더 이상 유효하지 않은 길안내 링크 (다른 서버의 로컬 캐시는 expire-after-write 이후 만료)
+    public void evict(Collection<String> encodedIds) {
+        if (encodedIds.isEmpty()) {
+            return;
+        }
+        localCache.invalidateAll(encodedIds);
+        try {
+            redisTemplate.delete(encodedIds.stream()
+                .map(encodedId -> CACHE_KEY_PREFIX + encodedId)
+                .collect(Collectors.toList()));
+        } catch (Exception e) {
+            log.error("[DirectionUrlCacheService evict error] {}", e.getMessage());
+        }
+    }
+
+    public double getLocalHitRatio() {
+        return localCache.stats().hitRate();
+    }
+
+    public long getLocalHitCount() {
+        return localCache.stats().hitCount();
+    }
+
+    public long getLocalMissCount() {
+        return localCache.stats().missCount();
+    }
+}
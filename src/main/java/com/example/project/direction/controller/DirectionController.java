@@ -1,11 +1,14 @@
 package com.example.project.direction.controller;
 
 import com.example.project.direction.service.DirectionService;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.server.ResponseStatusException;
 
 @Controller
 @Slf4j
@@ -13,13 +16,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 public class DirectionController {
 
     private final DirectionService directionService;
-    private static final String DIRECTION_BASE_URL = "https://map.kakao.com/link/map/";
 
     @GetMapping("/dir/{encodedId}")
     public String searchDirection(@PathVariable("encodedId") String encodedId){
         String result = directionService.findDirectionUrlById(encodedId);
+        if (Objects.isNull(result)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "direction not found: " + encodedId);
+        }
         return "redirect:"+result;
     }
 
-
 }
@@ -1,31 +1,97 @@
 package com.example.project.direction.controller;
 
 import com.example.project.direction.dto.InputDto;
+import com.example.project.direction.dto.RecommendationResultDto;
+import com.example.project.direction.service.DirectionService;
 import com.example.project.pharmacy.service.PharmacyRecommendationService;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.ModelAndView;
 
+@Slf4j
 @Controller
 @RequiredArgsConstructor
 public class FormController {
 
+    // 추천 결과를 만든 검색 방식 (local, category, merged, none)
+    public static final String RECOMMENDATION_SOURCE_HEADER = "X-Recommendation-Source";
+    public static final String SOURCE_ATTRIBUTE = "source";
+
     private final PharmacyRecommendationService pharmacyRecommendationService;
+
+    // 추천 결과를 기다리는 최대 시간. 0 이하이면 제한 없음
+    @Value("${pharmacy.recommendation.async.timeout-millis:10000}")
+    private long timeoutMillis;
+
+    // 요청으로 받을 수 있는 최대 검색 반경, 추천 약국 수
+    @Value("${pharmacy.recommendation.max-radius-km:20}")
+    private double maxRadiusKm;
+
+    @Value("${pharmacy.recommendation.max-limit:10}")
+    private int maxLimit;
+
     @GetMapping("/")
     public String main(){
         return "main";
     }
 
+    // 추천이 끝날 때까지 tomcat 스레드를 점유하지 않도록 비동기로 응답한다.
+    // 추천 결과를 만든 검색 방식(source)은 model 에 담고, 응답 header 는 async dispatch 에서
+    // RecommendationSourceHeaderInterceptor 가 설정한다.
     @PostMapping("/search")
-    public ModelAndView postDirection(@ModelAttribute InputDto inputDto){
+    public DeferredResult<ModelAndView> postDirection(@ModelAttribute InputDto inputDto){
+
+        double radiusKm = Objects.isNull(inputDto.getRadiusKm())
+            ? DirectionService.DEFAULT_RADIUS_KM : inputDto.getRadiusKm();
+        int limit = Objects.isNull(inputDto.getLimit())
+            ? DirectionService.DEFAULT_SEARCH_COUNT : inputDto.getLimit();
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm) || limit <= 0 || limit > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid radiusKm or limit");
+        }
+
+        DeferredResult<ModelAndView> deferredResult = timeoutMillis > 0
+            ? new DeferredResult<>(timeoutMillis)
+            : new DeferredResult<>();
+
+        CompletableFuture<RecommendationResultDto> future;
+        try {
+            future = pharmacyRecommendationService.recommendAsync(inputDto.getAddress(), radiusKm, limit);
+        } catch (RejectedExecutionException e) {
+            log.error("[FormController postDirection] recommendation rejected. address: {}", inputDto.getAddress());
+            deferredResult.setErrorResult(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many recommendation requests"));
+            return deferredResult;
+        }
 
-        ModelAndView modelAndView = new ModelAndView();
-        modelAndView.setViewName("output");
-        modelAndView.addObject("outputFormList",
-            pharmacyRecommendationService.recommendPharmacyList(inputDto.getAddress()));
-        return modelAndView;
+        // 아직 실행되지 않은(queue 에서 기다리는) 추천은 취소하면 실행되지 않는다.
+        deferredResult.onTimeout(() -> {
+            future.cancel(true);
+            deferredResult.setErrorResult(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "recommendation timeout"));
+        });
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                deferredResult.setErrorResult(e);
+                return;
+            }
+            ModelAndView modelAndView = new ModelAndView();
+            modelAndView.setViewName("output");
+            modelAndView.addObject("outputFormList", result.getOutputDtoList());
+            modelAndView.addObject(SOURCE_ATTRIBUTE, result.getSource().name().toLowerCase(Locale.ROOT));
+            deferredResult.setResult(modelAndView);
+        });
+        return deferredResult;
     }
 }
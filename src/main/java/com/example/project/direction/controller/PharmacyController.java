@@ -1,10 +1,6 @@
 package com.example.project.direction.controller;
 
-import com.example.project.pharmacy.cache.PharmacyRedisTemplateService;
-import com.example.project.pharmacy.entity.PharmacyDto;
-import com.example.project.pharmacy.service.PharmacyRepositoryService;
-import java.util.List;
-import java.util.stream.Collectors;
+import com.example.project.pharmacy.service.PharmacyCacheLoadService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,24 +9,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 @RequiredArgsConstructor
 public class PharmacyController {
 
-    private final PharmacyRepositoryService pharmacyRepositoryService;
-    private final PharmacyRedisTemplateService pharmacyRedisTemplateService;
+    private final PharmacyCacheLoadService pharmacyCacheLoadService;
 
     // 데이터 초기 셋팅을 위한 임시 메서드
+    // DB 의 약국 데이터를 페이지 단위로 읽어 Redis 에 일괄 적재 (적재가 끝난 뒤 한 번에 교체)
     @GetMapping("/redis/save")
     public String save() {
-
-        List<PharmacyDto> pharmacyDtoList = pharmacyRepositoryService.findAll()
-            .stream().map(pharmacy -> PharmacyDto.builder()
-                .id(pharmacy.getId())
-                .pharmacyName(pharmacy.getPharmacyName())
-                .pharmacyAddress(pharmacy.getPharmacyAddress())
-                .latitude(pharmacy.getLatitude())
-                .longitude(pharmacy.getLongitude())
-                .build())
-            .collect(Collectors.toList());
-
-        pharmacyDtoList.forEach(pharmacyRedisTemplateService::save);
+        pharmacyCacheLoadService.load();
 
         return "success";
     }
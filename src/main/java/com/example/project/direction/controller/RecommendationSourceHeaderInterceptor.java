@@ -0,0 +1,27 @@
+package com.example.project.direction.controller;
+
+import java.util.Objects;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * /search 추천 결과를 만든 검색 방식(model 의 source)을 응답 header 로 내려준다.
+ *
+ * 추천은 다른 스레드에서 끝나므로, 응답을 쓰는 async dispatch 스레드에서 view 를 그리기 전에 설정한다.
+ */
+public class RecommendationSourceHeaderInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+        ModelAndView modelAndView) {
+        if (Objects.isNull(modelAndView)) {
+            return;
+        }
+        Object source = modelAndView.getModel().get(FormController.SOURCE_ATTRIBUTE);
+        if (Objects.nonNull(source)) {
+            response.setHeader(FormController.RECOMMENDATION_SOURCE_HEADER, source.toString());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.project.direction.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInputDto {
+    private List<String> addressList;
+}
@@ -0,0 +1,16 @@
+package com.example.project.direction.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BatchOutputDto {
+
+    private int index; // 요청한 주소 목록에서의 순서
+    private String address;
+    private boolean success; // 주소 변환 성공 여부
+    private List<OutputDto> outputDtoList;
+
+}
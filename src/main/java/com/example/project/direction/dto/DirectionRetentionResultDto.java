@@ -0,0 +1,20 @@
+package com.example.project.direction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class DirectionRetentionResultDto {
+    private boolean success;
+    private String message;
+    private String mode;
+    private String cutoff; // 이 시각 이전에 만든 길안내가 대상
+    private long archivedCount;
+    private long deletedCount;
+    private int batchCount;
+    private boolean completed; // false 이면 실행 시간 제한으로 남은 대상이 있음 (다음 실행에서 이어서 처리)
+    private long elapsedMillis;
+}
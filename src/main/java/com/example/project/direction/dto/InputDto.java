@@ -7,4 +7,8 @@ import lombok.Getter;
 @AllArgsConstructor
 public class InputDto {
     private String address;
+
+    // 검색 반경(km), 추천 약국 수. 없으면 기본값
+    private Double radiusKm;
+    private Integer limit;
 }
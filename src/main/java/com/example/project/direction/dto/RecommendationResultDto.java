@@ -0,0 +1,22 @@
+package com.example.project.direction.dto;
+
+import com.example.project.pharmacy.service.RecommendationSource;
+import java.util.Collections;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class RecommendationResultDto {
+
+    private List<OutputDto> outputDtoList;
+    private RecommendationSource source; // 결과를 만든 검색 방식
+
+    public static RecommendationResultDto empty() {
+        return RecommendationResultDto.builder()
+            .outputDtoList(Collections.emptyList())
+            .source(RecommendationSource.NONE)
+            .build();
+    }
+}
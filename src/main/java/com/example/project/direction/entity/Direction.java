@@ -5,20 +5,31 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity(name = "direction")
+@Table(indexes = @Index(name = "idx_direction_created_date", columnList = "createdDate"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Getter
 public class Direction extends BaseTimeEntity {
 
+    // 시퀀스에서 id 를 블록 단위로 미리 할당 받는다. (DirectionIdAllocator 와 같은 pooled-lo 방식)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "direction_id_generator")
+    @GenericGenerator(name = "direction_id_generator", strategy = "enhanced-sequence", parameters = {
+        @Parameter(name = "sequence_name", value = "direction_seq"),
+        @Parameter(name = "increment_size", value = "100"),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
 
     // 고객
@@ -35,5 +46,7 @@ public class Direction extends BaseTimeEntity {
     // 고객 주소 와 약국 주소 사이의 거리
     private double distance;
 
-
+    public void assignId(Long id) {
+        this.id = id;
+    }
 }
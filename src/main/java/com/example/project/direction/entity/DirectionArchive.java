@@ -0,0 +1,41 @@
+package com.example.project.direction.entity;
+
+import java.time.LocalDateTime;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 보관 기간이 지나 direction 에서 옮긴 길안내.
+ * DirectionRetentionService 가 JDBC 로 옮기며, 길안내 링크 조회에는 사용하지 않는다.
+ */
+@Entity(name = "direction_archive")
+@Table(indexes = @Index(name = "idx_direction_archive_created_date", columnList = "createdDate"))
+@Getter
+@NoArgsConstructor
+public class DirectionArchive {
+
+    // direction 의 id 를 그대로 사용
+    @Id
+    private Long id;
+
+    private LocalDateTime createdDate;
+    private LocalDateTime modifiedDate;
+
+    // direction_archive 로 옮긴 시각
+    private LocalDateTime archivedDate;
+
+    private String inputAddress;
+    private double inputLatitude;
+    private double inputLongitude;
+
+    private String targetPharmacyName;
+    private String targetAddress;
+    private double targetLatitude;
+    private double targetLongitude;
+
+    private double distance;
+}
@@ -1,10 +1,19 @@
 package com.example.project.direction.service;
 
 import io.seruco.encoding.base62.Base62;
+import java.util.Arrays;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * 길안내 링크에 사용하는 direction id 인코더/디코더.
+ *
+ * 새 형식은 id 를 62진수로 바로 변환하고 앞에 '0' 을 붙인다.
+ * 기존 형식(id 의 10진수 문자열 byte 를 base62 인코딩)은 첫 byte 가 0 이 아니므로 '0' 으로 시작하지 않아,
+ * 이미 발급된 링크도 그대로 디코딩할 수 있다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -12,12 +21,122 @@ public class Base62Service {
 
     private static final Base62 base62Instance = Base62.createInstance();
 
+    private static final char[] ALPHABET =
+        "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int BASE = 62;
+    private static final char NUMERIC_PREFIX = '0';
+
+    // 2^63 > 62^10 이므로 숫자 부분은 최대 11자리
+    private static final int MAX_NUMERIC_LENGTH = 11;
+
+    // 난독화는 62bit 범위 안에서 이루어지는 전단사 함수
+    private static final long MASK_62 = (1L << 62) - 1;
+    private static final long MULTIPLIER = 0x1E3779B97F4A7C15L; // 홀수
+    private static final long MULTIPLIER_INVERSE = inverse(MULTIPLIER);
+
+    private static final int[] DIGITS = new int[128];
+
+    static {
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = i;
+        }
+    }
+
+    // 순차적인 id 가 링크에 드러나지 않도록 할지 여부
+    @Value("${pharmacy.direction.id.obfuscation.enabled:false}")
+    private boolean obfuscationEnabled;
+
+    @Value("${pharmacy.direction.id.obfuscation.key:0}")
+    private long obfuscationKey;
+
     public String encodeDirectionId(Long directionId){
-        return new String(base62Instance.encode(String.valueOf(directionId).getBytes()));
+        if (directionId < 0 || directionId > MASK_62) {
+            throw new IllegalArgumentException("direction id out of range: " + directionId);
+        }
+
+        // 마지막 bit 로 난독화 여부를 표시하여, 설정이 바뀌어도 이전 링크를 디코딩할 수 있다.
+        long payload = obfuscationEnabled
+            ? (obfuscate(directionId) << 1) | 1L
+            : directionId << 1;
+        return encodeNumeric(payload);
     }
 
     public Long decodeDirectionId(String encodedDirectionId){
+        if (encodedDirectionId.length() > 1 && encodedDirectionId.charAt(0) == NUMERIC_PREFIX) {
+            long payload = decodeNumeric(encodedDirectionId);
+            long value = payload >>> 1;
+            return (payload & 1L) == 1L ? deobfuscate(value) : value;
+        }
+        return decodeLegacyDirectionId(encodedDirectionId);
+    }
+
+    // 기존 형식 링크 디코딩
+    Long decodeLegacyDirectionId(String encodedDirectionId) {
         String resultDirectionId = new String(base62Instance.decode(encodedDirectionId.getBytes()));
         return Long.valueOf(resultDirectionId);
     }
+
+    // 기존 형식 링크 인코딩 (비교, 테스트 용도)
+    String encodeLegacyDirectionId(Long directionId) {
+        return new String(base62Instance.encode(String.valueOf(directionId).getBytes()));
+    }
+
+    private static String encodeNumeric(long value) {
+        int length = 1;
+        for (long remaining = value / BASE; remaining > 0; remaining /= BASE) {
+            length++;
+        }
+
+        // 길이를 미리 맞춘 StringBuilder 에 뒤에서부터 채운다. (중간 char[] 없이 String 으로 변환)
+        StringBuilder encoded = new StringBuilder(length + 1);
+        encoded.setLength(length + 1);
+        encoded.setCharAt(0, NUMERIC_PREFIX);
+        for (int i = length; i > 0; i--) {
+            encoded.setCharAt(i, ALPHABET[(int) (value % BASE)]);
+            value /= BASE;
+        }
+        return encoded.toString();
+    }
+
+    private static long decodeNumeric(String encoded) {
+        int length = encoded.length();
+        if (length - 1 > MAX_NUMERIC_LENGTH) {
+            throw new IllegalArgumentException("invalid encoded direction id: " + encoded);
+        }
+
+        long value = 0;
+        for (int i = 1; i < length; i++) {
+            char c = encoded.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0 || value > (Long.MAX_VALUE - digit) / BASE) {
+                throw new IllegalArgumentException("invalid encoded direction id: " + encoded);
+            }
+            value = value * BASE + digit;
+        }
+        return value;
+    }
+
+    private long obfuscate(long id) {
+        long x = (id ^ obfuscationKey) & MASK_62;
+        x = (x * MULTIPLIER) & MASK_62;
+        x ^= x >>> 31;
+        return (x * MULTIPLIER) & MASK_62;
+    }
+
+    private long deobfuscate(long value) {
+        long x = (value * MULTIPLIER_INVERSE) & MASK_62;
+        x ^= x >>> 31;
+        x = (x * MULTIPLIER_INVERSE) & MASK_62;
+        return (x ^ obfuscationKey) & MASK_62;
+    }
+
+    // 홀수 a 의 2^64 에 대한 곱셈 역원 (Newton's method)
+    private static long inverse(long a) {
+        long x = a;
+        for (int i = 0; i < 5; i++) {
+            x *= 2 - a * x;
+        }
+        return x;
+    }
 }
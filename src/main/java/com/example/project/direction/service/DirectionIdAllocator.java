@@ -0,0 +1,34 @@
+package com.example.project.direction.service;
+
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * direction_seq 시퀀스에서 id 를 블록 단위로 할당 받아, DB 저장 전에 id 를 발급한다.
+ * nextval 값 v 를 받으면 [v, v + BLOCK_SIZE) 구간을 사용한다. (hibernate pooled-lo 와 동일)
+ */
+@Component
+@RequiredArgsConstructor
+public class DirectionIdAllocator {
+
+    // direction_seq 의 increment 값, Direction 엔티티의 increment_size 와 같아야 한다.
+    static final int BLOCK_SIZE = 100;
+
+    private static final String NEXT_VALUE_SQL = "select nextval(direction_seq)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private long nextId;
+    private long blockLimit;
+
+    public synchronized long nextId() {
+        if (nextId >= blockLimit) {
+            Long blockStart = jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class);
+            this.nextId = Objects.requireNonNull(blockStart);
+            this.blockLimit = blockStart + BLOCK_SIZE;
+        }
+        return nextId++;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.project.direction.service;
+
+/**
+ * 보관 기간이 지난 길안내(Direction) 처리 방식.
+ * pharmacy.direction.retention.mode 값으로 선택한다. (archive, delete)
+ */
+public enum DirectionRetentionMode {
+
+    // direction_archive 로 옮긴 뒤 삭제
+    ARCHIVE,
+
+    // 바로 삭제
+    DELETE
+}
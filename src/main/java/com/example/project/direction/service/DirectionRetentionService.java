@@ -0,0 +1,270 @@
+package com.example.project.direction.service;
+
+import com.example.project.direction.cache.DirectionUrlCacheService;
+import com.example.project.direction.dto.DirectionRetentionResultDto;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 보관 기간(period)이 지난 길안내(Direction)를 direction_archive 로 옮기거나(archive) 삭제(delete)한다.
+ *
+ * created_date 인덱스로 오래된 순서대로 batch-size 개씩 처리하고, batch 마다 짧은 트랜잭션으로 커밋한 뒤
+ * batch-pause-millis 만큼 쉬어 추천 요청의 insert, 길안내 조회가 오래 기다리지 않도록 한다.
+ * 한 번의 실행은 max-run-duration 을 넘지 않으며, 남은 대상은 다음 실행에서 이어서 처리한다.
+ * 여러 서버에서 동시에 실행하지 않도록 Redis lock 을 사용한다.
+ * 커밋한 batch 의 길안내 링크는 url 캐시에서도 지워, 정리된 길안내로 redirect 되지 않도록 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectionRetentionService {
+
+    private static final String LOCK_KEY = "DIRECTION_RETENTION_LOCK";
+
+    private static final String SELECT_EXPIRED_ID_SQL = "select id from direction where created_date < ? "
+        + "order by created_date limit ?";
+    private static final String ARCHIVE_SQL = "insert into direction_archive "
+        + "(id, created_date, modified_date, archived_date, distance, input_address, input_latitude, input_longitude, "
+        + "target_address, target_latitude, target_longitude, target_pharmacy_name) "
+        + "select id, created_date, modified_date, ?, distance, input_address, input_latitude, input_longitude, "
+        + "target_address, target_latitude, target_longitude, target_pharmacy_name "
+        + "from direction where id in (%s)";
+    private static final String DELETE_SQL = "delete from direction where id in (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Base62Service base62Service;
+    private final DirectionUrlCacheService directionUrlCacheService;
+
+    @Value("${pharmacy.direction.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pharmacy.direction.retention.mode:archive}")
+    private DirectionRetentionMode mode = DirectionRetentionMode.ARCHIVE;
+
+    // 이 기간보다 오래된 길안내가 대상
+    @Value("${pharmacy.direction.retention.period:90d}")
+    private Duration period = Duration.ofDays(90);
+
+    @Value("${pharmacy.direction.retention.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${pharmacy.direction.retention.batch-pause-millis:100}")
+    private long batchPauseMillis = 100;
+
+    @Value("${pharmacy.direction.retention.max-run-duration:10m}")
+    private Duration maxRunDuration = Duration.ofMinutes(10);
+
+    @Value("${pharmacy.direction.retention.initial-delay:5m}")
+    private Duration initialDelay;
+
+    @Value("${pharmacy.direction.retention.interval:1h}")
+    private Duration interval;
+
+    @Value("${pharmacy.direction.retention.lock-ttl:30m}")
+    private Duration lockTtl = Duration.ofMinutes(30);
+
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicBoolean purging = new AtomicBoolean(false);
+
+    private final LongAdder archivedCount = new LongAdder();
+    private final LongAdder deletedCount = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "direction-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runScheduled,
+            initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("[DirectionRetentionService start] mode: {}, period: {}, interval: {}", mode, period, interval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public DirectionRetentionResultDto purge() {
+        if (!purging.compareAndSet(false, true)) {
+            log.warn("[DirectionRetentionService purge] already running");
+            return failure("already running");
+        }
+
+        String token = acquireLock();
+        if (Objects.isNull(token)) {
+            purging.set(false);
+            log.info("[DirectionRetentionService purge] running on another server");
+            return failure("running on another server");
+        }
+
+        try {
+            return purgeBefore(LocalDateTime.now().minus(period));
+        } finally {
+            releaseLock(token);
+            purging.set(false);
+        }
+    }
+
+    DirectionRetentionResultDto purgeBefore(LocalDateTime cutoff) {
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + maxRunDuration.toMillis();
+        long archived = 0;
+        long deleted = 0;
+        int batchCount = 0;
+        boolean completed = false;
+        String message = null;
+
+        try {
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_ID_SQL, Long.class,
+                    Timestamp.valueOf(cutoff), batchSize);
+                if (ids.isEmpty()) {
+                    completed = true;
+                    break;
+                }
+
+                int[] counts = transactionTemplate.execute(status -> purgeBatch(ids));
+                if (Objects.isNull(counts)) {
+                    counts = new int[2];
+                }
+                evictDirectionUrls(ids);
+                archived += counts[0];
+                deleted += counts[1];
+                archivedCount.add(counts[0]);
+                deletedCount.add(counts[1]);
+                batchCount++;
+
+                if (ids.size() < batchSize) {
+                    completed = true;
+                    break;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(batchPauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            message = "interrupted";
+        } catch (Exception e) {
+            log.error("[DirectionRetentionService purge error] batch: {}, {}", batchCount, e.getMessage());
+            message = e.getMessage();
+        }
+
+        DirectionRetentionResultDto result = DirectionRetentionResultDto.builder()
+            .success(Objects.isNull(message))
+            .message(message)
+            .mode(mode.name().toLowerCase(Locale.ROOT))
+            .cutoff(cutoff.toString())
+            .archivedCount(archived)
+            .deletedCount(deleted)
+            .batchCount(batchCount)
+            .completed(completed)
+            .elapsedMillis(System.currentTimeMillis() - startedAt)
+            .build();
+        log.info("[DirectionRetentionService purge] mode: {}, cutoff: {}, archived: {}, deleted: {}, batch: {}, "
+                + "completed: {}, elapsed: {} ms",
+            result.getMode(), result.getCutoff(), result.getArchivedCount(), result.getDeletedCount(),
+            result.getBatchCount(), result.isCompleted(), result.getElapsedMillis());
+        return result;
+    }
+
+    public long getArchivedCount() {
+        return archivedCount.sum();
+    }
+
+    public long getDeletedCount() {
+        return deletedCount.sum();
+    }
+
+    // {옮긴 건수, 삭제한 건수}
+    private int[] purgeBatch(List<Long> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        int archived = 0;
+        if (mode == DirectionRetentionMode.ARCHIVE) {
+            Object[] args = new Object[ids.size() + 1];
+            args[0] = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < ids.size(); i++) {
+                args[i + 1] = ids.get(i);
+            }
+            archived = jdbcTemplate.update(String.format(ARCHIVE_SQL, placeholders), args);
+        }
+        int deleted = jdbcTemplate.update(String.format(DELETE_SQL, placeholders), ids.toArray());
+        return new int[]{archived, deleted};
+    }
+
+    // 새 형식 링크와 기존 형식 링크 모두 캐시 key 가 될 수 있다.
+    private void evictDirectionUrls(List<Long> ids) {
+        List<String> encodedIds = new ArrayList<>(ids.size() * 2);
+        for (Long id : ids) {
+            encodedIds.add(base62Service.encodeDirectionId(id));
+            encodedIds.add(base62Service.encodeLegacyDirectionId(id));
+        }
+        directionUrlCacheService.evict(encodedIds);
+    }
+
+    private void runScheduled() {
+        try {
+            purge();
+        } catch (Exception e) {
+            // 예외가 나가면 이후 실행이 취소되므로 여기서 처리
+            log.error("[DirectionRetentionService runScheduled error] {}", e.getMessage());
+        }
+    }
+
+    private String acquireLock() {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.error("[DirectionRetentionService acquireLock error]: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void releaseLock(String token) {
+        try {
+            if (token.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        } catch (Exception e) {
+            log.error("[DirectionRetentionService releaseLock error]: {}", e.getMessage());
+        }
+    }
+
+    private static DirectionRetentionResultDto failure(String message) {
+        return DirectionRetentionResultDto.builder().success(false).message(message).build();
+    }
+}
@@ -1,17 +1,28 @@
 package com.example.project.direction.service;
 
 import com.example.project.api.dto.DocumentDto;
-import com.example.project.api.service.KakaoCategorySearchService;
+import com.example.project.api.cache.KakaoCategorySearchCacheService;
+import com.example.project.direction.cache.DirectionUrlCacheService;
 import com.example.project.direction.direction.DirectionRepository;
 import com.example.project.direction.entity.Direction;
+import com.example.project.pharmacy.entity.NearbyPharmacyDto;
+import com.example.project.pharmacy.index.NearestSearchStrategy;
+import com.example.project.pharmacy.index.PharmacyCellService;
+import com.example.project.pharmacy.index.PharmacyIndexService;
 import com.example.project.pharmacy.service.PharmacySearchService;
+import com.example.project.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -21,85 +32,167 @@ import org.springframework.web.util.UriComponentsBuilder;
 @RequiredArgsConstructor
 public class DirectionService {
 
+    // 요청에 값이 없는 경우 기본값
     // 약국은 최대 3개까지만
     // 반경 10km이내 약국까지만
-    private static final int MAX_SEARCH_COUNT = 3;
-    private static final double RADIUS_KM = 10.0;
+    public static final int DEFAULT_SEARCH_COUNT = 3;
+    public static final double DEFAULT_RADIUS_KM = 10.0;
     private static final String DIRECTION_BASE_URL = "https://map.kakao.com/link/map/";
 
+    private static final String RANKING_METRIC_NAME = "pharmacy.ranking";
+    private static final String SAVE_METRIC_NAME = "direction.save";
+    private static final String REDIRECT_METRIC_NAME = "direction.redirect";
+
+    private final PharmacyIndexService pharmacyIndexService;
     private final PharmacySearchService pharmacySearchService;
+    private final PharmacyCellService pharmacyCellService;
     private final DirectionRepository directionRepository;
-    private final KakaoCategorySearchService kakaoCategorySearchService;
+    private final KakaoCategorySearchCacheService kakaoCategorySearchCacheService;
     private final Base62Service base62Service;
+    private final DirectionWriteBehindService directionWriteBehindService;
+    private final DirectionUrlCacheService directionUrlCacheService;
+    private final MeterRegistry meterRegistry;
+
+    // 같은 좌표를 동시에 검색하는 경우 검색은 한 번만 한다. (Direction 은 요청마다 새로 만든다.)
+    private final SingleFlight<String, List<NearbyPharmacyDto>> nearestSearchFlight = new SingleFlight<>();
+
+    @Value("${pharmacy.direction.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    @Value("${pharmacy.search.strategy:index}")
+    private NearestSearchStrategy searchStrategy = NearestSearchStrategy.INDEX;
 
     public List<Direction> saveAll(List<Direction> directionList){
         // 추천 결과 저장
         if(CollectionUtils.isEmpty(directionList)) return Collections.emptyList();
-        return directionRepository.saveAll(directionList);
+
+        // id 만 발급하고, DB 저장은 write-behind 큐에서 batch 로 처리
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Direction> savedList = writeBehindEnabled
+            ? directionWriteBehindService.enqueue(directionList)
+            : directionRepository.saveAll(directionList);
+        sample.stop(timer(SAVE_METRIC_NAME, "mode", writeBehindEnabled ? "write-behind" : "db"));
+
+        // 길안내 url 을 미리 캐시하여, 첫 클릭부터 DB 를 조회하지 않도록 한다. (write-through, Redis 한 번 왕복)
+        Map<String, String> urls = new HashMap<>(savedList.size() * 2);
+        savedList.forEach(direction -> urls.put(
+            base62Service.encodeDirectionId(direction.getId()), buildDirectionUrl(direction)));
+        directionUrlCacheService.putAll(urls);
+        return savedList;
     }
 
+    // 존재하지 않는 길안내 링크인 경우 null 을 반환
     public String findDirectionUrlById(String encodedId){
-        Long decodeId = base62Service.decodeDirectionId(encodedId);
-        Direction direction = directionRepository.findById(decodeId).orElse(null);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String cachedUrl = directionUrlCacheService.get(encodedId);
+        if (Objects.nonNull(cachedUrl)) {
+            sample.stop(timer(REDIRECT_METRIC_NAME, "source", "cache"));
+            return cachedUrl;
+        }
+
+        Long decodeId;
+        try {
+            decodeId = base62Service.decodeDirectionId(encodedId);
+        } catch (IllegalArgumentException e) {
+            log.error("[DirectionService findDirectionUrlById] invalid encodedId: {}", encodedId);
+            sample.stop(timer(REDIRECT_METRIC_NAME, "source", "invalid"));
+            return null;
+        }
+
+        Direction direction = directionRepository.findById(decodeId)
+            .orElseGet(() -> directionWriteBehindService.findPending(decodeId));
+        if (Objects.isNull(direction)) {
+            sample.stop(timer(REDIRECT_METRIC_NAME, "source", "not-found"));
+            return null;
+        }
+
+        String result = buildDirectionUrl(direction);
+        directionUrlCacheService.put(encodedId, result);
+        sample.stop(timer(REDIRECT_METRIC_NAME, "source", "db"));
+
+        log.debug("[DirectionService findDirectionUrlById] direction id: {}, url: {}", decodeId, result);
+        return result;
+    }
+
+    private String buildDirectionUrl(Direction direction) {
         String params = String.join(",", direction.getTargetPharmacyName(),
             String.valueOf(direction.getTargetLatitude()), String.valueOf(direction.getTargetLongitude()));
 
-        String result = UriComponentsBuilder.fromHttpUrl(DIRECTION_BASE_URL + params)
+        return UriComponentsBuilder.fromHttpUrl(DIRECTION_BASE_URL + params)
             .toUriString();
-
-        log.info("direction params: {}, url: {}", params, result);
-        return result;
     }
 
     public List<Direction> buildDirectionList(DocumentDto documentDto) {
+        return buildDirectionList(documentDto, DEFAULT_RADIUS_KM, DEFAULT_SEARCH_COUNT);
+    }
+
+    public List<Direction> buildDirectionList(DocumentDto documentDto, double radiusKm, int limit) {
         // documentDto : 고객 주소의 위도, 경도값을 가짐
 
         if (Objects.isNull(documentDto)) {
             return Collections.emptyList();
         }
 
-        // 약국 데이터 조회
-        // 거리계산 알고리즘을 이용하여, 고객과 약국 사이의 거리를 계산하고 sort
-        return pharmacySearchService.searchPharmacyDtoList()
-            .stream().map(pharmacyDto -> Direction.builder()
+        // 반경 이내의 가까운 약국만 조회하고, 선택된 약국만 Direction 으로 변환
+        return searchNearest(documentDto.getLatitude(), documentDto.getLongitude(), radiusKm, limit)
+            .stream().map(nearbyPharmacyDto -> Direction.builder()
                 .inputAddress(documentDto.getAddressName())
                 .inputLatitude(documentDto.getLatitude())
                 .inputLongitude(documentDto.getLongitude())
-                .targetAddress(pharmacyDto.getPharmacyAddress())
-                .targetPharmacyName(pharmacyDto.getPharmacyName())
-                .targetLatitude(pharmacyDto.getLatitude())
-                .targetLongitude(pharmacyDto.getLongitude())
-                .distance(
-                    calculateDistance(documentDto.getLatitude(), documentDto.getLongitude()
-                        , pharmacyDto.getLatitude(), pharmacyDto.getLongitude())
-                )
+                .targetAddress(nearbyPharmacyDto.getPharmacyDto().getPharmacyAddress())
+                .targetPharmacyName(nearbyPharmacyDto.getPharmacyDto().getPharmacyName())
+                .targetLatitude(nearbyPharmacyDto.getPharmacyDto().getLatitude())
+                .targetLongitude(nearbyPharmacyDto.getPharmacyDto().getLongitude())
+                .distance(nearbyPharmacyDto.getDistance())
                 .build())
-            .filter(direction -> direction.getDistance() <= RADIUS_KM)
-            .sorted(Comparator.comparing(Direction::getDistance))
-            .limit(MAX_SEARCH_COUNT)
             .collect(Collectors.toList());
     }
 
-    // Haversine formula
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        lat1 = Math.toRadians(lat1);
-        lon1 = Math.toRadians(lon1);
-        lat2 = Math.toRadians(lat2);
-        lon2 = Math.toRadians(lon2);
-
-        double earthRadius = 6371; //Kilometers
-        return earthRadius * Math.acos(
-            Math.sin(lat1) * Math.sin(lat2) + Math.cos(lat1) * Math.cos(lat2) * Math.cos(
-                lon1 - lon2));
+    // 같은 좌표를 동시에 검색하여, 먼저 들어온 요청의 결과를 함께 사용한 횟수
+    public long getNearestSearchCoalescedCount() {
+        return nearestSearchFlight.getCoalescedCount();
+    }
+
+    private List<NearbyPharmacyDto> searchNearest(double latitude, double longitude, double radiusKm, int limit) {
+        return nearestSearchFlight.execute(latitude + "," + longitude + "," + radiusKm + "," + limit,
+            () -> searchNearestByStrategy(latitude, longitude, radiusKm, limit));
+    }
+
+    private List<NearbyPharmacyDto> searchNearestByStrategy(double latitude, double longitude, double radiusKm,
+        int limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (searchStrategy == NearestSearchStrategy.REDIS_GEO) {
+                return pharmacySearchService.searchNearby(latitude, longitude, radiusKm, limit);
+            }
+            if (searchStrategy == NearestSearchStrategy.CELL) {
+                return pharmacyCellService.searchNearest(latitude, longitude, radiusKm, limit);
+            }
+            return pharmacyIndexService.searchNearest(latitude, longitude, radiusKm, limit);
+        } finally {
+            sample.stop(timer(RANKING_METRIC_NAME, "strategy", searchStrategy.name().toLowerCase(Locale.ROOT).replace('_', '-')));
+        }
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue) {
+        return Timer.builder(name)
+            .tag(tagKey, tagValue)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
     }
 
     // pharmacy search by category kakao api
     public List<Direction> buildDirectionListByCategoryApi(DocumentDto inputDocumentDto) {
+        return buildDirectionListByCategoryApi(inputDocumentDto, DEFAULT_RADIUS_KM, DEFAULT_SEARCH_COUNT);
+    }
+
+    public List<Direction> buildDirectionListByCategoryApi(DocumentDto inputDocumentDto, double radiusKm, int limit) {
         if(Objects.isNull(inputDocumentDto)) return Collections.emptyList();
 
-        return kakaoCategorySearchService
-            .requestPharmacyCategorySearch(inputDocumentDto.getLatitude(), inputDocumentDto.getLongitude(), RADIUS_KM)
-            .getDocumentList()
+        // 격자 단위로 캐시한 후보를 입력 좌표와의 거리로 다시 정렬한 결과
+        return kakaoCategorySearchCacheService
+            .searchNearestPharmacies(inputDocumentDto.getLatitude(), inputDocumentDto.getLongitude(),
+                radiusKm, limit)
             .stream().map(resultDocumentDto ->
                 Direction.builder()
                     .inputAddress(inputDocumentDto.getAddressName())
@@ -111,7 +204,6 @@ public class DirectionService {
                     .targetLongitude(resultDocumentDto.getLongitude())
                     .distance(resultDocumentDto.getDistance() * 0.001) // km 단위
                     .build())
-            .limit(MAX_SEARCH_COUNT)
             .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,304 @@
+package com.example.project.direction.service;
+
+import com.example.project.direction.cache.DirectionUrlCacheService;
+import com.example.project.direction.entity.Direction;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 추천 결과(Direction)를 요청 스레드에서 바로 저장하지 않고, 큐에 쌓아 두었다가
+ * 별도 스레드에서 batch-size 또는 flush-interval 단위로 JDBC batch insert 한다.
+ * id 는 큐에 넣기 전에 DirectionIdAllocator 로 발급하므로, 저장 전에도 길안내 url 을 만들 수 있다.
+ *
+ * 저장에 실패한 batch 는 retry-backoff-millis 부터 두 배씩 늘려 가며 max-attempts 번까지 다시 저장하고,
+ * 그래도 실패하면 한 건씩 저장하여 저장할 수 없는 Direction 만 버린다. (failed 로 집계, 길안내 url 캐시 삭제)
+ * Direction 은 저장에 성공하거나 버릴 때까지 pending 에 남아 있어 길안내 링크로 조회할 수 있다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectionWriteBehindService {
+
+    private static final String INSERT_SQL = "insert into direction "
+        + "(id, created_date, modified_date, distance, input_address, input_latitude, input_longitude, "
+        + "target_address, target_latitude, target_longitude, target_pharmacy_name) "
+        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5000L;
+
+    // 종료시 flush 스레드를 기다리는 시간에 더하는 저장(JDBC) 시간 여유
+    private static final long SHUTDOWN_WRITE_MARGIN_MILLIS = 5000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DirectionIdAllocator directionIdAllocator;
+    private final Base62Service base62Service;
+    private final DirectionUrlCacheService directionUrlCacheService;
+
+    @Value("${pharmacy.direction.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${pharmacy.direction.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${pharmacy.direction.write-behind.flush-interval-millis:200}")
+    private long flushIntervalMillis;
+
+    // 큐가 가득 찬 경우 기다리는 시간. 이 시간이 지나면 요청 스레드에서 직접 저장한다. (backpressure)
+    @Value("${pharmacy.direction.write-behind.offer-timeout-millis:100}")
+    private long offerTimeoutMillis;
+
+    @Value("${pharmacy.direction.write-behind.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${pharmacy.direction.write-behind.retry-backoff-millis:200}")
+    private long retryBackoffMillis;
+
+    private BlockingQueue<Direction> queue;
+
+    // 아직 DB 에 저장되지 않은 Direction <id, Direction>
+    private final Map<Long, Direction> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder flushedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retriedCount = new LongAdder();
+    private final LongAdder callerRunsCount = new LongAdder();
+
+    // 종료 중에 flush 스레드가 저장하지 못한 batch (shutdown 에서 저장)
+    private final List<Direction> unflushed = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean running;
+    private Thread flushThread;
+
+    @PostConstruct
+    public void start() {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.running = true;
+        this.flushThread = new Thread(this::runFlushLoop, "direction-write-behind");
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    /**
+     * flush 스레드가 저장 중인 batch 를 끝낼 때까지(재시도 포함) 기다린 후, 큐에 남은 데이터를 저장한다.
+     * 그 시간 안에 끝나지 않으면 flush 스레드를 중단하고, 저장하지 못한 batch 도 함께 저장한다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flushThread != null) {
+            flushThread.join(flushTimeoutMillis());
+            if (flushThread.isAlive()) {
+                log.warn("[DirectionWriteBehindService shutdown] flush thread did not finish. interrupting");
+                flushThread.interrupt();
+                flushThread.join();
+            }
+        }
+
+        // 종료 전에 남은 데이터를 모두 저장
+        List<Direction> remaining = new ArrayList<>(unflushed);
+        unflushed.clear();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flushWithRetry(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+        log.info("[DirectionWriteBehindService shutdown] drained: {}", remaining.size());
+    }
+
+    public List<Direction> enqueue(List<Direction> directionList) {
+        directionList.forEach(direction -> direction.assignId(directionIdAllocator.nextId()));
+
+        List<Direction> overflow = new ArrayList<>();
+        for (Direction direction : directionList) {
+            pending.put(direction.getId(), direction);
+            if (!offer(direction)) {
+                overflow.add(direction);
+            }
+        }
+
+        // 요청 스레드에서 저장하며, 실패하면 요청도 실패한다. (DB 에 바로 저장하는 경우와 같음)
+        if (!overflow.isEmpty()) {
+            callerRunsCount.add(overflow.size());
+            if (!write(overflow)) {
+                overflow.forEach(direction -> pending.remove(direction.getId()));
+                throw new IllegalStateException("failed to save directions: " + overflow.size());
+            }
+        }
+        return directionList;
+    }
+
+    // 저장 대기 중인 Direction 조회 (저장 전 길안내 url 조회용)
+    public Direction findPending(Long id) {
+        return pending.get(id);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return capacity;
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.sum();
+    }
+
+    // 재시도 후에도 저장하지 못해 버린 Direction 수
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    // 저장에 실패하여 batch 를 다시 저장한 횟수
+    public long getRetriedCount() {
+        return retriedCount.sum();
+    }
+
+    public long getCallerRunsCount() {
+        return callerRunsCount.sum();
+    }
+
+    private boolean offer(Direction direction) {
+        try {
+            return running && queue.offer(direction, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runFlushLoop() {
+        List<Direction> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Direction first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // batch-size 가 채워지거나 flush-interval 이 지나면 저장
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+                    Direction next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flushWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unflushed.addAll(batch);
+                break;
+            } catch (Exception e) {
+                log.error("[DirectionWriteBehindService flush loop error] {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushWithRetry(List<Direction> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long backoffMillis = retryBackoffMillis;
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            if (write(batch)) {
+                return;
+            }
+            retriedCount.increment();
+            TimeUnit.MILLISECONDS.sleep(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF_MILLIS);
+        }
+        if (write(batch)) {
+            return;
+        }
+
+        // 일부 Direction 때문에 batch 전체를 버리지 않도록 한 건씩 저장
+        List<Direction> failed = new ArrayList<>();
+        for (Direction direction : batch) {
+            if (batch.size() == 1 || !write(List.of(direction))) {
+                failed.add(direction);
+            }
+        }
+        drop(failed);
+    }
+
+    // batch 를 모으는 시간 + 재시도 대기 시간의 합 + 저장 시간 여유
+    long flushTimeoutMillis() {
+        long timeoutMillis = flushIntervalMillis * 2 + SHUTDOWN_WRITE_MARGIN_MILLIS;
+        long backoffMillis = retryBackoffMillis;
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            timeoutMillis += backoffMillis;
+            backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF_MILLIS);
+        }
+        return timeoutMillis;
+    }
+
+    // 저장에 성공한 경우에만 pending 에서 제거한다.
+    private boolean write(List<Direction> batch) {
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, direction) -> {
+                ps.setLong(1, direction.getId());
+                ps.setTimestamp(2, now);
+                ps.setTimestamp(3, now);
+                ps.setDouble(4, direction.getDistance());
+                ps.setString(5, direction.getInputAddress());
+                ps.setDouble(6, direction.getInputLatitude());
+                ps.setDouble(7, direction.getInputLongitude());
+                ps.setString(8, direction.getTargetAddress());
+                ps.setDouble(9, direction.getTargetLatitude());
+                ps.setDouble(10, direction.getTargetLongitude());
+                ps.setString(11, direction.getTargetPharmacyName());
+            });
+        } catch (Exception e) {
+            log.error("[DirectionWriteBehindService write error] size: {}, {}", batch.size(), e.getMessage());
+            return false;
+        }
+
+        flushedCount.add(batch.size());
+        batch.forEach(direction -> pending.remove(direction.getId()));
+        return true;
+    }
+
+    // 저장할 수 없는 Direction 은 길안내 링크가 나중에 갑자기 404 가 되지 않도록 url 캐시에서도 지운다.
+    private void drop(List<Direction> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        failedCount.add(failed.size());
+        List<String> encodedIds = new ArrayList<>(failed.size());
+        for (Direction direction : failed) {
+            pending.remove(direction.getId());
+            encodedIds.add(base62Service.encodeDirectionId(direction.getId()));
+        }
+        directionUrlCacheService.evict(encodedIds);
+        log.error("[DirectionWriteBehindService drop] size: {}, ids: {}", failed.size(),
+            failed.stream().map(Direction::getId).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.project.pharmacy.cache;
+
+// Redis 에 저장하는 약국 데이터 형식. 읽을 때는 두 형식을 모두 지원한다.
+public enum PharmacyCacheFormat {
+    BINARY,
+    JSON // 이전 버전 서버와 함께 운영하는 동안 사용
+}
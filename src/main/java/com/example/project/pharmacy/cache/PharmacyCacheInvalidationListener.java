@@ -0,0 +1,27 @@
+package com.example.project.pharmacy.cache;
+
+import com.example.project.pharmacy.event.PharmacyDataChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 다른 서버에서 약국 캐시를 변경한 경우 Redis pub/sub 으로 알림을 받아,
+ * 이 서버의 인메모리 데이터도 갱신되도록 이벤트를 발행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PharmacyCacheInvalidationListener implements MessageListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        log.debug("[PharmacyCacheInvalidationListener] version: {}", new String(message.getBody()));
+        applicationEventPublisher.publishEvent(PharmacyDataChangedEvent.remote());
+    }
+}
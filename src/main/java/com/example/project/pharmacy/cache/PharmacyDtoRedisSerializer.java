@@ -0,0 +1,164 @@
+package com.example.project.pharmacy.cache;
+
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * PharmacyDto 를 Redis hash value 로 저장하기 위한 serializer.
+ *
+ * binary 형식: [version(1)] [id(varint)] [latitude(8)] [longitude(8)] [pharmacyName] [pharmacyAddress]
+ * 문자열은 (UTF-8 byte 길이 + 1)을 varint 로 쓰고 byte 를 이어서 쓴다. 길이 값 0 은 null 이다.
+ *
+ * 기존에 JSON 으로 저장된 값('{' 로 시작)도 읽을 수 있어, 캐시를 다시 적재하는 동안 두 형식이 섞여 있어도 된다.
+ */
+public class PharmacyDtoRedisSerializer implements RedisSerializer<PharmacyDto> {
+
+    static final byte BINARY_VERSION_1 = 0x01;
+    private static final byte JSON_START = '{';
+
+    private final ObjectMapper objectMapper;
+    private final PharmacyCacheFormat format;
+
+    public PharmacyDtoRedisSerializer(ObjectMapper objectMapper, PharmacyCacheFormat format) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    @Override
+    public byte[] serialize(PharmacyDto pharmacyDto) throws SerializationException {
+        if (Objects.isNull(pharmacyDto)) {
+            return null;
+        }
+        if (format == PharmacyCacheFormat.JSON) {
+            return serializeJson(pharmacyDto);
+        }
+
+        Long id = pharmacyDto.getId();
+        if (Objects.isNull(id) || id < 0) {
+            throw new SerializationException("invalid pharmacy id: " + id);
+        }
+        byte[] pharmacyName = toBytes(pharmacyDto.getPharmacyName());
+        byte[] pharmacyAddress = toBytes(pharmacyDto.getPharmacyAddress());
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + varLongSize(id) + Double.BYTES * 2
+            + stringSize(pharmacyName) + stringSize(pharmacyAddress));
+        buffer.put(BINARY_VERSION_1);
+        putVarLong(buffer, id);
+        buffer.putDouble(pharmacyDto.getLatitude());
+        buffer.putDouble(pharmacyDto.getLongitude());
+        putString(buffer, pharmacyName);
+        putString(buffer, pharmacyAddress);
+        return buffer.array();
+    }
+
+    @Override
+    public PharmacyDto deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JSON_START) {
+            return deserializeJson(bytes);
+        }
+        if (bytes[0] != BINARY_VERSION_1) {
+            throw new SerializationException("unknown pharmacy cache format version: " + bytes[0]);
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            return PharmacyDto.builder()
+                .id(getVarLong(buffer))
+                .latitude(buffer.getDouble())
+                .longitude(buffer.getDouble())
+                .pharmacyName(getString(buffer))
+                .pharmacyAddress(getString(buffer))
+                .build();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("invalid pharmacy cache value", e);
+        }
+    }
+
+    private byte[] serializeJson(PharmacyDto pharmacyDto) {
+        try {
+            return objectMapper.writeValueAsBytes(pharmacyDto);
+        } catch (IOException e) {
+            throw new SerializationException("could not write pharmacy json", e);
+        }
+    }
+
+    private PharmacyDto deserializeJson(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, PharmacyDto.class);
+        } catch (IOException e) {
+            throw new SerializationException("could not read pharmacy json", e);
+        }
+    }
+
+    private static byte[] toBytes(String value) {
+        return Objects.isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] value) {
+        int length = Objects.isNull(value) ? 0 : value.length;
+        return varLongSize(length + 1L) + length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (Objects.isNull(value)) {
+            putVarLong(buffer, 0L);
+            return;
+        }
+        putVarLong(buffer, value.length + 1L);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        long length = getVarLong(buffer);
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > buffer.remaining()) {
+            throw new IllegalArgumentException("string length exceeds remaining bytes: " + length);
+        }
+
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+            (int) length - 1, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + (int) length - 1);
+        return value;
+    }
+
+    // 7bit 씩 나누어, 다음 byte 가 있으면 최상위 bit 를 1 로 쓴다.
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint is too long");
+    }
+}
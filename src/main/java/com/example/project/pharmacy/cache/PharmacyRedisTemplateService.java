@@ -1,17 +1,31 @@
 package com.example.project.pharmacy.cache;
 
+import com.example.project.pharmacy.entity.NearbyPharmacyDto;
 import com.example.project.pharmacy.entity.PharmacyDto;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.project.pharmacy.event.PharmacyDataChangedEvent;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.GeoOperations;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -20,15 +34,27 @@ import org.springframework.stereotype.Service;
 public class PharmacyRedisTemplateService {
 
     private static final String CACHE_KEY = "PHARMACY";
+    private static final String GEO_KEY = "PHARMACY_GEO";
+    // 일괄 적재 중인 데이터. 적재가 끝나면 CACHE_KEY, GEO_KEY 로 교체한다.
+    private static final String STAGING_CACHE_KEY = "PHARMACY_STAGING";
+    private static final String STAGING_GEO_KEY = "PHARMACY_GEO_STAGING";
+    private static final String VERSION_KEY = "PHARMACY_VERSION";
+    public static final String INVALIDATION_CHANNEL = "PHARMACY_INVALIDATION";
+    public static final long UNKNOWN_VERSION = -1L;
     private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, PharmacyDto> pharmacyRedisTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     // <key, field(:PK값처럼 쓸), value>
-    private HashOperations<String, String, String> hashOperations;
+    private HashOperations<String, String, PharmacyDto> hashOperations;
+
+    // <key, member(약국 id), 경도/위도>
+    private GeoOperations<String, Object> geoOperations;
 
     @PostConstruct
     public void init() {
-        this.hashOperations = redisTemplate.opsForHash();
+        this.hashOperations = pharmacyRedisTemplate.opsForHash();
+        this.geoOperations = redisTemplate.opsForGeo();
     }
 
     public void save(PharmacyDto pharmacyDto) {
@@ -38,43 +64,256 @@ public class PharmacyRedisTemplateService {
         }
 
         try {
+            // 변경 전 위치도 알려야, 위치 기반으로 미리 계산한 데이터를 함께 갱신할 수 있다.
+            PharmacyDto previous = hashOperations.get(CACHE_KEY, pharmacyDto.getId().toString());
             hashOperations.put(CACHE_KEY,
                 pharmacyDto.getId().toString(),
-                serializePharmacyDto(pharmacyDto));
-            log.info("[PharmacyRedisTemplateService save success] id: {}", pharmacyDto.getId());
+                pharmacyDto);
+            geoOperations.add(GEO_KEY,
+                new Point(pharmacyDto.getLongitude(), pharmacyDto.getLatitude()),
+                pharmacyDto.getId().toString());
+            notifyDataChanged(changedList(previous, pharmacyDto), List.of(pharmacyDto), Collections.emptyList());
+            log.debug("[PharmacyRedisTemplateService save success] id: {}", pharmacyDto.getId());
         } catch (Exception e) {
             log.error("[PharmacyRedisTemplateService save error] {}", e.getMessage());
         }
     }
 
+    /**
+     * 일괄 적재용 staging key 에 약국 목록을 저장한다. (HSET, GEOADD 를 목록 단위로 한 번씩 호출)
+     * 조회에는 반영되지 않으며, publishStaging() 을 호출해야 반영된다.
+     */
+    public void saveAllToStaging(List<PharmacyDto> pharmacyDtoList) {
+        Map<String, PharmacyDto> values = new HashMap<>(pharmacyDtoList.size() * 2);
+        Map<Object, Point> points = new HashMap<>(pharmacyDtoList.size() * 2);
+        for (PharmacyDto pharmacyDto : pharmacyDtoList) {
+            if (Objects.isNull(pharmacyDto.getId())) {
+                continue;
+            }
+            String id = pharmacyDto.getId().toString();
+            values.put(id, pharmacyDto);
+            points.put(id, new Point(pharmacyDto.getLongitude(), pharmacyDto.getLatitude()));
+        }
+        if (values.isEmpty()) {
+            return;
+        }
+
+        hashOperations.putAll(STAGING_CACHE_KEY, values);
+        geoOperations.add(STAGING_GEO_KEY, points);
+    }
+
+    public void clearStaging() {
+        try {
+            redisTemplate.delete(List.of(STAGING_CACHE_KEY, STAGING_GEO_KEY));
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService clearStaging error]: {}", e.getMessage());
+        }
+    }
+
+    // staging key 를 Lua script 하나로 교체하여, 조회 중에 일부만 적재된 데이터가 보이지 않도록 한다.
+    // MULTI/EXEC 는 RENAME 하나가 실패해도 다른 RENAME 을 되돌리지 않으므로, 두 staging key 가 모두 있을 때만 교체한다.
+    private static final RedisScript<Long> PUBLISH_STAGING_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 or redis.call('EXISTS', KEYS[2]) == 0 then return 0 end "
+            + "redis.call('RENAME', KEYS[1], KEYS[3]) "
+            + "redis.call('RENAME', KEYS[2], KEYS[4]) "
+            + "return 1",
+        Long.class);
+
+    /**
+     * staging key 를 조회용 key 로 교체한다. 교체하지 못하면(staging key 가 없는 경우 등) false 를 반환하고,
+     * 기존 데이터를 그대로 둔다.
+     */
+    public boolean publishStaging() {
+        Long published = redisTemplate.execute(PUBLISH_STAGING_SCRIPT,
+            List.of(STAGING_CACHE_KEY, STAGING_GEO_KEY, CACHE_KEY, GEO_KEY));
+        if (!Long.valueOf(1L).equals(published)) {
+            log.error("[PharmacyRedisTemplateService publishStaging] staging key not found. not published");
+            return false;
+        }
+        notifyDataChanged(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        return true;
+    }
+
+    /**
+     * 추가/수정된 약국과 삭제된 약국만 캐시에 반영한다. (HSET, GEOADD, HDEL, ZREM 을 목록 단위로 한 번씩 호출)
+     * previousPharmacyList 는 변경 전 데이터로, 위치 기반으로 미리 계산한 데이터를 함께 갱신하는 데 사용한다.
+     */
+    public boolean applyChanges(List<PharmacyDto> upsertedPharmacyList, List<PharmacyDto> removedPharmacyList,
+        List<PharmacyDto> previousPharmacyList) {
+        if (upsertedPharmacyList.isEmpty() && removedPharmacyList.isEmpty()) {
+            return true;
+        }
+
+        try {
+            if (!upsertedPharmacyList.isEmpty()) {
+                Map<String, PharmacyDto> values = new HashMap<>(upsertedPharmacyList.size() * 2);
+                Map<Object, Point> points = new HashMap<>(upsertedPharmacyList.size() * 2);
+                for (PharmacyDto pharmacyDto : upsertedPharmacyList) {
+                    String id = pharmacyDto.getId().toString();
+                    values.put(id, pharmacyDto);
+                    points.put(id, new Point(pharmacyDto.getLongitude(), pharmacyDto.getLatitude()));
+                }
+                hashOperations.putAll(CACHE_KEY, values);
+                geoOperations.add(GEO_KEY, points);
+            }
+
+            List<Long> removedIds = new ArrayList<>(removedPharmacyList.size());
+            if (!removedPharmacyList.isEmpty()) {
+                Object[] members = new Object[removedPharmacyList.size()];
+                for (int i = 0; i < members.length; i++) {
+                    Long id = removedPharmacyList.get(i).getId();
+                    removedIds.add(id);
+                    members[i] = id.toString();
+                }
+                hashOperations.delete(CACHE_KEY, members);
+                geoOperations.remove(GEO_KEY, members);
+            }
+
+            List<PharmacyDto> changedPharmacyList = new ArrayList<>(previousPharmacyList.size()
+                + upsertedPharmacyList.size() + removedPharmacyList.size());
+            changedPharmacyList.addAll(previousPharmacyList);
+            changedPharmacyList.addAll(upsertedPharmacyList);
+            changedPharmacyList.addAll(removedPharmacyList);
+            notifyDataChanged(changedPharmacyList, upsertedPharmacyList, removedIds);
+            return true;
+
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService applyChanges error] upserted: {}, removed: {}, {}",
+                upsertedPharmacyList.size(), removedPharmacyList.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean hasCache() {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(CACHE_KEY));
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService hasCache error]: {}", e.getMessage());
+            return false;
+        }
+    }
+
     public List<PharmacyDto> findAll() {
 
         try {
-            List<PharmacyDto> list = new ArrayList<>();
-            for (String value : hashOperations.entries(CACHE_KEY).values()) {
-                PharmacyDto pharmacyDto = deserializePharmacyDto(value);
-                list.add(pharmacyDto);
+            return new ArrayList<>(hashOperations.entries(CACHE_KEY).values());
+
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService findAll error]: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * GEORADIUS 로 반경 이내의 약국 id 를 거리순으로 limit 개까지 조회한 뒤,
+     * 해당 id 의 약국 정보만 HMGET 으로 가져온다.
+     */
+    public List<NearbyPharmacyDto> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        try {
+            Circle circle = new Circle(new Point(longitude, latitude), new Distance(radiusKm, Metrics.KILOMETERS));
+            RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs
+                .newGeoRadiusArgs()
+                .includeDistance()
+                .sortAscending()
+                .limit(limit);
+
+            GeoResults<RedisGeoCommands.GeoLocation<Object>> geoResults = geoOperations.radius(GEO_KEY, circle, args);
+            if (Objects.isNull(geoResults) || geoResults.getContent().isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            List<GeoResult<RedisGeoCommands.GeoLocation<Object>>> contents = geoResults.getContent();
+            List<String> ids = contents.stream()
+                .map(geoResult -> geoResult.getContent().getName().toString())
+                .collect(Collectors.toList());
+            List<PharmacyDto> values = hashOperations.multiGet(CACHE_KEY, ids);
+
+            List<NearbyPharmacyDto> list = new ArrayList<>(contents.size());
+            for (int i = 0; i < contents.size(); i++) {
+                PharmacyDto pharmacyDto = values.get(i);
+                if (Objects.isNull(pharmacyDto)) {
+                    continue;
+                }
+                list.add(new NearbyPharmacyDto(pharmacyDto,
+                    contents.get(i).getDistance().getValue()));
             }
             return list;
 
         } catch (Exception e) {
-            log.error("[PharmacyRedisTemplateService findAll error]: {}", e.getMessage());
+            log.error("[PharmacyRedisTemplateService findNearby error]: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
 
+    public boolean hasGeoIndex() {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(GEO_KEY));
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService hasGeoIndex error]: {}", e.getMessage());
+            return false;
+        }
+    }
+
     public void delete(Long id) {
+        PharmacyDto previous = hashOperations.get(CACHE_KEY, String.valueOf(id));
         hashOperations.delete(CACHE_KEY, String.valueOf(id));
+        geoOperations.remove(GEO_KEY, String.valueOf(id));
+        notifyDataChanged(changedList(previous), Collections.emptyList(),
+            Objects.isNull(previous) ? Collections.emptyList() : List.of(previous.getId()));
         log.info("[PharmacyRedisTemplateService delete]: {} ", id);
     }
 
 
-    private String serializePharmacyDto(PharmacyDto pharmacyDto) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(pharmacyDto);
+    // 약국 데이터 버전. 데이터가 변경될 때마다 증가한다.
+    public long getVersion() {
+        try {
+            Object version = redisTemplate.opsForValue().get(VERSION_KEY);
+            return Objects.isNull(version) ? 0L : Long.parseLong(version.toString());
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService getVersion error]: {}", e.getMessage());
+            return UNKNOWN_VERSION;
+        }
+    }
+
+    // 버전을 올리고, 이 서버와 다른 서버들에 데이터 변경을 알린다.
+    // changedPharmacyList 가 비어 있으면 전체 변경으로 본다.
+    private void notifyDataChanged(List<PharmacyDto> changedPharmacyList, List<PharmacyDto> upsertedPharmacyList,
+        List<Long> removedIds) {
+        Long version = null;
+        try {
+            // 이벤트를 받은 쪽에서 새 버전의 스냅샷을 읽도록, 버전을 먼저 올린다.
+            version = redisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService notifyDataChanged error]: {}", e.getMessage());
+        }
+
+        long eventVersion = Objects.isNull(version) ? UNKNOWN_VERSION : version;
+        applicationEventPublisher.publishEvent(changedPharmacyList.isEmpty()
+            ? PharmacyDataChangedEvent.all(eventVersion)
+            : PharmacyDataChangedEvent.local(eventVersion, changedPharmacyList, upsertedPharmacyList, removedIds));
+
+        if (Objects.isNull(version)) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(version));
+        } catch (Exception e) {
+            log.error("[PharmacyRedisTemplateService notifyDataChanged error]: {}", e.getMessage());
+        }
     }
 
-    private PharmacyDto deserializePharmacyDto(String value) throws JsonProcessingException {
-        return objectMapper.readValue(value, PharmacyDto.class);
+    private static List<PharmacyDto> changedList(PharmacyDto... pharmacyDtos) {
+        List<PharmacyDto> list = new ArrayList<>(pharmacyDtos.length);
+        for (PharmacyDto pharmacyDto : pharmacyDtos) {
+            if (Objects.nonNull(pharmacyDto)) {
+                list.add(pharmacyDto);
+            }
+        }
+        return list;
     }
 
 
@@ -0,0 +1,174 @@
+package com.example.project.pharmacy.cache;
+
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * 약국 데이터의 불변 인메모리 스냅샷.
+ * 약국별 객체 대신 id 순으로 정렬된 컬럼 배열로 보관하고, PharmacyDto 는 필요한 경우에만 만든다.
+ */
+public class PharmacySnapshot {
+
+    // 스냅샷을 만들 당시의 Redis 데이터 버전
+    @Getter
+    private final long version;
+
+    private final long[] ids;
+    private final String[] pharmacyNames;
+    private final String[] pharmacyAddresses;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private PharmacySnapshot(long version, List<PharmacyDto> sortedList) {
+        int size = sortedList.size();
+        this.version = version;
+        this.ids = new long[size];
+        this.pharmacyNames = new String[size];
+        this.pharmacyAddresses = new String[size];
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            PharmacyDto pharmacyDto = sortedList.get(i);
+            ids[i] = pharmacyDto.getId();
+            pharmacyNames[i] = pharmacyDto.getPharmacyName();
+            pharmacyAddresses[i] = pharmacyDto.getPharmacyAddress();
+            latitudes[i] = pharmacyDto.getLatitude();
+            longitudes[i] = pharmacyDto.getLongitude();
+        }
+    }
+
+    private PharmacySnapshot(long version, long[] ids, String[] pharmacyNames, String[] pharmacyAddresses,
+        double[] latitudes, double[] longitudes) {
+        this.version = version;
+        this.ids = ids;
+        this.pharmacyNames = pharmacyNames;
+        this.pharmacyAddresses = pharmacyAddresses;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    public static PharmacySnapshot of(long version, List<PharmacyDto> pharmacyDtoList) {
+        List<PharmacyDto> sortedList = pharmacyDtoList.stream()
+            .filter(pharmacyDto -> Objects.nonNull(pharmacyDto.getId()))
+            .sorted(Comparator.comparing(PharmacyDto::getId))
+            .collect(Collectors.toList());
+        return new PharmacySnapshot(version, sortedList);
+    }
+
+    /**
+     * 추가/수정된 약국과 삭제된 약국 id 만 반영한 새 스냅샷을 만든다. (기존 스냅샷은 바뀌지 않는다.)
+     * 전체 데이터를 다시 조회하지 않고, id 순으로 정렬된 배열을 한 번 병합한다.
+     */
+    public PharmacySnapshot withChanges(long newVersion, List<PharmacyDto> upsertedPharmacyList,
+        Collection<Long> removedIds) {
+        // 같은 id 가 여러 번 있으면 마지막 값을 사용
+        TreeMap<Long, PharmacyDto> upserts = new TreeMap<>();
+        for (PharmacyDto pharmacyDto : upsertedPharmacyList) {
+            if (Objects.nonNull(pharmacyDto.getId())) {
+                upserts.put(pharmacyDto.getId(), pharmacyDto);
+            }
+        }
+        Set<Long> removed = new HashSet<>(removedIds);
+        upserts.keySet().removeAll(removed);
+
+        int capacity = ids.length + upserts.size();
+        long[] newIds = new long[capacity];
+        String[] newNames = new String[capacity];
+        String[] newAddresses = new String[capacity];
+        double[] newLatitudes = new double[capacity];
+        double[] newLongitudes = new double[capacity];
+
+        int size = 0;
+        int i = 0;
+        Iterator<PharmacyDto> iterator = upserts.values().iterator();
+        PharmacyDto upsert = iterator.hasNext() ? iterator.next() : null;
+        while (i < ids.length || upsert != null) {
+            if (upsert == null || (i < ids.length && ids[i] < upsert.getId())) {
+                if (!removed.contains(ids[i])) {
+                    newIds[size] = ids[i];
+                    newNames[size] = pharmacyNames[i];
+                    newAddresses[size] = pharmacyAddresses[i];
+                    newLatitudes[size] = latitudes[i];
+                    newLongitudes[size] = longitudes[i];
+                    size++;
+                }
+                i++;
+                continue;
+            }
+
+            // 기존 약국이면 새 값으로 교체
+            if (i < ids.length && ids[i] == upsert.getId()) {
+                i++;
+            }
+            newIds[size] = upsert.getId();
+            newNames[size] = upsert.getPharmacyName();
+            newAddresses[size] = upsert.getPharmacyAddress();
+            newLatitudes[size] = upsert.getLatitude();
+            newLongitudes[size] = upsert.getLongitude();
+            size++;
+            upsert = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        return new PharmacySnapshot(newVersion,
+            Arrays.copyOf(newIds, size),
+            Arrays.copyOf(newNames, size),
+            Arrays.copyOf(newAddresses, size),
+            Arrays.copyOf(newLatitudes, size),
+            Arrays.copyOf(newLongitudes, size));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+
+    // id 가 없으면 음수를 반환
+    public int indexOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    public PharmacyDto getPharmacyDto(int index) {
+        return PharmacyDto.builder()
+            .id(ids[index])
+            .pharmacyName(pharmacyNames[index])
+            .pharmacyAddress(pharmacyAddresses[index])
+            .latitude(latitudes[index])
+            .longitude(longitudes[index])
+            .build();
+    }
+
+    public List<PharmacyDto> toPharmacyDtoList() {
+        List<PharmacyDto> list = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            list.add(getPharmacyDto(i));
+        }
+        return list;
+    }
+}
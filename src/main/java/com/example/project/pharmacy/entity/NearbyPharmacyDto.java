@@ -0,0 +1,14 @@
+package com.example.project.pharmacy.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class NearbyPharmacyDto {
+
+    private PharmacyDto pharmacyDto;
+
+    // 검색 기준 좌표와 약국 사이의 거리 (km)
+    private double distance;
+}
@@ -5,12 +5,15 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Entity(name = "pharmacy")
+@Table(indexes = @Index(name = "idx_pharmacy_latitude_longitude", columnList = "latitude, longitude"))
 @Getter
 @Builder
 @AllArgsConstructor
@@ -0,0 +1,15 @@
+package com.example.project.pharmacy.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class PharmacyCacheLoadResultDto {
+    private boolean success;
+    private long rowCount;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,23 @@
+package com.example.project.pharmacy.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class PharmacyImportResultDto {
+    private boolean success;
+    private String message;
+    private long readCount;
+    private long addedCount;
+    private long changedCount;
+    private long unchangedCount;
+    private long removedCount;
+    private long skippedCount; // checkpoint 이전이라 건너뛴 행
+    private long invalidLineCount;
+    private long lastId;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,66 @@
+package com.example.project.pharmacy.event;
+
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 약국 데이터(캐시 포함)가 변경되었음을 알리는 이벤트.
+ * 약국 데이터로 만든 인메모리 구조들은 이 이벤트를 받으면 다시 만들어야 한다.
+ */
+@Getter
+public class PharmacyDataChangedEvent {
+
+    private static final long UNKNOWN_VERSION = -1L;
+
+    // 다른 서버에서 변경한 경우 true
+    private final boolean remote;
+
+    // 변경 전/후의 약국 목록. 비어 있으면 전체가 변경된 것으로 본다.
+    private final List<PharmacyDto> changedPharmacyList;
+
+    // 변경 후의 데이터 버전과 추가/수정된 약국, 삭제된 약국 id.
+    // 변경 전 버전의 데이터를 가지고 있다면, 다시 조회하지 않고 이 값만 반영할 수 있다.
+    private final long version;
+    private final List<PharmacyDto> upsertedPharmacyList;
+    private final List<Long> removedIds;
+
+    private PharmacyDataChangedEvent(boolean remote, List<PharmacyDto> changedPharmacyList, long version,
+        List<PharmacyDto> upsertedPharmacyList, List<Long> removedIds) {
+        this.remote = remote;
+        this.changedPharmacyList = changedPharmacyList;
+        this.version = version;
+        this.upsertedPharmacyList = upsertedPharmacyList;
+        this.removedIds = removedIds;
+    }
+
+    public static PharmacyDataChangedEvent local(long version, List<PharmacyDto> changedPharmacyList,
+        List<PharmacyDto> upsertedPharmacyList, List<Long> removedIds) {
+        return new PharmacyDataChangedEvent(false, List.copyOf(changedPharmacyList), version,
+            List.copyOf(upsertedPharmacyList), List.copyOf(removedIds));
+    }
+
+    public static PharmacyDataChangedEvent all() {
+        return all(UNKNOWN_VERSION);
+    }
+
+    public static PharmacyDataChangedEvent all(long version) {
+        return new PharmacyDataChangedEvent(false, Collections.emptyList(), version,
+            Collections.emptyList(), Collections.emptyList());
+    }
+
+    public static PharmacyDataChangedEvent remote() {
+        return new PharmacyDataChangedEvent(true, Collections.emptyList(), UNKNOWN_VERSION,
+            Collections.emptyList(), Collections.emptyList());
+    }
+
+    public boolean isAll() {
+        return changedPharmacyList.isEmpty();
+    }
+
+    // 변경 내용(버전, 추가/수정, 삭제)을 그대로 반영할 수 있는 경우 true
+    public boolean hasDelta() {
+        return !remote && !isAll() && version != UNKNOWN_VERSION;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.project.pharmacy.importer;
+
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 약국 원본 데이터(csv)를 한 줄씩 읽는다. 파일 전체를 메모리에 올리지 않는다.
+ *
+ * 컬럼: id, pharmacy_name, pharmacy_address, latitude, longitude
+ * 첫 줄이 id 로 시작하지 않으면(숫자가 아니면) header 로 보고 건너뛴다.
+ * 큰따옴표로 감싼 값 안의 쉼표, "" 는 처리하지만 여러 줄에 걸친 값은 지원하지 않는다.
+ */
+@Slf4j
+public class PharmacyCsvReader implements Closeable {
+
+    private static final int COLUMN_COUNT = 5;
+
+    private final BufferedReader reader;
+
+    @Getter
+    private long lineNumber;
+
+    // 형식이 잘못되어 건너뛴 줄 수
+    @Getter
+    private long invalidLineCount;
+
+    public PharmacyCsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    // 다음 약국. 더 이상 없으면 null
+    public PharmacyDto next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            // UTF-8 BOM
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+
+            List<String> columns = split(line);
+            if (lineNumber == 1 && isHeader(columns)) {
+                continue;
+            }
+
+            PharmacyDto pharmacyDto = toPharmacyDto(columns);
+            if (pharmacyDto == null) {
+                invalidLineCount++;
+                log.warn("[PharmacyCsvReader] invalid line: {}", lineNumber);
+                continue;
+            }
+            return pharmacyDto;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean isHeader(List<String> columns) {
+        return !columns.isEmpty() && !columns.get(0).isEmpty() && !Character.isDigit(columns.get(0).charAt(0));
+    }
+
+    private static PharmacyDto toPharmacyDto(List<String> columns) {
+        if (columns.size() != COLUMN_COUNT) {
+            return null;
+        }
+
+        try {
+            double latitude = Double.parseDouble(columns.get(3));
+            double longitude = Double.parseDouble(columns.get(4));
+            // NaN, Infinity 는 범위 비교를 통과하므로 따로 거른다.
+            if (!Double.isFinite(latitude) || !Double.isFinite(longitude)
+                || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+
+            return PharmacyDto.builder()
+                .id(Long.parseLong(columns.get(0)))
+                .pharmacyName(columns.get(1))
+                .pharmacyAddress(columns.get(2))
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static List<String> split(String line) {
+        List<String> columns = new ArrayList<>(COLUMN_COUNT);
+        StringBuilder column = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    column.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    column.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(column.toString().trim());
+                column.setLength(0);
+            } else {
+                column.append(c);
+            }
+        }
+        columns.add(column.toString().trim());
+        return columns;
+    }
+}
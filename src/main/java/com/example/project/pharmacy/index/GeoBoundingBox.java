@@ -0,0 +1,38 @@
+package com.example.project.pharmacy.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 중심 좌표로부터 반경(km)을 모두 포함하는 위도/경도 사각 영역.
+ * 거리 계산 전에 후보를 걸러내는 용도이므로, 영역은 반경 원을 항상 포함하도록 넉넉하게 잡는다.
+ */
+@Getter
+@AllArgsConstructor
+public class GeoBoundingBox {
+
+    private static final double MAX_LATITUDE = 90.0;
+
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    public static GeoBoundingBox of(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = Math.toDegrees(radiusKm / GeoDistance.EARTH_RADIUS_KM);
+
+        double minLatitude = Math.max(latitude - latitudeDelta, -MAX_LATITUDE);
+        double maxLatitude = Math.min(latitude + latitudeDelta, MAX_LATITUDE);
+
+        // 경도 1도의 길이는 고위도일수록 짧아지므로, 영역 안에서 가장 고위도인 지점을 기준으로 계산
+        double farthestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double cosLatitude = Math.cos(Math.toRadians(farthestLatitude));
+        if (cosLatitude <= 0 || farthestLatitude >= MAX_LATITUDE) {
+            return new GeoBoundingBox(minLatitude, maxLatitude, -180.0, 180.0);
+        }
+
+        double longitudeDelta = Math.toDegrees(radiusKm / (GeoDistance.EARTH_RADIUS_KM * cosLatitude));
+        return new GeoBoundingBox(minLatitude, maxLatitude,
+            longitude - longitudeDelta, longitude + longitudeDelta);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.project.pharmacy.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * geohash 6자리 격자 한 칸. (위도 약 0.61km, 경도 약 1.22km * cos(위도))
+ * 위도/경도 방향 번호(row, column)로 표현하고, geohash 문자열은 Redis key 로 사용한다.
+ */
+@Getter
+@EqualsAndHashCode
+public class GeoCell {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int PRECISION = 6;
+
+    // geohash 6자리 = 30bit (경도 15bit, 위도 15bit)
+    private static final int AXIS_BITS = 15;
+    private static final int AXIS_CELLS = 1 << AXIS_BITS;
+    public static final double LATITUDE_DEGREE = 180.0 / AXIS_CELLS;
+    public static final double LONGITUDE_DEGREE = 360.0 / AXIS_CELLS;
+
+    private final int row;
+    private final int column;
+
+    private GeoCell(int row, int column) {
+        this.row = row;
+        this.column = column;
+    }
+
+    public static GeoCell of(double latitude, double longitude) {
+        return new GeoCell(row(latitude), column(longitude));
+    }
+
+    // 영역과 겹치는 모든 격자
+    public static List<GeoCell> covering(GeoBoundingBox boundingBox) {
+        int minRow = row(boundingBox.getMinLatitude());
+        int maxRow = row(boundingBox.getMaxLatitude());
+        int minColumn = column(boundingBox.getMinLongitude());
+        int maxColumn = column(boundingBox.getMaxLongitude());
+
+        List<GeoCell> cells = new ArrayList<>((maxRow - minRow + 1) * (maxColumn - minColumn + 1));
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                cells.add(new GeoCell(row, column));
+            }
+        }
+        return cells;
+    }
+
+    // 자신과 주변 8개 격자
+    public List<GeoCell> withNeighbors() {
+        List<GeoCell> cells = new ArrayList<>(9);
+        for (int r = Math.max(0, row - 1); r <= Math.min(AXIS_CELLS - 1, row + 1); r++) {
+            for (int c = column - 1; c <= column + 1; c++) {
+                cells.add(new GeoCell(r, Math.floorMod(c, AXIS_CELLS)));
+            }
+        }
+        return cells;
+    }
+
+    public double getCenterLatitude() {
+        return -90.0 + (row + 0.5) * LATITUDE_DEGREE;
+    }
+
+    public double getCenterLongitude() {
+        return -180.0 + (column + 0.5) * LONGITUDE_DEGREE;
+    }
+
+    // 중심에서 꼭짓점까지의 거리(km). 격자 안의 모든 지점은 중심에서 이 거리 이내에 있다.
+    public double getHalfDiagonalKm() {
+        double minLatitude = -90.0 + row * LATITUDE_DEGREE;
+        double maxLatitude = minLatitude + LATITUDE_DEGREE;
+        // 적도에 가까운 쪽 꼭짓점이 가장 멀다.
+        double nearestToEquator = Math.abs(minLatitude) < Math.abs(maxLatitude) ? minLatitude : maxLatitude;
+        return GeoDistance.calculateDistance(getCenterLatitude(), getCenterLongitude(),
+            nearestToEquator, getCenterLongitude() + LONGITUDE_DEGREE / 2);
+    }
+
+    // 경도, 위도 bit 를 번갈아 배치하여 5bit 씩 base32 로 변환
+    public String toGeoHash() {
+        char[] chars = new char[PRECISION];
+        int bitIndex = 0;
+        for (int i = 0; i < PRECISION; i++) {
+            int value = 0;
+            for (int j = 0; j < 5; j++, bitIndex++) {
+                int axisBit = AXIS_BITS - 1 - bitIndex / 2;
+                int bit = (bitIndex % 2 == 0) ? (column >> axisBit) & 1 : (row >> axisBit) & 1;
+                value = (value << 1) | bit;
+            }
+            chars[i] = BASE32[value];
+        }
+        return new String(chars);
+    }
+
+    private static int row(double latitude) {
+        return clamp((int) Math.floor((latitude + 90.0) / LATITUDE_DEGREE));
+    }
+
+    private static int column(double longitude) {
+        double normalized = longitude - 360.0 * Math.floor((longitude + 180.0) / 360.0);
+        return clamp((int) Math.floor((normalized + 180.0) / LONGITUDE_DEGREE));
+    }
+
+    private static int clamp(int index) {
+        return Math.max(0, Math.min(AXIS_CELLS - 1, index));
+    }
+}
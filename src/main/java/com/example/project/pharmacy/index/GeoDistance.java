@@ -0,0 +1,22 @@
+package com.example.project.pharmacy.index;
+
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371; //Kilometers
+
+    private GeoDistance() {
+    }
+
+    // Haversine formula
+    // acos 를 사용하는 식(구면 코사인 법칙)은 가까운 거리에서 오차가 커서 asin 형태를 사용한다.
+    public static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        lat1 = Math.toRadians(lat1);
+        lat2 = Math.toRadians(lat2);
+        double sinHalfLatitude = Math.sin((lat2 - lat1) / 2);
+        double sinHalfLongitude = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+
+        double a = sinHalfLatitude * sinHalfLatitude
+            + Math.cos(lat1) * Math.cos(lat2) * sinHalfLongitude * sinHalfLongitude;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
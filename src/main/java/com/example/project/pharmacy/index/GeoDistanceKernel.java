@@ -0,0 +1,108 @@
+package com.example.project.pharmacy.index;
+
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+
+/**
+ * 약국 좌표를 단위 구 위의 3차원 벡터(x, y, z)로 미리 변환해 두고, 거리 계산을 배열 연산으로 처리한다.
+ *
+ * 두 지점 사이의 현(chord) 길이의 제곱은 곱셈/덧셈만으로 구할 수 있고 거리에 대해 단조 증가하므로,
+ * 반경 비교는 현의 제곱으로 하고 실제 거리(= 2R * asin(chord / 2), Haversine 과 같은 값)는 통과한 약국만 계산한다.
+ */
+public final class GeoDistanceKernel {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    private GeoDistanceKernel(double[] xs, double[] ys, double[] zs) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+    }
+
+    // 약국별 sin/cos 계산은 스냅샷 당 한 번만 한다.
+    public static GeoDistanceKernel of(PharmacySnapshot snapshot) {
+        int size = snapshot.size();
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] zs = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            double latitude = Math.toRadians(snapshot.getLatitude(i));
+            double longitude = Math.toRadians(snapshot.getLongitude(i));
+            double cosLatitude = Math.cos(latitude);
+            xs[i] = cosLatitude * Math.cos(longitude);
+            ys[i] = cosLatitude * Math.sin(longitude);
+            zs[i] = Math.sin(latitude);
+        }
+        return new GeoDistanceKernel(xs, ys, zs);
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    // 위도, 경도를 단위 벡터 [x, y, z] 로 변환
+    public static double[] unitVector(double latitude, double longitude) {
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        double cosLatitude = Math.cos(latitudeRadians);
+        return new double[]{
+            cosLatitude * Math.cos(longitudeRadians),
+            cosLatitude * Math.sin(longitudeRadians),
+            Math.sin(latitudeRadians)
+        };
+    }
+
+    // 반경(km)에 해당하는 현의 제곱. 반경이 지구 반대편보다 먼 경우 최대값(4)을 반환한다.
+    public static double chordSquaredOf(double radiusKm) {
+        double halfAngle = radiusKm / (2 * GeoDistance.EARTH_RADIUS_KM);
+        if (halfAngle >= Math.PI / 2) {
+            return 4.0;
+        }
+        double chord = 2 * Math.sin(halfAngle);
+        return chord * chord;
+    }
+
+    // 현의 제곱을 거리(km)로 변환
+    public static double toKilometers(double chordSquared) {
+        return 2 * GeoDistance.EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(chordSquared) / 2));
+    }
+
+    public double chordSquared(int index, double[] queryVector) {
+        double dx = xs[index] - queryVector[0];
+        double dy = ys[index] - queryVector[1];
+        double dz = zs[index] - queryVector[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public double distance(int index, double[] queryVector) {
+        return toKilometers(chordSquared(index, queryVector));
+    }
+
+    /**
+     * 기준 좌표로부터 모든 약국까지의 거리(km)를 out 에 채운다. out 의 길이는 size() 이상이어야 한다.
+     * 첫 번째 반복문은 분기 없는 배열 연산만 있어 JIT 가 SIMD 로 최적화할 수 있다.
+     */
+    public void distances(double latitude, double longitude, double[] out) {
+        int size = xs.length;
+        if (out.length < size) {
+            throw new IllegalArgumentException("out length must be at least " + size);
+        }
+
+        double[] queryVector = unitVector(latitude, longitude);
+        double qx = queryVector[0];
+        double qy = queryVector[1];
+        double qz = queryVector[2];
+
+        for (int i = 0; i < size; i++) {
+            double dx = xs[i] - qx;
+            double dy = ys[i] - qy;
+            double dz = zs[i] - qz;
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+        for (int i = 0; i < size; i++) {
+            out[i] = toKilometers(out[i]);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.project.pharmacy.index;
+
+/**
+ * 가까운 약국 검색 방식.
+ * pharmacy.search.strategy 값으로 선택한다. (index, redis-geo, cell)
+ */
+public enum NearestSearchStrategy {
+
+    // 애플리케이션 메모리의 격자 인덱스
+    INDEX,
+
+    // Redis GEO 조회, 실패시 DB
+    REDIS_GEO,
+
+    // geohash 격자별로 미리 계산한 후보 약국만 거리 계산, 후보가 없으면 INDEX
+    CELL
+}
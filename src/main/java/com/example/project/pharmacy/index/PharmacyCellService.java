@@ -0,0 +1,433 @@
+package com.example.project.pharmacy.index;
+
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+import com.example.project.pharmacy.entity.NearbyPharmacyDto;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.example.project.pharmacy.event.PharmacyDataChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * geohash 격자별로 미리 계산한 후보 약국 목록.
+ *
+ * 격자 안의 어느 지점에서 검색하더라도 가까운 약국 limit 개가 후보에 포함되도록,
+ * 격자 중심에서 (limit 번째로 가까운 약국까지의 거리 + 격자 대각선) 이내의 약국을 후보로 저장한다.
+ * 검색 시에는 후보만 정확한 거리로 정렬한다.
+ *
+ * 후보 목록은 모든 서버가 공유하도록 Redis hash 에 저장하고, 약국이 변경되면 영향을 받는 격자만 다시 계산한다.
+ * 다시 계산하기 전에 변경이 약국 데이터 스냅샷에 반영될 때까지(버전) 기다려, 이전 스냅샷으로 계산한 후보를 저장하지 않는다.
+ * 다른 서버의 로컬 캐시에는 expire-after-write 만큼 늦게 반영될 수 있다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PharmacyCellService {
+
+    // <key, field(geohash), value(후보 약국 id 목록, 콤마 구분)>
+    private static final String CELL_KEY = "PHARMACY_CELL";
+    private static final String STAGING_CELL_KEY = "PHARMACY_CELL_STAGING";
+    private static final String REBUILD_LOCK_KEY = "PHARMACY_CELL_REBUILD_LOCK";
+
+    // 후보가 너무 많은 격자는 저장하지 않고 인덱스 전체 검색을 한다.
+    private static final String FULL_SCAN = "*";
+    private static final long[] FULL_SCAN_CANDIDATES = new long[0];
+
+    // 거리 계산 오차로 경계의 약국이 빠지지 않도록 1m 여유를 둔다.
+    private static final double MARGIN_KM = 0.001;
+
+    private static final long UNKNOWN_VERSION = -1L;
+    private static final long SNAPSHOT_WAIT_INTERVAL_MILLIS = 50;
+
+    private final PharmacyIndexService pharmacyIndexService;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${pharmacy.search.strategy:index}")
+    private NearestSearchStrategy searchStrategy;
+
+    // 후보를 계산할 때의 검색 반경, 개수. 이보다 큰 값으로 검색하면 인덱스 전체 검색을 한다.
+    @Value("${pharmacy.search.cell.radius-km:10}")
+    private double radiusKm;
+
+    @Value("${pharmacy.search.cell.limit:3}")
+    private int limit;
+
+    @Value("${pharmacy.search.cell.max-candidates:500}")
+    private int maxCandidates;
+
+    @Value("${pharmacy.search.cell.write-chunk-size:1000}")
+    private int writeChunkSize;
+
+    @Value("${pharmacy.search.cell.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${pharmacy.search.cell.local.expire-after-write:30s}")
+    private Duration localExpireAfterWrite;
+
+    @Value("${pharmacy.search.cell.rebuild-lock-ttl:10m}")
+    private Duration rebuildLockTtl;
+
+    // 변경이 스냅샷에 반영되기를 기다리는 최대 시간. 넘으면 다시 계산하지 않는다.
+    @Value("${pharmacy.search.cell.snapshot-wait-timeout:5s}")
+    private Duration snapshotWaitTimeout = Duration.ofSeconds(5);
+
+    private HashOperations<String, String, String> hashOperations;
+    private Cache<String, long[]> localCache;
+    private ExecutorService rebuildExecutor;
+
+    // 전체 재계산이 이미 대기 중이면 다시 요청하지 않는다. (기다릴 버전만 올린다)
+    private final AtomicBoolean fullRebuildPending = new AtomicBoolean(false);
+    private final AtomicLong fullRebuildVersion = new AtomicLong(UNKNOWN_VERSION);
+
+    @PostConstruct
+    public void start() {
+        this.hashOperations = redisTemplate.opsForHash();
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localExpireAfterWrite)
+            .build();
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pharmacy-cell-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return searchStrategy == NearestSearchStrategy.CELL;
+    }
+
+    /**
+     * 기준 좌표가 속한 격자의 후보 약국 중 radiusKm 이내의 약국을 가까운 순으로 최대 limit 개 반환한다.
+     */
+    public List<NearbyPharmacyDto> searchNearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (radiusKm > this.radiusKm || limit > this.limit) {
+            return pharmacyIndexService.searchNearest(latitude, longitude, radiusKm, limit);
+        }
+
+        long[] candidateIds = getCandidateIds(GeoCell.of(latitude, longitude));
+        if (candidateIds == FULL_SCAN_CANDIDATES) {
+            return pharmacyIndexService.searchNearest(latitude, longitude, radiusKm, limit);
+        }
+        return pharmacyIndexService.searchNearest(latitude, longitude, radiusKm, limit, candidateIds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!isEnabled() || hasCells()) {
+            return;
+        }
+        log.info("[PharmacyCellService] pharmacy cell table is empty. start building");
+        requestRebuildAll(UNKNOWN_VERSION);
+    }
+
+    @EventListener
+    public void onPharmacyDataChanged(PharmacyDataChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        localCache.invalidateAll();
+
+        // 다른 서버의 변경은 그 서버에서 다시 계산한다.
+        if (event.isRemote()) {
+            return;
+        }
+        long version = event.getVersion();
+        if (event.isAll()) {
+            requestRebuildAll(version);
+            return;
+        }
+
+        // 스냅샷을 갱신하는 리스너보다 먼저 실행될 수 있으므로, 계산 스레드에서 반영을 기다린다.
+        List<PharmacyDto> changedPharmacyList = event.getChangedPharmacyList();
+        submit(() -> {
+            if (awaitSnapshot(version)) {
+                rebuild(changedPharmacyList);
+            }
+        });
+    }
+
+    /**
+     * 약국이 있는 격자와 그 주변 격자의 후보 목록을 모두 계산하여 staging key 에 저장한 뒤 한 번에 교체한다.
+     * 여러 서버가 동시에 계산하지 않도록 Redis lock 을 사용한다.
+     */
+    public void rebuildAll() {
+        fullRebuildPending.set(false);
+        String lockToken = acquireRebuildLock();
+        if (Objects.isNull(lockToken)) {
+            log.info("[PharmacyCellService rebuildAll] already rebuilding on another server");
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        try {
+            PharmacySnapshot snapshot = pharmacyIndexService.getSnapshot();
+            Set<GeoCell> cells = new LinkedHashSet<>();
+            for (int i = 0; i < snapshot.size(); i++) {
+                cells.addAll(GeoCell.of(snapshot.getLatitude(i), snapshot.getLongitude(i)).withNeighbors());
+            }
+
+            redisTemplate.delete(STAGING_CELL_KEY);
+            Map<String, String> chunk = new HashMap<>(writeChunkSize * 2);
+            for (GeoCell cell : cells) {
+                chunk.put(cell.toGeoHash(), computeCandidates(cell));
+                if (chunk.size() >= writeChunkSize) {
+                    hashOperations.putAll(STAGING_CELL_KEY, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                hashOperations.putAll(STAGING_CELL_KEY, chunk);
+            }
+
+            if (cells.isEmpty()) {
+                redisTemplate.delete(CELL_KEY);
+            } else {
+                redisTemplate.rename(STAGING_CELL_KEY, CELL_KEY);
+            }
+            localCache.invalidateAll();
+
+            log.info("[PharmacyCellService rebuildAll] version: {}, cells: {}, elapsed: {}ms",
+                snapshot.getVersion(), cells.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("[PharmacyCellService rebuildAll error]: {}", e.getMessage());
+            clearStaging();
+        } finally {
+            releaseRebuildLock(lockToken);
+        }
+    }
+
+    /**
+     * 변경된 약국(변경 전/후 위치)을 후보로 가질 수 있는 격자 중 이미 계산된 격자와,
+     * 약국이 있는 격자 및 주변 격자만 다시 계산한다.
+     */
+    public void rebuild(List<PharmacyDto> changedPharmacyList) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            Set<GeoCell> cells = new LinkedHashSet<>();
+            for (PharmacyDto pharmacyDto : changedPharmacyList) {
+                GeoCell pharmacyCell = GeoCell.of(pharmacyDto.getLatitude(), pharmacyDto.getLongitude());
+                cells.addAll(pharmacyCell.withNeighbors());
+                cells.addAll(findComputedCellsAround(pharmacyDto, pharmacyCell));
+            }
+
+            Map<String, String> values = new HashMap<>(cells.size() * 2);
+            for (GeoCell cell : cells) {
+                values.put(cell.toGeoHash(), computeCandidates(cell));
+            }
+            hashOperations.putAll(CELL_KEY, values);
+            localCache.invalidateAll();
+
+            log.info("[PharmacyCellService rebuild] changed: {}, cells: {}, elapsed: {}ms",
+                changedPharmacyList.size(), cells.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("[PharmacyCellService rebuild error]: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 격자의 후보 약국 id 목록(콤마 구분)을 계산한다.
+     * 격자 중심에서 limit 번째로 가까운 약국까지의 거리가 d, 중심에서 꼭짓점까지의 거리가 h 이면
+     * 격자 안의 어느 지점에서든 가까운 약국 limit 개는 중심에서 d + 2h 이내에 있다.
+     */
+    String computeCandidates(GeoCell cell) {
+        double halfDiagonalKm = cell.getHalfDiagonalKm();
+        double cellRadiusKm = radiusKm + halfDiagonalKm + MARGIN_KM;
+
+        List<NearbyPharmacyDto> nearestList = pharmacyIndexService.searchNearest(
+            cell.getCenterLatitude(), cell.getCenterLongitude(), cellRadiusKm, limit);
+        double candidateRadiusKm = nearestList.size() < limit
+            ? cellRadiusKm
+            : Math.min(nearestList.get(limit - 1).getDistance() + 2 * halfDiagonalKm + MARGIN_KM, cellRadiusKm);
+
+        List<NearbyPharmacyDto> candidateList = pharmacyIndexService.searchNearest(
+            cell.getCenterLatitude(), cell.getCenterLongitude(), candidateRadiusKm, maxCandidates + 1);
+        if (candidateList.size() > maxCandidates) {
+            log.warn("[PharmacyCellService computeCandidates] too many candidates. cell: {}", cell.toGeoHash());
+            return FULL_SCAN;
+        }
+
+        return candidateList.stream()
+            .map(nearbyPharmacyDto -> String.valueOf(nearbyPharmacyDto.getPharmacyDto().getId()))
+            .collect(Collectors.joining(","));
+    }
+
+    private long[] getCandidateIds(GeoCell cell) {
+        return localCache.get(cell.toGeoHash(), geoHash -> decode(loadCandidates(cell, geoHash)));
+    }
+
+    // Redis 에 없으면 계산하여 저장한다.
+    private String loadCandidates(GeoCell cell, String geoHash) {
+        try {
+            String value = hashOperations.get(CELL_KEY, geoHash);
+            if (Objects.nonNull(value)) {
+                return value;
+            }
+        } catch (Exception e) {
+            log.error("[PharmacyCellService loadCandidates error]: {}", e.getMessage());
+        }
+
+        String computed = computeCandidates(cell);
+        try {
+            hashOperations.putIfAbsent(CELL_KEY, geoHash, computed);
+        } catch (Exception e) {
+            log.error("[PharmacyCellService loadCandidates error]: {}", e.getMessage());
+        }
+        return computed;
+    }
+
+    // 약국 위치에서 (반경 + 격자 대각선) 이내에 중심이 있는 격자 중 이미 계산된 격자
+    private List<GeoCell> findComputedCellsAround(PharmacyDto pharmacyDto, GeoCell pharmacyCell) {
+        GeoBoundingBox boundingBox = GeoBoundingBox.of(pharmacyDto.getLatitude(), pharmacyDto.getLongitude(),
+            radiusKm + 2 * pharmacyCell.getHalfDiagonalKm());
+        List<GeoCell> cells = GeoCell.covering(boundingBox).stream()
+            .filter(cell -> GeoDistance.calculateDistance(pharmacyDto.getLatitude(), pharmacyDto.getLongitude(),
+                cell.getCenterLatitude(), cell.getCenterLongitude())
+                <= radiusKm + cell.getHalfDiagonalKm() + MARGIN_KM)
+            .collect(Collectors.toList());
+
+        List<String> geoHashes = cells.stream().map(GeoCell::toGeoHash).collect(Collectors.toList());
+        List<String> values = hashOperations.multiGet(CELL_KEY, geoHashes);
+
+        List<GeoCell> computedCells = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            if (Objects.nonNull(values.get(i))) {
+                computedCells.add(cells.get(i));
+            }
+        }
+        return computedCells;
+    }
+
+    private void clearStaging() {
+        try {
+            redisTemplate.delete(STAGING_CELL_KEY);
+        } catch (Exception e) {
+            log.error("[PharmacyCellService clearStaging error]: {}", e.getMessage());
+        }
+    }
+
+    private boolean hasCells() {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(CELL_KEY));
+        } catch (Exception e) {
+            log.error("[PharmacyCellService hasCells error]: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void requestRebuildAll(long version) {
+        fullRebuildVersion.accumulateAndGet(version, Math::max);
+        if (fullRebuildPending.compareAndSet(false, true)) {
+            submit(() -> {
+                if (awaitSnapshot(fullRebuildVersion.get())) {
+                    rebuildAll();
+                } else {
+                    fullRebuildPending.set(false);
+                }
+            });
+        }
+    }
+
+    // 약국 데이터 스냅샷이 version 이상이 될 때까지 기다린다. (버전을 모르면 기다리지 않는다.)
+    private boolean awaitSnapshot(long version) {
+        if (version == UNKNOWN_VERSION) {
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + snapshotWaitTimeout.toMillis();
+        try {
+            long snapshotVersion;
+            while ((snapshotVersion = pharmacyIndexService.getSnapshot().getVersion()) < version) {
+                if (System.currentTimeMillis() >= deadline) {
+                    log.error("[PharmacyCellService awaitSnapshot] snapshot not updated. version: {}, expected: {}",
+                        snapshotVersion, version);
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(SNAPSHOT_WAIT_INTERVAL_MILLIS);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.error("[PharmacyCellService awaitSnapshot error]: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            rebuildExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("[PharmacyCellService] rebuild rejected: {}", e.getMessage());
+        }
+    }
+
+    private String acquireRebuildLock() {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, token, rebuildLockTtl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.error("[PharmacyCellService acquireRebuildLock error]: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void releaseRebuildLock(String token) {
+        try {
+            if (token.equals(redisTemplate.opsForValue().get(REBUILD_LOCK_KEY))) {
+                redisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+        } catch (Exception e) {
+            log.error("[PharmacyCellService releaseRebuildLock error]: {}", e.getMessage());
+        }
+    }
+
+    private static long[] decode(String value) {
+        if (FULL_SCAN.equals(value)) {
+            return FULL_SCAN_CANDIDATES;
+        }
+        if (value.isEmpty()) {
+            return new long[0];
+        }
+
+        String[] tokens = value.split(",");
+        long[] ids = new long[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            ids[i] = Long.parseLong(tokens[i]);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.project.pharmacy.index;
+
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+import com.example.project.pharmacy.entity.NearbyPharmacyDto;
+import com.example.project.pharmacy.service.PharmacySearchService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PharmacyIndexService {
+
+    private final PharmacySearchService pharmacySearchService;
+
+    private volatile PharmacySpatialIndex spatialIndex;
+
+    public List<NearbyPharmacyDto> searchNearest(double latitude, double longitude, double radiusKm, int limit) {
+        return getSpatialIndex().searchNearest(latitude, longitude, radiusKm, limit);
+    }
+
+    // 후보 약국 중에서만 검색
+    public List<NearbyPharmacyDto> searchNearest(double latitude, double longitude, double radiusKm, int limit,
+        long[] candidateIds) {
+        return getSpatialIndex().searchNearest(latitude, longitude, radiusKm, limit, candidateIds);
+    }
+
+    public PharmacySnapshot getSnapshot() {
+        return getSpatialIndex().getSnapshot();
+    }
+
+    // 약국 데이터 스냅샷이 바뀐 경우에만 인덱스를 다시 만든다.
+    private PharmacySpatialIndex getSpatialIndex() {
+        PharmacySnapshot snapshot = pharmacySearchService.getSnapshot();
+        PharmacySpatialIndex current = spatialIndex;
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = spatialIndex;
+            if (current != null && current.getSnapshot() == snapshot) {
+                return current;
+            }
+
+            PharmacySpatialIndex built = PharmacySpatialIndex.of(snapshot);
+            log.info("[PharmacyIndexService] spatial index built. version: {}, size: {}",
+                snapshot.getVersion(), built.size());
+            spatialIndex = built;
+            return built;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.project.pharmacy.index;
+
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+import com.example.project.pharmacy.entity.NearbyPharmacyDto;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import lombok.Getter;
+
+/**
+ * 약국 좌표를 일정한 크기의 격자(grid)로 나누어 보관하는 불변 인메모리 인덱스.
+ * 검색 시 반경을 포함하는 격자 안의 약국들만 거리 계산을 한다.
+ */
+public class PharmacySpatialIndex {
+
+    // 위도 기준 약 5.5km
+    private static final double CELL_SIZE_DEGREE = 0.05;
+
+    // 반경 안의 약국이 이 수 이상이면 병렬로 검색한다.
+    public static final int DEFAULT_PARALLEL_SCAN_THRESHOLD = 50_000;
+
+    // 인덱스를 만든 스냅샷
+    @Getter
+    private final PharmacySnapshot snapshot;
+
+    // <격자 key, 격자 안의 약국 index(스냅샷 기준) 목록>
+    private final Map<Long, int[]> cells;
+
+    private final GeoDistanceKernel distanceKernel;
+
+    private final int parallelScanThreshold;
+
+    private PharmacySpatialIndex(PharmacySnapshot snapshot, Map<Long, int[]> cells, int parallelScanThreshold) {
+        this.snapshot = snapshot;
+        this.cells = cells;
+        this.distanceKernel = GeoDistanceKernel.of(snapshot);
+        this.parallelScanThreshold = parallelScanThreshold;
+    }
+
+    public static PharmacySpatialIndex of(PharmacySnapshot snapshot) {
+        return of(snapshot, DEFAULT_PARALLEL_SCAN_THRESHOLD);
+    }
+
+    public static PharmacySpatialIndex of(PharmacySnapshot snapshot, int parallelScanThreshold) {
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            long cellKey = cellKey(row(snapshot.getLatitude(i)), column(snapshot.getLongitude(i)));
+            buckets.computeIfAbsent(cellKey, key -> new ArrayList<>()).add(i);
+        }
+
+        Map<Long, int[]> cells = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((cellKey, indexList) ->
+            cells.put(cellKey, indexList.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new PharmacySpatialIndex(snapshot, cells, parallelScanThreshold);
+    }
+
+    public static PharmacySpatialIndex of(List<PharmacyDto> pharmacyDtoList) {
+        return of(PharmacySnapshot.of(0L, pharmacyDtoList));
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    /**
+     * 기준 좌표로부터 radiusKm 이내의 약국 중 가까운 순으로 최대 limit 개를 반환한다.
+     * 후보는 거리(현의 제곱) 값만으로 고르고, 최종 limit 개만 NearbyPharmacyDto 로 만든다.
+     */
+    public List<NearbyPharmacyDto> searchNearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0 || isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        GeoBoundingBox boundingBox = GeoBoundingBox.of(latitude, longitude, radiusKm);
+        int minRow = row(boundingBox.getMinLatitude());
+        int maxRow = row(boundingBox.getMaxLatitude());
+        int minColumn = column(boundingBox.getMinLongitude());
+        int maxColumn = column(boundingBox.getMaxLongitude());
+
+        double[] queryVector = GeoDistanceKernel.unitVector(latitude, longitude);
+        double maxChordSquared = GeoDistanceKernel.chordSquaredOf(radiusKm);
+        int k = Math.min(limit, size());
+
+        TopKSelector selector;
+        if (maxRow > minRow && countCandidates(minRow, maxRow, minColumn, maxColumn) >= parallelScanThreshold) {
+            // 격자 행 단위로 나누어 병렬(fork-join)로 검색한 뒤 합친다.
+            selector = IntStream.rangeClosed(minRow, maxRow).parallel()
+                .collect(() -> new TopKSelector(k),
+                    (rowSelector, row) -> scanRow(rowSelector, row, minColumn, maxColumn, queryVector, maxChordSquared),
+                    TopKSelector::merge);
+        } else {
+            selector = new TopKSelector(k);
+            for (int row = minRow; row <= maxRow; row++) {
+                scanRow(selector, row, minColumn, maxColumn, queryVector, maxChordSquared);
+            }
+        }
+        return toNearbyPharmacyList(selector);
+    }
+
+    /**
+     * 후보 약국(id) 중에서만 기준 좌표로부터 radiusKm 이내의 약국을 가까운 순으로 최대 limit 개 반환한다.
+     * 스냅샷에 없는 id 는 무시한다.
+     */
+    public List<NearbyPharmacyDto> searchNearest(double latitude, double longitude, double radiusKm, int limit,
+        long[] candidateIds) {
+        if (limit <= 0 || isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        double[] queryVector = GeoDistanceKernel.unitVector(latitude, longitude);
+        double maxChordSquared = GeoDistanceKernel.chordSquaredOf(radiusKm);
+
+        TopKSelector selector = new TopKSelector(Math.min(limit, candidateIds.length));
+        for (long candidateId : candidateIds) {
+            int index = snapshot.indexOf(candidateId);
+            if (index < 0) {
+                continue;
+            }
+
+            double chordSquared = distanceKernel.chordSquared(index, queryVector);
+            if (chordSquared <= maxChordSquared) {
+                selector.offer(index, chordSquared);
+            }
+        }
+        return toNearbyPharmacyList(selector);
+    }
+
+    private void scanRow(TopKSelector selector, int row, int minColumn, int maxColumn,
+        double[] queryVector, double maxChordSquared) {
+        for (int column = minColumn; column <= maxColumn; column++) {
+            int[] cell = cells.get(cellKey(row, column));
+            if (cell == null) {
+                continue;
+            }
+
+            for (int index : cell) {
+                // 반경 밖이거나 이미 고른 약국보다 먼 약국은 현의 제곱 비교만으로 제외
+                double chordSquared = distanceKernel.chordSquared(index, queryVector);
+                if (chordSquared <= maxChordSquared && chordSquared <= selector.worstKey()) {
+                    selector.offer(index, chordSquared);
+                }
+            }
+        }
+    }
+
+    private int countCandidates(int minRow, int maxRow, int minColumn, int maxColumn) {
+        if (size() < parallelScanThreshold) {
+            return size();
+        }
+
+        int count = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int[] cell = cells.get(cellKey(row, column));
+                if (cell != null) {
+                    count += cell.length;
+                }
+            }
+        }
+        return count;
+    }
+
+    private List<NearbyPharmacyDto> toNearbyPharmacyList(TopKSelector selector) {
+        selector.sort();
+        List<NearbyPharmacyDto> result = new ArrayList<>(selector.size());
+        for (int i = 0; i < selector.size(); i++) {
+            result.add(new NearbyPharmacyDto(snapshot.getPharmacyDto(selector.getIndex(i)),
+                GeoDistanceKernel.toKilometers(selector.getKey(i))));
+        }
+        return result;
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_SIZE_DEGREE);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_SIZE_DEGREE);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.project.pharmacy.index;
+
+/**
+ * 거리(key)가 가장 작은 k 개의 index 를 고르는 고정 크기 max-heap.
+ * 후보마다 객체를 만들지 않도록 primitive 배열만 사용한다.
+ *
+ * key 가 같으면 index 가 작은 쪽을 앞으로 보아, 검색 순서(순차, 병렬)와 관계없이 같은 결과를 만든다.
+ */
+public class TopKSelector {
+
+    private final int k;
+    private final int[] indexes;
+    private final double[] keys;
+    private int size;
+    private boolean sorted;
+
+    public TopKSelector(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.indexes = new int[k];
+        this.keys = new double[k];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == k;
+    }
+
+    // 가득 찬 경우 지금까지 고른 것 중 가장 큰 key. 이보다 큰 후보는 더 볼 필요가 없다.
+    public double worstKey() {
+        return isFull() && k > 0 ? keys[0] : Double.POSITIVE_INFINITY;
+    }
+
+    public void offer(int index, double key) {
+        if (sorted) {
+            throw new IllegalStateException("already sorted");
+        }
+        if (size < k) {
+            indexes[size] = index;
+            keys[size] = key;
+            siftUp(size++);
+        } else if (k > 0 && isBefore(key, index, keys[0], indexes[0])) {
+            indexes[0] = index;
+            keys[0] = key;
+            siftDown(0, size);
+        }
+    }
+
+    // 병렬 검색에서 구간별 결과를 합친다.
+    public void merge(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.indexes[i], other.keys[i]);
+        }
+    }
+
+    /**
+     * key 오름차순으로 정렬한다. (heap sort, 추가 메모리 없음)
+     * 정렬한 뒤에는 getIndex, getKey 로 순서대로 읽을 수 있고, 더 이상 offer 할 수 없다.
+     */
+    public void sort() {
+        if (sorted) {
+            return;
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        sorted = true;
+    }
+
+    public int getIndex(int i) {
+        checkSorted();
+        return indexes[i];
+    }
+
+    public double getKey(int i) {
+        checkSorted();
+        return keys[i];
+    }
+
+    private void checkSorted() {
+        if (!sorted) {
+            throw new IllegalStateException("sort() must be called first");
+        }
+    }
+
+    private void siftUp(int child) {
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (!isBefore(keys[parent], indexes[parent], keys[child], indexes[child])) {
+                return;
+            }
+            swap(parent, child);
+            child = parent;
+        }
+    }
+
+    private void siftDown(int parent, int end) {
+        while (true) {
+            int largest = parent;
+            int left = 2 * parent + 1;
+            int right = left + 1;
+            if (left < end && isBefore(keys[largest], indexes[largest], keys[left], indexes[left])) {
+                largest = left;
+            }
+            if (right < end && isBefore(keys[largest], indexes[largest], keys[right], indexes[right])) {
+                largest = right;
+            }
+            if (largest == parent) {
+                return;
+            }
+            swap(parent, largest);
+            parent = largest;
+        }
+    }
+
+    private static boolean isBefore(double key, int index, double otherKey, int otherIndex) {
+        return key < otherKey || (key == otherKey && index < otherIndex);
+    }
+
+    private void swap(int i, int j) {
+        int index = indexes[i];
+        indexes[i] = indexes[j];
+        indexes[j] = index;
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+    }
+}
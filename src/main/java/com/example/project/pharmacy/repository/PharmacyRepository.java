@@ -1,8 +1,31 @@
 package com.example.project.pharmacy.repository;
 
 import com.example.project.pharmacy.entity.Pharmacy;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PharmacyRepository extends JpaRepository<Pharmacy, Long> {
 
+    // (latitude, longitude) 복합 인덱스를 이용하여 영역 안의 약국만 dto 로 조회 (영속성 컨텍스트에 엔티티를 만들지 않는다)
+    @Query("select new com.example.project.pharmacy.entity.PharmacyDto("
+        + "p.id, p.pharmacyName, p.pharmacyAddress, p.latitude, p.longitude) "
+        + "from pharmacy p "
+        + "where p.latitude between :minLatitude and :maxLatitude "
+        + "and p.longitude between :minLongitude and :maxLongitude")
+    List<PharmacyDto> findAllInBoundingBox(@Param("minLatitude") double minLatitude,
+        @Param("maxLatitude") double maxLatitude,
+        @Param("minLongitude") double minLongitude,
+        @Param("maxLongitude") double maxLongitude);
+
+    // id 기준 keyset 페이징. offset 방식과 달리 뒤쪽 페이지도 인덱스로 바로 찾는다.
+    @Query("select new com.example.project.pharmacy.entity.PharmacyDto("
+        + "p.id, p.pharmacyName, p.pharmacyAddress, p.latitude, p.longitude) "
+        + "from pharmacy p "
+        + "where p.id > :lastId "
+        + "order by p.id")
+    List<PharmacyDto> findAllByIdGreaterThan(@Param("lastId") long lastId, Pageable pageable);
 }
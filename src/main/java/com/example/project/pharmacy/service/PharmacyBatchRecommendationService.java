@@ -0,0 +1,184 @@
+package com.example.project.pharmacy.service;
+
+import com.example.project.api.cache.KakaoAddressSearchCacheService;
+import com.example.project.api.dto.DocumentDto;
+import com.example.project.api.dto.KakaoApiResponseDto;
+import com.example.project.direction.dto.BatchOutputDto;
+import com.example.project.direction.entity.Direction;
+import com.example.project.direction.service.DirectionService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 여러 주소에 대한 약국 추천.
+ * 주소 변환(kakao api)은 고정된 개수의 스레드에서 동시에 처리하여 kakao api 호출량을 제한하고,
+ * 변환이 끝난 주소들을 모아 약국 검색, Direction 저장(batch)을 한 뒤 결과를 바로 전달한다.
+ * 요청 하나가 동시에 변환하는 주소 수는 request-concurrency 로 제한하여, 큰 batch 가 다른 batch 의
+ * 주소 변환을 오래 기다리게 하지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PharmacyBatchRecommendationService {
+
+    private final KakaoAddressSearchCacheService kakaoAddressSearchCacheService;
+    private final DirectionService directionService;
+    private final PharmacyRecommendationService pharmacyRecommendationService;
+
+    // kakao api 동시 호출 수. 모든 batch 요청이 같은 스레드를 공유한다.
+    @Value("${pharmacy.recommendation.batch.geocoding-concurrency:8}")
+    private int geocodingConcurrency;
+
+    // batch 요청 하나가 동시에 변환하는 최대 주소 수 (공유 스레드의 queue 에 넣는 수)
+    @Value("${pharmacy.recommendation.batch.request-concurrency:4}")
+    private int requestConcurrency = 4;
+
+    // 한 번에 검색, 저장하는 최대 주소 수
+    @Value("${pharmacy.recommendation.batch.chunk-size:100}")
+    private int chunkSize;
+
+    private ExecutorService geocodingExecutor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.geocodingExecutor = Executors.newFixedThreadPool(geocodingConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "batch-geocoding-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (geocodingExecutor != null) {
+            geocodingExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 주소 변환이 끝나는 순서대로 결과를 consumer 에 전달한다. (요청 순서와 다를 수 있으므로 index 로 구분)
+     * consumer 에서 예외가 발생하면(예: 클라이언트 연결 종료) 남은 주소 변환을 취소한다.
+     * 모든 주소를 처리하지 못하면(중단, 예상하지 못한 오류) IllegalStateException 을 던진다.
+     */
+    public void recommendPharmacyList(List<String> addressList, Consumer<BatchOutputDto> consumer) {
+        CompletionService<GeocodingResult> completionService = new ExecutorCompletionService<>(geocodingExecutor);
+        List<Future<GeocodingResult>> futures = new ArrayList<>(addressList.size());
+        int submitted = 0;
+        while (submitted < addressList.size() && submitted < Math.max(1, requestConcurrency)) {
+            futures.add(submit(completionService, addressList, submitted++));
+        }
+
+        try {
+            int remaining = addressList.size();
+            List<GeocodingResult> chunk = new ArrayList<>(chunkSize);
+            while (remaining > 0) {
+                chunk.add(completionService.take().get());
+                remaining--;
+                if (submitted < addressList.size()) {
+                    futures.add(submit(completionService, addressList, submitted++));
+                }
+
+                // 이미 변환이 끝난 주소는 함께 처리
+                Future<GeocodingResult> completed;
+                while (chunk.size() < chunkSize && remaining > 0 && (completed = completionService.poll()) != null) {
+                    chunk.add(completed.get());
+                    remaining--;
+                    if (submitted < addressList.size()) {
+                        futures.add(submit(completionService, addressList, submitted++));
+                    }
+                }
+
+                recommendChunk(chunk, consumer);
+                chunk.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("[PharmacyBatchRecommendationService recommendPharmacyList] interrupted");
+            throw new IllegalStateException("batch recommendation interrupted", e);
+        } catch (ExecutionException e) {
+            // geocode 에서 예외를 처리하므로 발생하지 않는다.
+            log.error("[PharmacyBatchRecommendationService recommendPharmacyList error] {}", e.getMessage());
+            throw new IllegalStateException("batch recommendation failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<GeocodingResult> submit(CompletionService<GeocodingResult> completionService,
+        List<String> addressList, int index) {
+        String address = addressList.get(index);
+        return completionService.submit(() -> new GeocodingResult(index, address, geocode(address)));
+    }
+
+    private void recommendChunk(List<GeocodingResult> chunk, Consumer<BatchOutputDto> consumer) {
+        // 약국 검색 후, chunk 의 Direction 을 한 번에 저장
+        List<Direction> directionList = new ArrayList<>();
+        int[] directionCounts = new int[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            DocumentDto documentDto = chunk.get(i).documentDto;
+            if (Objects.isNull(documentDto)) {
+                continue;
+            }
+            List<Direction> list = directionService.buildDirectionList(documentDto);
+            directionCounts[i] = list.size();
+            directionList.addAll(list);
+        }
+        List<Direction> savedList = directionService.saveAll(directionList);
+
+        int offset = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            GeocodingResult geocodingResult = chunk.get(i);
+            List<Direction> directions = savedList.subList(offset, offset + directionCounts[i]);
+            offset += directionCounts[i];
+
+            consumer.accept(BatchOutputDto.builder()
+                .index(geocodingResult.index)
+                .address(geocodingResult.address)
+                .success(Objects.nonNull(geocodingResult.documentDto))
+                .outputDtoList(directions.stream()
+                    .map(pharmacyRecommendationService::convertToOutputDto)
+                    .collect(Collectors.toList()))
+                .build());
+        }
+    }
+
+    private DocumentDto geocode(String address) {
+        try {
+            KakaoApiResponseDto kakaoApiResponseDto = kakaoAddressSearchCacheService.requestAddressSearch(address);
+            if (Objects.isNull(kakaoApiResponseDto) || Objects.isNull(kakaoApiResponseDto.getDocumentList())
+                || kakaoApiResponseDto.getDocumentList().isEmpty()) {
+                log.error("[PharmacyBatchRecommendationService geocode fail] Input address: {}", address);
+                return null;
+            }
+            return kakaoApiResponseDto.getDocumentList().get(0);
+        } catch (Exception e) {
+            log.error("[PharmacyBatchRecommendationService geocode error] Input address: {}, {}", address, e.getMessage());
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class GeocodingResult {
+        private final int index;
+        private final String address;
+        private final DocumentDto documentDto;
+    }
+}
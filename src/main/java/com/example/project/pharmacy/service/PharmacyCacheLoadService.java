@@ -0,0 +1,99 @@
+package com.example.project.pharmacy.service;
+
+import com.example.project.pharmacy.cache.PharmacyRedisTemplateService;
+import com.example.project.pharmacy.entity.PharmacyCacheLoadResultDto;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * DB 의 약국 데이터를 Redis 캐시에 일괄 적재한다.
+ * id 순으로 페이지 단위로 읽어 staging key 에 저장한 뒤, 모두 적재되면 한 번에 교체한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PharmacyCacheLoadService {
+
+    private final PharmacyRepositoryService pharmacyRepositoryService;
+    private final PharmacyRedisTemplateService pharmacyRedisTemplateService;
+
+    @Value("${pharmacy.cache.load.chunk-size:1000}")
+    private int chunkSize;
+
+    // 서버 시작 시 캐시가 비어 있으면 적재
+    @Value("${pharmacy.cache.load.on-startup:false}")
+    private boolean loadOnStartup;
+
+    // 동시에 여러 번 적재하면 staging key 를 같이 사용하게 되므로 한 번에 하나만 실행
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!loadOnStartup || pharmacyRedisTemplateService.hasCache()) {
+            return;
+        }
+        log.info("[PharmacyCacheLoadService] pharmacy cache is empty. start loading");
+        load();
+    }
+
+    public PharmacyCacheLoadResultDto load() {
+        if (!loading.compareAndSet(false, true)) {
+            log.warn("[PharmacyCacheLoadService load] already loading");
+            return PharmacyCacheLoadResultDto.builder().success(false).build();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long rowCount = 0;
+        try {
+            pharmacyRedisTemplateService.clearStaging();
+
+            long lastId = 0;
+            List<PharmacyDto> page;
+            do {
+                page = pharmacyRepositoryService.findPageAfter(lastId, chunkSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                pharmacyRedisTemplateService.saveAllToStaging(page);
+                rowCount += page.size();
+                lastId = page.get(page.size() - 1).getId();
+            } while (page.size() == chunkSize);
+
+            // 적재할 데이터가 없으면 기존 캐시를 그대로 둔다.
+            if (rowCount == 0) {
+                log.warn("[PharmacyCacheLoadService load] no pharmacy to load");
+                return PharmacyCacheLoadResultDto.builder().success(false).build();
+            }
+            if (!pharmacyRedisTemplateService.publishStaging()) {
+                pharmacyRedisTemplateService.clearStaging();
+                return PharmacyCacheLoadResultDto.builder().success(false).rowCount(rowCount).build();
+            }
+
+            long elapsedMillis = Math.max(1L, System.currentTimeMillis() - startedAt);
+            double rowsPerSecond = rowCount * 1000.0 / elapsedMillis;
+            log.info("[PharmacyCacheLoadService load] rows: {}, elapsed: {} ms, rows/sec: {}",
+                rowCount, elapsedMillis, String.format("%.1f", rowsPerSecond));
+
+            return PharmacyCacheLoadResultDto.builder()
+                .success(true)
+                .rowCount(rowCount)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+
+        } catch (Exception e) {
+            log.error("[PharmacyCacheLoadService load error] loaded rows: {}, {}", rowCount, e.getMessage());
+            pharmacyRedisTemplateService.clearStaging();
+            return PharmacyCacheLoadResultDto.builder().success(false).rowCount(rowCount).build();
+        } finally {
+            loading.set(false);
+        }
+    }
+}
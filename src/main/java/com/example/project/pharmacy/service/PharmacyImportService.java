@@ -0,0 +1,419 @@
+package com.example.project.pharmacy.service;
+
+import com.example.project.pharmacy.cache.PharmacyRedisTemplateService;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.example.project.pharmacy.entity.PharmacyImportResultDto;
+import com.example.project.pharmacy.importer.PharmacyCsvReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 약국 원본 데이터(csv)를 pharmacy 테이블에 반영한다.
+ *
+ * 파일은 id 오름차순이어야 하며, DB 를 id 순으로 페이지 단위로 함께 읽으면서 비교(merge)하므로
+ * 파일 크기와 관계없이 chunk-size 만큼만 메모리에 둔다.
+ * 추가/수정된 행은 upsert, 파일에 없는 행은 삭제하고(JDBC batch, chunk 단위 트랜잭션),
+ * 변경된 약국만 캐시와 인메모리 데이터에 반영한다.
+ * chunk 마다 처리한 마지막 id 를 checkpoint 로 저장하여, 중단된 경우 이어서 처리할 수 있다.
+ * 반영하기 전에 파일 전체를 한 번 비교하여, 잘린 파일이나 잘못된 파일로 약국이 삭제되지 않도록 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PharmacyImportService {
+
+    private static final String CHECKPOINT_KEY_PREFIX = "PHARMACY_IMPORT_CHECKPOINT:";
+
+    private static final String UPSERT_SQL = "insert into pharmacy "
+        + "(id, created_date, modified_date, latitude, longitude, pharmacy_address, pharmacy_name) "
+        + "values (?, ?, ?, ?, ?, ?, ?) "
+        + "on duplicate key update modified_date = values(modified_date), "
+        + "latitude = values(latitude), longitude = values(longitude), "
+        + "pharmacy_address = values(pharmacy_address), pharmacy_name = values(pharmacy_name)";
+
+    private static final String DELETE_SQL = "delete from pharmacy where id = ?";
+
+    private final PharmacyRepositoryService pharmacyRepositoryService;
+    private final PharmacyRedisTemplateService pharmacyRedisTemplateService;
+    private final PharmacyCacheLoadService pharmacyCacheLoadService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    // 이 디렉토리 안의 파일만 읽는다.
+    @Value("${pharmacy.import.directory:import}")
+    private String directory;
+
+    @Value("${pharmacy.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${pharmacy.import.checkpoint-ttl:7d}")
+    private Duration checkpointTtl;
+
+    // 형식이 잘못된 줄이 이보다 많으면 반영하지 않는다.
+    @Value("${pharmacy.import.max-invalid-lines:0}")
+    private long maxInvalidLines;
+
+    // 삭제할 약국이 비교한 약국 중 이 비율을 넘으면 반영하지 않는다.
+    @Value("${pharmacy.import.max-remove-ratio:0.1}")
+    private double maxRemoveRatio = 0.1;
+
+    private final AtomicBoolean importing = new AtomicBoolean(false);
+
+    public PharmacyImportResultDto importFile(String fileName, boolean resume) {
+        Path path = resolve(fileName);
+        if (Objects.isNull(path)) {
+            log.warn("[PharmacyImportService importFile] file not found: {}", fileName);
+            return failure("file not found");
+        }
+        if (!importing.compareAndSet(false, true)) {
+            log.warn("[PharmacyImportService importFile] already importing");
+            return failure("already importing");
+        }
+
+        try {
+            return importFrom(path.getFileName().toString(),
+                () -> new PharmacyCsvReader(Files.newBufferedReader(path, StandardCharsets.UTF_8)), resume);
+        } finally {
+            importing.set(false);
+        }
+    }
+
+    // 파일을 두 번(검증, 반영) 읽으므로 읽을 때마다 새 reader 를 연다.
+    @FunctionalInterface
+    interface CsvReaderOpener {
+        PharmacyCsvReader open() throws IOException;
+    }
+
+    /**
+     * 먼저 DB 에 반영하지 않고 비교만 하여 파일을 검증한 뒤, 문제가 없을 때만 다시 읽어 반영한다.
+     * 형식이 잘못된 줄이 max-invalid-lines 보다 많거나, 삭제할 약국이 비교한 약국의 max-remove-ratio 를 넘으면
+     * (잘린 파일, 잘못된 파일) 아무것도 반영하지 않는다.
+     */
+    PharmacyImportResultDto importFrom(String name, CsvReaderOpener opener, boolean resume) {
+        String checkpointKey = CHECKPOINT_KEY_PREFIX + name;
+        long startId = resume ? getCheckpoint(checkpointKey) : 0L;
+        long startedAt = System.currentTimeMillis();
+
+        String rejected = verify(name, opener, startId);
+        if (Objects.nonNull(rejected)) {
+            return failure(rejected);
+        }
+
+        ImportRun run = new ImportRun(false, pharmacyRedisTemplateService.hasCache());
+        long invalidLineCount = 0L;
+        long lastId;
+        try (PharmacyCsvReader reader = opener.open()) {
+            try {
+                lastId = merge(reader, startId, run, checkpointKey);
+                deleteCheckpoint(checkpointKey);
+            } finally {
+                invalidLineCount = reader.getInvalidLineCount();
+            }
+        } catch (Exception e) {
+            log.error("[PharmacyImportService import error] name: {}, {}", name, e.getMessage());
+            syncCacheIfNeeded(run);
+            return run.toResult(false, e.getMessage(), invalidLineCount, getCheckpoint(checkpointKey), startedAt);
+        }
+
+        syncCacheIfNeeded(run);
+        PharmacyImportResultDto result = run.toResult(true, null, invalidLineCount, lastId, startedAt);
+        log.info("[PharmacyImportService import] name: {}, read: {}, added: {}, changed: {}, removed: {}, "
+                + "unchanged: {}, skipped: {}, invalid: {}, elapsed: {} ms, rows/sec: {}",
+            name, result.getReadCount(), result.getAddedCount(), result.getChangedCount(), result.getRemovedCount(),
+            result.getUnchangedCount(), result.getSkippedCount(), result.getInvalidLineCount(),
+            result.getElapsedMillis(), String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    // 반영할 수 없는 파일이면 그 이유, 반영해도 되면 null
+    private String verify(String name, CsvReaderOpener opener, long startId) {
+        ImportRun plan = new ImportRun(true, false);
+        try (PharmacyCsvReader reader = opener.open()) {
+            merge(reader, startId, plan, null);
+
+            String rejected = null;
+            long compared = plan.unchangedCount + plan.changedCount + plan.removedCount;
+            if (reader.getInvalidLineCount() > maxInvalidLines) {
+                rejected = String.format("too many invalid lines: %d (max %d)",
+                    reader.getInvalidLineCount(), maxInvalidLines);
+            } else if (plan.removedCount > compared * maxRemoveRatio) {
+                rejected = String.format("too many removals: %d of %d (max ratio %s)",
+                    plan.removedCount, compared, maxRemoveRatio);
+            }
+            if (Objects.nonNull(rejected)) {
+                log.warn("[PharmacyImportService verify] name: {}, rejected: {}", name, rejected);
+            }
+            return rejected;
+        } catch (Exception e) {
+            log.error("[PharmacyImportService verify error] name: {}, {}", name, e.getMessage());
+            return e.getMessage();
+        }
+    }
+
+    // 파일과 DB 를 id 순으로 비교하여 chunk 단위로 반영(검증 중에는 집계만)하고, 마지막으로 비교한 id 를 반환한다.
+    private long merge(PharmacyCsvReader reader, long startId, ImportRun run, String checkpointKey)
+        throws IOException {
+        ExistingCursor existing = new ExistingCursor(startId);
+        long lastId = startId;
+        PharmacyDto row;
+        while ((row = reader.next()) != null) {
+            run.readCount++;
+            if (row.getId() <= startId) {
+                run.skippedCount++;
+                continue;
+            }
+            if (row.getId() <= lastId) {
+                throw new IllegalStateException("id must be in ascending order. line: " + reader.getLineNumber());
+            }
+            lastId = row.getId();
+
+            // 파일에서 건너뛴 id 의 약국은 삭제
+            while (existing.peek() != null && existing.peek().getId() < row.getId()) {
+                run.remove(existing.poll());
+            }
+            PharmacyDto previous = existing.peek() != null && existing.peek().getId().equals(row.getId())
+                ? existing.poll()
+                : null;
+            run.compare(previous, row);
+
+            if (run.visitedCount >= chunkSize) {
+                flush(run, checkpointKey, lastId);
+            }
+        }
+
+        // 파일을 잘못 지정한 경우 전체 약국이 삭제되지 않도록 한다.
+        if (run.readCount == run.skippedCount && startId == 0L) {
+            throw new IllegalStateException("no valid row");
+        }
+
+        // 파일의 마지막 id 이후의 약국은 삭제
+        while (existing.peek() != null) {
+            PharmacyDto removed = existing.poll();
+            run.remove(removed);
+            lastId = removed.getId();
+            if (run.visitedCount >= chunkSize) {
+                flush(run, checkpointKey, lastId);
+            }
+        }
+        flush(run, checkpointKey, lastId);
+        return lastId;
+    }
+
+    // chunk 의 변경을 DB(한 트랜잭션), 캐시 순으로 반영한 뒤 checkpoint 를 저장한다.
+    private void flush(ImportRun run, String checkpointKey, long checkpointId) {
+        if (run.dryRun) {
+            run.clearPending();
+            return;
+        }
+        if (run.hasPendingChanges()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!run.upserted.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, run.upserted, run.upserted.size(), (ps, pharmacyDto) -> {
+                        ps.setLong(1, pharmacyDto.getId());
+                        ps.setTimestamp(2, now);
+                        ps.setTimestamp(3, now);
+                        ps.setDouble(4, pharmacyDto.getLatitude());
+                        ps.setDouble(5, pharmacyDto.getLongitude());
+                        ps.setString(6, pharmacyDto.getPharmacyAddress());
+                        ps.setString(7, pharmacyDto.getPharmacyName());
+                    });
+                }
+                if (!run.removed.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, run.removed, run.removed.size(),
+                        (ps, pharmacyDto) -> ps.setLong(1, pharmacyDto.getId()));
+                }
+            });
+
+            // 캐시 반영에 실패하면 이후 chunk 는 캐시에 반영하지 않고, 끝난 뒤 한 번에 다시 적재한다.
+            if (run.cacheSynced) {
+                run.cacheSynced = pharmacyRedisTemplateService.applyChanges(run.upserted, run.removed, run.previous);
+            }
+            run.changed = true;
+        }
+
+        saveCheckpoint(checkpointKey, checkpointId);
+        log.debug("[PharmacyImportService flush] checkpoint: {}, upserted: {}, removed: {}",
+            checkpointId, run.upserted.size(), run.removed.size());
+        run.clearPending();
+    }
+
+    // 캐시가 없었거나 변경 내용을 반영하지 못한 경우 전체를 다시 적재한다.
+    private void syncCacheIfNeeded(ImportRun run) {
+        if (run.changed && !run.cacheSynced) {
+            log.info("[PharmacyImportService] pharmacy cache is not synced. start loading");
+            pharmacyCacheLoadService.load();
+        }
+    }
+
+    private Path resolve(String fileName) {
+        if (Objects.isNull(fileName) || fileName.isBlank()) {
+            return null;
+        }
+        Path base = Paths.get(directory).toAbsolutePath().normalize();
+        Path path = base.resolve(fileName).normalize();
+        return path.startsWith(base) && Files.isRegularFile(path) ? path : null;
+    }
+
+    private long getCheckpoint(String checkpointKey) {
+        try {
+            Object value = redisTemplate.opsForValue().get(checkpointKey);
+            return Objects.isNull(value) ? 0L : Long.parseLong(value.toString());
+        } catch (Exception e) {
+            log.error("[PharmacyImportService getCheckpoint error]: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private void saveCheckpoint(String checkpointKey, long id) {
+        try {
+            redisTemplate.opsForValue().set(checkpointKey, String.valueOf(id), checkpointTtl);
+        } catch (Exception e) {
+            log.error("[PharmacyImportService saveCheckpoint error]: {}", e.getMessage());
+        }
+    }
+
+    private void deleteCheckpoint(String checkpointKey) {
+        try {
+            redisTemplate.delete(checkpointKey);
+        } catch (Exception e) {
+            log.error("[PharmacyImportService deleteCheckpoint error]: {}", e.getMessage());
+        }
+    }
+
+    private static PharmacyImportResultDto failure(String message) {
+        return PharmacyImportResultDto.builder().success(false).message(message).build();
+    }
+
+    private static boolean isSame(PharmacyDto previous, PharmacyDto row) {
+        return Objects.equals(previous.getPharmacyName(), row.getPharmacyName())
+            && Objects.equals(previous.getPharmacyAddress(), row.getPharmacyAddress())
+            && Double.compare(previous.getLatitude(), row.getLatitude()) == 0
+            && Double.compare(previous.getLongitude(), row.getLongitude()) == 0;
+    }
+
+    // DB 의 약국을 id 순으로 페이지 단위로 읽는다.
+    private class ExistingCursor {
+
+        private final Deque<PharmacyDto> page = new ArrayDeque<>();
+        private long lastId;
+        private boolean exhausted;
+
+        private ExistingCursor(long startId) {
+            this.lastId = startId;
+        }
+
+        private PharmacyDto peek() {
+            if (page.isEmpty() && !exhausted) {
+                List<PharmacyDto> next = pharmacyRepositoryService.findPageAfter(lastId, chunkSize);
+                page.addAll(next);
+                exhausted = next.size() < chunkSize;
+                if (!next.isEmpty()) {
+                    lastId = next.get(next.size() - 1).getId();
+                }
+            }
+            return page.peekFirst();
+        }
+
+        private PharmacyDto poll() {
+            peek();
+            return page.pollFirst();
+        }
+    }
+
+    // 한 번의 import 에서 집계한 값과 아직 반영하지 않은 chunk
+    private static class ImportRun {
+
+        private final List<PharmacyDto> upserted = new ArrayList<>();
+        private final List<PharmacyDto> removed = new ArrayList<>();
+        private final List<PharmacyDto> previous = new ArrayList<>();
+
+        private long readCount;
+        private long addedCount;
+        private long changedCount;
+        private long unchangedCount;
+        private long removedCount;
+        private long skippedCount;
+        private int visitedCount;
+
+        // true 이면 비교(집계)만 하고 반영하지 않는다.
+        private final boolean dryRun;
+        private boolean cacheSynced;
+        private boolean changed;
+
+        private ImportRun(boolean dryRun, boolean cacheSynced) {
+            this.dryRun = dryRun;
+            this.cacheSynced = cacheSynced;
+        }
+
+        private void compare(PharmacyDto existing, PharmacyDto row) {
+            visitedCount++;
+            if (Objects.isNull(existing)) {
+                addedCount++;
+                upserted.add(row);
+            } else if (isSame(existing, row)) {
+                unchangedCount++;
+            } else {
+                changedCount++;
+                upserted.add(row);
+                previous.add(existing);
+            }
+        }
+
+        private void remove(PharmacyDto existing) {
+            visitedCount++;
+            removedCount++;
+            removed.add(existing);
+        }
+
+        private boolean hasPendingChanges() {
+            return !upserted.isEmpty() || !removed.isEmpty();
+        }
+
+        private void clearPending() {
+            upserted.clear();
+            removed.clear();
+            previous.clear();
+            visitedCount = 0;
+        }
+
+        private PharmacyImportResultDto toResult(boolean success, String message, long invalidLineCount, long lastId,
+            long startedAt) {
+            long elapsedMillis = Math.max(1L, System.currentTimeMillis() - startedAt);
+            return PharmacyImportResultDto.builder()
+                .success(success)
+                .message(message)
+                .readCount(readCount)
+                .addedCount(addedCount)
+                .changedCount(changedCount)
+                .unchangedCount(unchangedCount)
+                .removedCount(removedCount)
+                .skippedCount(skippedCount)
+                .invalidLineCount(invalidLineCount)
+                .lastId(lastId)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(readCount * 1000.0 / elapsedMillis)
+                .build();
+        }
+    }
+}
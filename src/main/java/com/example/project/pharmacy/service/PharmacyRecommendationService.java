@@ -1,18 +1,40 @@
 package com.example.project.pharmacy.service;
 
+import com.example.project.api.cache.KakaoAddressSearchCacheService;
 import com.example.project.api.dto.DocumentDto;
 import com.example.project.api.dto.KakaoApiResponseDto;
-import com.example.project.api.service.KakaoAddressSearchService;
 import com.example.project.direction.dto.OutputDto;
+import com.example.project.direction.dto.RecommendationResultDto;
 import com.example.project.direction.entity.Direction;
 import com.example.project.direction.service.Base62Service;
 import com.example.project.direction.service.DirectionService;
+import com.example.project.pharmacy.index.GeoDistance;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -22,56 +44,276 @@ import org.springframework.stereotype.Service;
 public class PharmacyRecommendationService {
 
 
-    private final KakaoAddressSearchService kakaoAddressSearchService;
+    private final KakaoAddressSearchCacheService kakaoAddressSearchCacheService;
     private final DirectionService directionService;
     private final Base62Service base62Service;
+    private final MeterRegistry meterRegistry;
+    private static final String RECOMMENDATION_METRIC_NAME = "pharmacy.recommendation";
+    // 이름이 같고 이 거리 이내이면 같은 약국으로 본다. (약국 데이터와 kakao 장소의 좌표 차이)
+    private static final double SAME_PHARMACY_DISTANCE_KM = 0.1;
     private static final String ROAD_VIEW_BASE_URL = "https://map.kakao.com/link/roadview/";
 //    private static final String DIRECTION_BASE_URL = "https://map.kakao.com/link/map/";
 
     @Value("${pharmacy.recommendation.base.url}")
     private String baseUrl;
 
+    // 추천을 요청 스레드(tomcat)가 아닌 별도 스레드에서 처리할지 여부
+    @Value("${pharmacy.recommendation.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${pharmacy.recommendation.async.pool-size:50}")
+    private int asyncPoolSize;
+
+    // 대기열이 가득 차면 RejectedExecutionException 으로 바로 거절한다.
+    @Value("${pharmacy.recommendation.async.queue-capacity:500}")
+    private int asyncQueueCapacity;
+
+    @Value("${pharmacy.recommendation.mode:local}")
+    private RecommendationMode mode = RecommendationMode.LOCAL;
+
+    // hedged 모드에서 kakao 카테고리 검색 결과를 기다리는 마감 시간 (주소 변환이 끝난 시점부터)
+    @Value("${pharmacy.recommendation.hedged.deadline-millis:300}")
+    private long hedgedDeadlineMillis = 300;
+
+    @Value("${pharmacy.recommendation.hedged.pool-size:20}")
+    private int hedgedPoolSize = 20;
+
+    // 대기열이 가득 차면 카테고리 검색 없이 약국 데이터 결과만 사용한다.
+    @Value("${pharmacy.recommendation.hedged.queue-capacity:200}")
+    private int hedgedQueueCapacity = 200;
+
+    private ThreadPoolExecutor recommendationExecutor;
+    private ThreadPoolExecutor categorySearchExecutor;
+
+    @PostConstruct
+    public void start() {
+        this.recommendationExecutor = newExecutor("recommendation-", asyncPoolSize, asyncQueueCapacity);
+        this.categorySearchExecutor = newExecutor("category-search-", hedgedPoolSize, hedgedQueueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (recommendationExecutor != null) {
+            recommendationExecutor.shutdown();
+        }
+        if (categorySearchExecutor != null) {
+            categorySearchExecutor.shutdown();
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(String namePrefix, int poolSize, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+            60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public CompletableFuture<List<OutputDto>> recommendPharmacyListAsync(String address) {
+        return recommendPharmacyListAsync(address, DirectionService.DEFAULT_RADIUS_KM,
+            DirectionService.DEFAULT_SEARCH_COUNT);
+    }
+
+    public CompletableFuture<List<OutputDto>> recommendPharmacyListAsync(String address, double radiusKm, int limit) {
+        return recommendAsync(address, radiusKm, limit).thenApply(RecommendationResultDto::getOutputDtoList);
+    }
+
+    public CompletableFuture<RecommendationResultDto> recommendAsync(String address, double radiusKm, int limit) {
+        if (!asyncEnabled) {
+            return CompletableFuture.completedFuture(recommend(address, radiusKm, limit));
+        }
+        return CompletableFuture.supplyAsync(withMdc(() -> recommend(address, radiusKm, limit)),
+            recommendationExecutor);
+    }
+
     public List<OutputDto> recommendPharmacyList(String address){
+        return recommendPharmacyList(address, DirectionService.DEFAULT_RADIUS_KM, DirectionService.DEFAULT_SEARCH_COUNT);
+    }
+
+    // radiusKm 이내의 약국을 최대 limit 개 추천
+    public List<OutputDto> recommendPharmacyList(String address, double radiusKm, int limit){
+        return recommend(address, radiusKm, limit).getOutputDtoList();
+    }
+
+    public List<OutputDto> recommendPharmacyListByByCategorySearchApi(String address){
+        return recommend(address, DirectionService.DEFAULT_RADIUS_KM, DirectionService.DEFAULT_SEARCH_COUNT,
+            RecommendationMode.CATEGORY).getOutputDtoList();
+    }
+
+    // 설정한 추천 방식(pharmacy.recommendation.mode)으로 추천하고, 결과를 만든 검색 방식을 함께 반환
+    public RecommendationResultDto recommend(String address, double radiusKm, int limit) {
+        return recommend(address, radiusKm, limit, mode);
+    }
+
+    private RecommendationResultDto recommend(String address, double radiusKm, int limit,
+        RecommendationMode recommendationMode) {
+        long startedAt = System.nanoTime();
+
         // 주소입력 -> 위치기반데이터(위도, 경도값)으로 변환
-        KakaoApiResponseDto kakaoApiResponseDto = kakaoAddressSearchService.requestAddressSearch(address);
+        KakaoApiResponseDto kakaoApiResponseDto = kakaoAddressSearchCacheService.requestAddressSearch(address);
 
         if(Objects.isNull(kakaoApiResponseDto) || Objects.isNull(kakaoApiResponseDto.getDocumentList()) || kakaoApiResponseDto.getDocumentList().isEmpty()) {
-            log.error("[PharmacyRecommendationService recommendPharmacyList fail] Input address: " + address);
-            return Collections.emptyList();
+            log.error("[PharmacyRecommendationService recommendPharmacyList fail] Input address: {}", address);
+            return RecommendationResultDto.empty();
         }
 
         DocumentDto documentDto = kakaoApiResponseDto.getDocumentList().get(0);
 
         // 위치기반데이터로 가까운 약국들을 찾는다.
-        List<Direction> directionList = directionService.buildDirectionList(documentDto);
+        SearchResult searchResult;
+        switch (recommendationMode) {
+            case CATEGORY:
+                searchResult = new SearchResult(
+                    directionService.buildDirectionListByCategoryApi(documentDto, radiusKm, limit),
+                    RecommendationSource.CATEGORY);
+                break;
+            case HEDGED:
+                searchResult = searchHedged(documentDto, radiusKm, limit);
+                break;
+            default:
+                searchResult = new SearchResult(directionService.buildDirectionList(documentDto, radiusKm, limit),
+                    RecommendationSource.LOCAL);
+        }
 
         // 저장 및 반환
-        return directionService.saveAll(directionList)
+        List<OutputDto> outputDtoList = directionService.saveAll(searchResult.directionList)
             .stream()
             .map(this::convertToOutputDto)
             .collect(Collectors.toList());
+        RecommendationSource source = outputDtoList.isEmpty() ? RecommendationSource.NONE : searchResult.source;
+
+        Timer.builder(RECOMMENDATION_METRIC_NAME)
+            .tag("mode", recommendationMode.name().toLowerCase(Locale.ROOT))
+            .tag("source", source.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry)
+            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        log.debug("[PharmacyRecommendationService recommend] mode: {}, source: {}, size: {}",
+            recommendationMode, source, outputDtoList.size());
+
+        return RecommendationResultDto.builder()
+            .outputDtoList(outputDtoList)
+            .source(source)
+            .build();
     }
 
-    public void recommendPharmacyListByByCategorySearchApi(String address){
-        // 주소입력 -> 위치기반데이터(위도, 경도값)으로 변환
-        KakaoApiResponseDto kakaoApiResponseDto = kakaoAddressSearchService.requestAddressSearch(address);
+    /**
+     * kakao 카테고리 검색을 별도 스레드에서 먼저 시작하고, 약국 데이터 검색은 현재 스레드에서 한다.
+     * 카테고리 검색은 마감 시간까지만 기다리며, 그때까지 완료된 결과를 합쳐서 가까운 순으로 limit 개를 고른다.
+     * 마감 시간은 카테고리 검색을 시작할 때부터 잰다. (주소 변환이 느려도 카테고리 검색이 기다릴 시간이 줄지 않도록)
+     * 마감 시간이 지나도 카테고리 검색은 취소하지 않는다. (완료되면 격자 캐시에 남아 다음 요청에서 사용)
+     */
+    private SearchResult searchHedged(DocumentDto documentDto, double radiusKm, int limit) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgedDeadlineMillis);
+        CompletableFuture<List<Direction>> categoryFuture = null;
+        try {
+            categoryFuture = CompletableFuture.supplyAsync(
+                withMdc(() -> directionService.buildDirectionListByCategoryApi(documentDto, radiusKm, limit)),
+                categorySearchExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("[PharmacyRecommendationService searchHedged] category search rejected");
+        }
 
-        if(Objects.isNull(kakaoApiResponseDto) || Objects.isNull(kakaoApiResponseDto.getDocumentList()) || kakaoApiResponseDto.getDocumentList().isEmpty()) {
-            log.error("[PharmacyRecommendationService recommendPharmacyList fail] Input address: " + address);
-            return;
+        List<Direction> localList = null;
+        try {
+            localList = directionService.buildDirectionList(documentDto, radiusKm, limit);
+        } catch (Exception e) {
+            log.error("[PharmacyRecommendationService searchHedged] local search error: {}", e.getMessage());
         }
 
-        DocumentDto documentDto = kakaoApiResponseDto.getDocumentList().get(0);
+        List<Direction> categoryList = null;
+        if (Objects.nonNull(categoryFuture)) {
+            long remainingNanos = deadline - System.nanoTime();
+            try {
+                categoryList = categoryFuture.get(Math.max(0L, remainingNanos), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.debug("[PharmacyRecommendationService searchHedged] category search deadline exceeded");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.error("[PharmacyRecommendationService searchHedged] category search error: {}",
+                    e.getCause().getMessage());
+            }
+        }
+
+        return merge(localList, categoryList, limit);
+    }
+
+    // 두 결과를 가까운 순으로 합친다. 같은 약국은 약국 데이터(local) 쪽을 사용한다.
+    static SearchResult merge(List<Direction> localList, List<Direction> categoryList, int limit) {
+        List<Direction> localDirections = Objects.isNull(localList) ? Collections.emptyList() : localList;
+        List<Direction> merged = new ArrayList<>(localDirections);
+        Set<Direction> categoryDirections = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (Objects.nonNull(categoryList)) {
+            for (Direction category : categoryList) {
+                if (localDirections.stream().noneMatch(local -> isSamePharmacy(local, category))) {
+                    merged.add(category);
+                    categoryDirections.add(category);
+                }
+            }
+        }
 
-        // 위치기반데이터로 가까운 약국들을 찾는다. (카카오 카테고리 검색 api 로)
-        List<Direction> directionList = directionService.buildDirectionListByCategoryApi(documentDto);
+        List<Direction> selected = merged.stream()
+            .sorted(Comparator.comparingDouble(Direction::getDistance))
+            .limit(limit)
+            .collect(Collectors.toList());
+
+        long categoryCount = selected.stream().filter(categoryDirections::contains).count();
+        RecommendationSource source = categoryCount == 0 ? RecommendationSource.LOCAL
+            : categoryCount == selected.size() ? RecommendationSource.CATEGORY
+            : RecommendationSource.MERGED;
+        return new SearchResult(selected, source);
+    }
+
+    private static boolean isSamePharmacy(Direction local, Direction category) {
+        return Objects.nonNull(local.getTargetPharmacyName())
+            && normalizeName(local.getTargetPharmacyName()).equals(normalizeName(category.getTargetPharmacyName()))
+            && GeoDistance.calculateDistance(local.getTargetLatitude(), local.getTargetLongitude(),
+                category.getTargetLatitude(), category.getTargetLongitude()) <= SAME_PHARMACY_DISTANCE_KM;
+    }
+
+    private static String normalizeName(String name) {
+        return Objects.isNull(name) ? "" : name.replaceAll("\\s+", "");
+    }
 
-        // 저장.
-        directionService.saveAll(directionList);
+    // 요청 스레드의 traceId 등을 다른 스레드에서도 로그에 남긴다.
+    private static <T> Supplier<T> withMdc(Supplier<T> supplier) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        return () -> {
+            if (Objects.nonNull(mdcContext)) {
+                MDC.setContextMap(mdcContext);
+            }
+            try {
+                return supplier.get();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
 
+    static class SearchResult {
+
+        private final List<Direction> directionList;
+        private final RecommendationSource source;
+
+        SearchResult(List<Direction> directionList, RecommendationSource source) {
+            this.directionList = directionList;
+            this.source = source;
+        }
+
+        List<Direction> getDirectionList() {
+            return directionList;
+        }
+
+        RecommendationSource getSource() {
+            return source;
+        }
     }
 
-    private OutputDto convertToOutputDto(Direction direction) {
+    public OutputDto convertToOutputDto(Direction direction) {
 
 //        String params = String.join(",", direction.getTargetPharmacyName(),
 //            String.valueOf(direction.getTargetLatitude()), String.valueOf(direction.getTargetLongitude()));
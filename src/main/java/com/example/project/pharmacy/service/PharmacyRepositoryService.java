@@ -2,11 +2,14 @@ package com.example.project.pharmacy.service;
 
 
 import com.example.project.pharmacy.entity.Pharmacy;
+import com.example.project.pharmacy.entity.PharmacyDto;
+import com.example.project.pharmacy.index.GeoBoundingBox;
 import com.example.project.pharmacy.repository.PharmacyRepository;
 import java.util.List;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
@@ -21,14 +24,14 @@ public class PharmacyRepositoryService {
     // self invocation test
 //    @Transactional
     public void bar(List<Pharmacy> pharmacyList) {
-        log.info("bar CurrentTransactionName: "+ TransactionSynchronizationManager.getCurrentTransactionName());
+        log.info("bar CurrentTransactionName: {}", TransactionSynchronizationManager.getCurrentTransactionName());
         foo(pharmacyList);
     }
 
     // self invocation test
     @Transactional
     public void foo(List<Pharmacy> pharmacyList) {
-        log.info("foo CurrentTransactionName: "+ TransactionSynchronizationManager.getCurrentTransactionName());
+        log.info("foo CurrentTransactionName: {}", TransactionSynchronizationManager.getCurrentTransactionName());
         pharmacyList.forEach(pharmacy -> {
             pharmacyRepository.save(pharmacy);
             throw new RuntimeException("error"); // 예외 발생
@@ -48,6 +51,18 @@ public class PharmacyRepositoryService {
         return pharmacyRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<PharmacyDto> findAllInBoundingBox(GeoBoundingBox boundingBox) {
+        return pharmacyRepository.findAllInBoundingBox(
+            boundingBox.getMinLatitude(), boundingBox.getMaxLatitude(),
+            boundingBox.getMinLongitude(), boundingBox.getMaxLongitude());
+    }
+
+    @Transactional(readOnly = true)
+    public List<PharmacyDto> findPageAfter(long lastId, int size) {
+        return pharmacyRepository.findAllByIdGreaterThan(lastId, PageRequest.of(0, size));
+    }
+
     @Transactional
     public void updateAddress(Long id, String address){
         Pharmacy entity = pharmacyRepository.findById(id).orElse(null);
@@ -1,12 +1,24 @@
 package com.example.project.pharmacy.service;
 
 import com.example.project.pharmacy.cache.PharmacyRedisTemplateService;
+import com.example.project.pharmacy.cache.PharmacySnapshot;
+import com.example.project.pharmacy.entity.NearbyPharmacyDto;
 import com.example.project.pharmacy.entity.Pharmacy;
 import com.example.project.pharmacy.entity.PharmacyDto;
+import com.example.project.pharmacy.event.PharmacyDataChangedEvent;
+import com.example.project.pharmacy.index.GeoBoundingBox;
+import com.example.project.pharmacy.index.GeoDistance;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -16,19 +28,128 @@ public class PharmacySearchService {
 
     private final PharmacyRepositoryService pharmacyRepositoryService;
     private final PharmacyRedisTemplateService pharmacyRedisTemplateService;
+    private final MeterRegistry meterRegistry;
+
+    private static final String LOAD_METRIC_NAME = "pharmacy.load";
+
+    // Redis 버전 값을 확인하는 최소 간격. 이 간격 안에서는 메모리의 스냅샷을 그대로 사용한다.
+    @Value("${pharmacy.search.snapshot.version-check-interval-millis:1000}")
+    private long versionCheckIntervalMillis;
+
+    private final Object snapshotLock = new Object();
+    private final AtomicLong dataChangedCount = new AtomicLong();
+    private volatile PharmacySnapshot snapshot;
+    private volatile long nextVersionCheckAt;
+
+    /**
+     * 메모리에 보관한 약국 데이터 스냅샷을 반환한다.
+     * Redis 의 약국 데이터 버전이 바뀐 경우에만 다시 조회한다.
+     */
+    public PharmacySnapshot getSnapshot() {
+        PharmacySnapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() < nextVersionCheckAt) {
+            return current;
+        }
+
+        synchronized (snapshotLock) {
+            current = snapshot;
+            if (current != null && System.currentTimeMillis() < nextVersionCheckAt) {
+                return current;
+            }
+
+            // 조회 도중 변경 이벤트를 받으면 다음 요청에서 바로 버전을 다시 확인해야 한다.
+            long changedCount = dataChangedCount.get();
+
+            // 데이터를 조회하기 전에 버전을 읽어야, 조회 도중 변경된 데이터를 다음 확인 때 반영할 수 있다.
+            long version = pharmacyRedisTemplateService.getVersion();
+            if (current == null || current.getVersion() != version) {
+                current = PharmacySnapshot.of(version, searchPharmacyDtoList());
+                log.info("[PharmacySearchService] snapshot loaded. version: {}, size: {}", version, current.size());
+                snapshot = current;
+            }
+
+            // 다음 확인 시각은 조회가 끝난 뒤의 시각을 기준으로 하고, 그 사이 변경 이벤트의 초기화를 덮어쓰지 않는다.
+            nextVersionCheckAt = System.currentTimeMillis() + versionCheckIntervalMillis;
+            if (dataChangedCount.get() != changedCount) {
+                nextVersionCheckAt = 0;
+            }
+            return current;
+        }
+    }
+
+    // 메모리에 보관 중인 스냅샷의 약국 수 (스냅샷을 새로 조회하지 않는다.)
+    public int getSnapshotSize() {
+        PharmacySnapshot current = snapshot;
+        return current == null ? 0 : current.size();
+    }
+
+    @EventListener
+    public void onPharmacyDataChanged(PharmacyDataChangedEvent event) {
+        if (event.hasDelta()) {
+            synchronized (snapshotLock) {
+                // 바로 이전 버전의 스냅샷이 있으면 변경된 약국만 반영한다.
+                PharmacySnapshot current = snapshot;
+                if (current != null && current.getVersion() + 1 == event.getVersion()) {
+                    snapshot = current.withChanges(event.getVersion(),
+                        event.getUpsertedPharmacyList(), event.getRemovedIds());
+                    log.debug("[PharmacySearchService] snapshot changes applied. version: {}, upserted: {}, removed: {}",
+                        event.getVersion(), event.getUpsertedPharmacyList().size(), event.getRemovedIds().size());
+                    return;
+                }
+            }
+        }
+
+        // 다음 조회 때 바로 버전을 확인하도록 한다.
+        dataChangedCount.incrementAndGet();
+        nextVersionCheckAt = 0;
+    }
+
     public List<PharmacyDto> searchPharmacyDtoList(){
         // redis
+        Timer.Sample sample = Timer.start(meterRegistry);
         List<PharmacyDto> pharmacyList = pharmacyRedisTemplateService.findAll();
         if(!pharmacyList.isEmpty()) {
-            log.info("redis findAll success!");
+            sample.stop(loadTimer("redis"));
+            log.debug("redis findAll success!");
             return pharmacyList;
         }
 
-        // db
-        return pharmacyRepositoryService.findAll()
+        // db (redis 조회 시간 포함)
+        List<PharmacyDto> dbPharmacyList = pharmacyRepositoryService.findAll()
             .stream()
             .map(this::convertToPharmacyDto)
             .collect(Collectors.toList());
+        sample.stop(loadTimer("db"));
+        return dbPharmacyList;
+    }
+
+    private Timer loadTimer(String source) {
+        return Timer.builder(LOAD_METRIC_NAME)
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    public List<NearbyPharmacyDto> searchNearby(double latitude, double longitude, double radiusKm, int limit) {
+        // redis geo
+        List<NearbyPharmacyDto> nearbyList = pharmacyRedisTemplateService.findNearby(latitude, longitude, radiusKm, limit);
+        if (!nearbyList.isEmpty()) {
+            return nearbyList;
+        }
+
+        // geo 데이터가 있는데 결과가 없다면 반경 이내에 약국이 없는 경우
+        if (pharmacyRedisTemplateService.hasGeoIndex()) {
+            return Collections.emptyList();
+        }
+
+        // db (반경을 포함하는 영역 안의 약국만 조회)
+        return pharmacyRepositoryService.findAllInBoundingBox(GeoBoundingBox.of(latitude, longitude, radiusKm))
+            .stream()
+            .map(pharmacyDto -> new NearbyPharmacyDto(pharmacyDto,
+                GeoDistance.calculateDistance(latitude, longitude, pharmacyDto.getLatitude(), pharmacyDto.getLongitude())))
+            .filter(nearbyPharmacyDto -> nearbyPharmacyDto.getDistance() <= radiusKm)
+            .sorted(Comparator.comparingDouble(NearbyPharmacyDto::getDistance))
+            .limit(limit)
+            .collect(Collectors.toList());
     }
 
     private PharmacyDto convertToPharmacyDto(Pharmacy pharmacy){
@@ -0,0 +1,17 @@
+package com.example.project.pharmacy.service;
+
+/**
+ * 약국 추천 방식.
+ * pharmacy.recommendation.mode 값으로 선택한다. (local, category, hedged)
+ */
+public enum RecommendationMode {
+
+    // 약국 데이터(pharmacy.search.strategy)로 검색
+    LOCAL,
+
+    // kakao 카테고리 검색 api
+    CATEGORY,
+
+    // LOCAL 과 CATEGORY 를 함께 시작하여, 마감 시간(deadline-millis)까지 완료된 결과를 합친다.
+    HEDGED
+}
@@ -0,0 +1,17 @@
+package com.example.project.pharmacy.service;
+
+/**
+ * 추천 결과를 만든 검색 방식.
+ */
+public enum RecommendationSource {
+
+    LOCAL,
+
+    CATEGORY,
+
+    // LOCAL, CATEGORY 결과가 모두 포함된 경우
+    MERGED,
+
+    // 결과 없음 (주소 변환 실패, 검색 실패)
+    NONE
+}
@@ -0,0 +1,64 @@
+package com.example.project.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key 로 동시에 들어온 요청은 먼저 들어온 요청의 결과를 함께 사용한다. (single flight)
+ * 결과는 보관하지 않으므로, 처리가 끝난 뒤 들어온 요청은 다시 처리한다.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    // 직접 처리하지 않고 다른 요청의 결과를 기다린 횟수
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCount.increment();
+            return join(existing);
+        }
+
+        try {
+            V value = supplier.get();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Error 도 전달해야 기다리는 요청이 끝나지 않고 멈춰 있지 않는다.
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 먼저 처리한 요청과 같은 예외를 던진다.
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.project.admin
+
+import com.example.project.direction.dto.BatchOutputDto
+import com.example.project.direction.dto.OutputDto
+import com.example.project.pharmacy.service.PharmacyBatchRecommendationService
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.http.MediaType
+import org.springframework.test.util.ReflectionTestUtils
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.setup.MockMvcBuilders
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.function.Consumer
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+
+class BatchRecommendationEndpointTest extends Specification {
+
+    private MockMvc mockMvc
+    private PharmacyBatchRecommendationService pharmacyBatchRecommendationService = Mock()
+    private ObjectMapper objectMapper = new ObjectMapper()
+
+    def setup() {
+        def endpoint = new BatchRecommendationEndpoint(pharmacyBatchRecommendationService, objectMapper)
+        ReflectionTestUtils.setField(endpoint, "maxSize", 2)
+        mockMvc = MockMvcBuilders.standaloneSetup(endpoint).build()
+    }
+
+    def "POST /actuator/recommendations - 결과를 한 줄에 하나씩 응답한다"() {
+        given:
+        def addressList = ["서울 성북구 종암동", "서울 성북구 석관동"]
+        pharmacyBatchRecommendationService.recommendPharmacyList(addressList, _ as Consumer) >> { List<String> list, Consumer consumer ->
+            list.eachWithIndex { address, i ->
+                consumer.accept(BatchOutputDto.builder()
+                        .index(i)
+                        .address(address)
+                        .success(true)
+                        .outputDtoList([OutputDto.builder().pharmacyName("pharmacy" + i).build()])
+                        .build())
+            }
+        }
+
+        when:
+        def result = mockMvc.perform(post("/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString([addressList: addressList])))
+
+        then:
+        result.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        def lines = result.andReturn().response.getContentAsString(StandardCharsets.UTF_8).readLines()
+        lines.size() == 2
+        lines.collect { objectMapper.readValue(it, Map).address } == addressList
+        objectMapper.readValue(lines[1], Map).outputDtoList[0].pharmacyName == "pharmacy1"
+    }
+
+    def "POST /actuator/recommendations - 주소 목록이 비어 있거나 최대 개수를 넘으면 400"() {
+        expect:
+        mockMvc.perform(post("/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString([addressList: addressList])))
+                .andExpect(status().isBadRequest())
+
+        where:
+        addressList << [[], ["a", "b", "c"]]
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.project.admin
+
+import com.example.project.direction.dto.DirectionRetentionResultDto
+import com.example.project.direction.service.DirectionRetentionService
+import spock.lang.Specification
+
+class DirectionRetentionEndpointTest extends Specification {
+
+    private DirectionRetentionService directionRetentionService = Mock()
+
+    private DirectionRetentionEndpoint directionRetentionEndpoint = new DirectionRetentionEndpoint(directionRetentionService)
+
+    def "purgeExpiredDirections - 스케줄 실행과 같은 정리 작업을 실행한다"() {
+        given:
+        def expected = DirectionRetentionResultDto.builder().success(true).deletedCount(3).build()
+
+        when:
+        def result = directionRetentionEndpoint.purgeExpiredDirections()
+
+        then:
+        1 * directionRetentionService.purge() >> expected
+        result == expected
+    }
+}
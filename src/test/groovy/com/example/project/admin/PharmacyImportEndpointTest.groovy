@@ -0,0 +1,30 @@
+package com.example.project.admin
+
+import com.example.project.pharmacy.entity.PharmacyImportResultDto
+import com.example.project.pharmacy.service.PharmacyImportService
+import spock.lang.Specification
+
+class PharmacyImportEndpointTest extends Specification {
+
+    private PharmacyImportService pharmacyImportService = Mock()
+
+    private PharmacyImportEndpoint pharmacyImportEndpoint = new PharmacyImportEndpoint(pharmacyImportService)
+
+    def "importPharmacy - resume 을 지정하지 않으면 처음부터 반영한다"() {
+        given:
+        def expected = PharmacyImportResultDto.builder().success(true).build()
+
+        when:
+        def result = pharmacyImportEndpoint.importPharmacy("pharmacy.csv", resume)
+
+        then:
+        1 * pharmacyImportService.importFile("pharmacy.csv", expectedResume) >> expected
+        result == expected
+
+        where:
+        resume | expectedResume
+        null   | false
+        false  | false
+        true   | true
+    }
+}
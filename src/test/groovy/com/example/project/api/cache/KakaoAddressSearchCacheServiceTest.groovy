@@ -0,0 +1,84 @@
+package com.example.project.api.cache
+
+import com.example.project.AbstractIntegrationContainerBaseTest
+import com.example.project.api.dto.DocumentDto
+import com.example.project.api.dto.KakaoApiResponseDto
+import com.example.project.api.dto.MetaDto
+import com.example.project.api.service.KakaoAddressSearchService
+import org.spockframework.spring.SpringBean
+import org.springframework.beans.factory.annotation.Autowired
+
+class KakaoAddressSearchCacheServiceTest extends AbstractIntegrationContainerBaseTest {
+
+    @Autowired
+    private KakaoAddressSearchCacheService kakaoAddressSearchCacheService
+
+    @SpringBean
+    private KakaoAddressSearchService kakaoAddressSearchService = Mock()
+
+    def "같은 주소는 kakao api를 한번만 호출한다"() {
+        given:
+        def address = "서울 성북구 종암로 10길 " + UUID.randomUUID()
+        def documentDto = DocumentDto.builder()
+                .addressName(address)
+                .latitude(37.59)
+                .longitude(127.03)
+                .build()
+        def response = new KakaoApiResponseDto(new MetaDto(1), [documentDto])
+        def missCount = kakaoAddressSearchCacheService.getMissCount()
+
+        when:
+        def first = kakaoAddressSearchCacheService.requestAddressSearch(address)
+        def second = kakaoAddressSearchCacheService.requestAddressSearch("  " + address.replace(" ", "   "))
+
+        then:
+        1 * kakaoAddressSearchService.requestAddressSearch(address) >> response
+        first.documentList.get(0).latitude == 37.59
+        second.documentList.get(0).latitude == 37.59
+        kakaoAddressSearchCacheService.getMissCount() == missCount + 1
+    }
+
+    def "kakao api 에는 정규화하지 않은 입력 주소를 보낸다"() {
+        given:
+        def address = "  Seoul Seongbuk-gu  Jongam-ro " + UUID.randomUUID()
+        def response = new KakaoApiResponseDto(new MetaDto(1),
+                [DocumentDto.builder().addressName(address).latitude(37.59).longitude(127.03).build()])
+
+        when:
+        def first = kakaoAddressSearchCacheService.requestAddressSearch(address)
+        def second = kakaoAddressSearchCacheService.requestAddressSearch(address.trim().toLowerCase())
+
+        then:
+        1 * kakaoAddressSearchService.requestAddressSearch(address) >> response
+        0 * kakaoAddressSearchService.requestAddressSearch(_)
+        first.documentList.get(0).latitude == 37.59
+        second.documentList.get(0).latitude == 37.59
+    }
+
+    def "검색 결과가 없는 주소도 캐시한다"() {
+        given:
+        def address = "서울 성북구 종암동 잘못된 주소 " + UUID.randomUUID()
+        def emptyResponse = new KakaoApiResponseDto(new MetaDto(0), [])
+
+        when:
+        kakaoAddressSearchCacheService.requestAddressSearch(address)
+        def result = kakaoAddressSearchCacheService.requestAddressSearch(address)
+
+        then:
+        1 * kakaoAddressSearchService.requestAddressSearch(_) >> emptyResponse
+        result.documentList.isEmpty()
+    }
+
+    def "kakao api 호출에 실패한 경우는 캐시하지 않는다"() {
+        given:
+        def address = "광진구 구의동 251-45 " + UUID.randomUUID()
+
+        when:
+        kakaoAddressSearchCacheService.requestAddressSearch(address)
+        def result = kakaoAddressSearchCacheService.requestAddressSearch(address)
+
+        then:
+        2 * kakaoAddressSearchService.requestAddressSearch(_) >> null
+        result == null
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.project.api.cache
+
+import com.example.project.api.dto.DocumentDto
+import com.example.project.api.dto.KakaoApiResponseDto
+import com.example.project.api.dto.MetaDto
+import com.example.project.api.service.KakaoCategorySearchService
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.data.redis.core.RedisTemplate
+import org.springframework.data.redis.core.ValueOperations
+import org.springframework.test.util.ReflectionTestUtils
+import spock.lang.Specification
+
+import java.time.Duration
+
+class KakaoCategorySearchCacheServiceTest extends Specification {
+
+    private KakaoCategorySearchService kakaoCategorySearchService = Mock()
+    private RedisTemplate<String, Object> redisTemplate = Mock()
+    private ValueOperations<String, Object> valueOperations = Mock()
+    private ObjectMapper objectMapper = new ObjectMapper()
+
+    private KakaoCategorySearchCacheService kakaoCategorySearchCacheService
+
+    // 같은 geohash 6자리 격자 안의 두 지점
+    private static final double LATITUDE = 37.5960650456809
+    private static final double LONGITUDE = 127.037033003036
+
+    def setup() {
+        redisTemplate.opsForValue() >> valueOperations
+        kakaoCategorySearchCacheService = new KakaoCategorySearchCacheService(kakaoCategorySearchService,
+                redisTemplate, objectMapper, new SimpleMeterRegistry())
+        ReflectionTestUtils.setField(kakaoCategorySearchCacheService, "localMaximumSize", 100L)
+        ReflectionTestUtils.setField(kakaoCategorySearchCacheService, "localExpireAfterWrite", Duration.ofMinutes(1))
+        ReflectionTestUtils.setField(kakaoCategorySearchCacheService, "redisTtl", Duration.ofDays(1))
+        kakaoCategorySearchCacheService.init()
+    }
+
+    private static DocumentDto pharmacy(String name, double latitude, double longitude) {
+        return DocumentDto.builder()
+                .placeName(name)
+                .addressName(name + " 주소")
+                .latitude(latitude)
+                .longitude(longitude)
+                .build()
+    }
+
+    def "searchNearestPharmacies - 같은 격자의 요청은 kakao api 를 한 번만 호출하고, 입력 좌표 기준으로 다시 정렬한다"() {
+        given:
+        def near = pharmacy("가까운약국", LATITUDE + 0.001, LONGITUDE)
+        def far = pharmacy("먼약국", LATITUDE + 0.02, LONGITUDE)
+        def other = pharmacy("다른약국", LATITUDE, LONGITUDE + 0.004)
+
+        when:
+        def first = kakaoCategorySearchCacheService.searchNearestPharmacies(LATITUDE, LONGITUDE, 10.0, 2)
+        def second = kakaoCategorySearchCacheService.searchNearestPharmacies(LATITUDE, LONGITUDE + 0.003, 10.0, 2)
+
+        then:
+        1 * kakaoCategorySearchService.requestPharmacyCategorySearch(_, _, { it > 10.0 }, 1) >>
+                new KakaoApiResponseDto(new MetaDto(3), [far, other, near])
+        1 * valueOperations.set({ it.startsWith("CATEGORY_SEARCH:PM9:") }, _ as String, Duration.ofDays(1))
+
+        and:
+        first*.placeName == ["가까운약국", "다른약국"]
+        first[0].distance < 200
+        second*.placeName == ["다른약국", "가까운약국"]
+        kakaoCategorySearchCacheService.getHitRatio() == 0.5d
+    }
+
+    def "searchNearestPharmacies - Redis 에 격자 후보가 있으면 kakao api 를 호출하지 않는다"() {
+        given:
+        def tile = '{"coverageKm":10.5,"documentList":[{"place_name":"약국","address_name":"주소","y":37.597,"x":127.037}]}'
+
+        when:
+        def result = kakaoCategorySearchCacheService.searchNearestPharmacies(LATITUDE, LONGITUDE, 10.0, 3)
+
+        then:
+        1 * valueOperations.get(_) >> tile
+        0 * kakaoCategorySearchService._
+        result*.placeName == ["약국"]
+    }
+
+    def "searchNearestPharmacies - 후보가 잘려서 순서를 보장할 수 없으면 입력 좌표로 검색하여 합친다"() {
+        given:
+        // 격자 중심 기준으로 한 페이지(15개)가 모두 0.2km 안에 있고, 전체는 더 많은 경우
+        def page = (1..15).collect { pharmacy("약국" + it, LATITUDE + 0.0001 * it, LONGITUDE) }
+        def exact = pharmacy("입력좌표근처약국", LATITUDE, LONGITUDE + 0.0001)
+        ReflectionTestUtils.setField(kakaoCategorySearchCacheService, "maxPages", 1)
+
+        when:
+        def result = kakaoCategorySearchCacheService.searchNearestPharmacies(LATITUDE, LONGITUDE, 10.0, 3)
+
+        then:
+        1 * kakaoCategorySearchService.requestPharmacyCategorySearch(_, _, { it > 10.0 }, 1) >>
+                new KakaoApiResponseDto(new MetaDto(100), page)
+        1 * kakaoCategorySearchService.requestPharmacyCategorySearch(LATITUDE, LONGITUDE, 10.0, 1) >>
+                new KakaoApiResponseDto(new MetaDto(100), [exact])
+
+        and:
+        result.size() == 3
+        result[0].placeName == "입력좌표근처약국"
+        kakaoCategorySearchCacheService.getFallbackCount() == 1
+    }
+
+    def "searchNearestPharmacies - kakao api 호출에 실패하면 캐시하지 않고 빈 목록을 반환한다"() {
+        when:
+        def result = kakaoCategorySearchCacheService.searchNearestPharmacies(LATITUDE, LONGITUDE, 10.0, 3)
+
+        then:
+        2 * kakaoCategorySearchService.requestPharmacyCategorySearch(*_) >> { throw new RuntimeException("timeout") }
+        0 * valueOperations.set(*_)
+        result.isEmpty()
+    }
+}
@@ -5,6 +5,7 @@ import com.example.project.api.dto.DocumentDto
 import com.example.project.api.dto.KakaoApiResponseDto
 import com.example.project.api.dto.MetaDto
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry
 import okhttp3.mockwebserver.MockResponse
 import okhttp3.mockwebserver.MockWebServer
 import org.spockframework.spring.SpringBean
@@ -17,6 +18,9 @@ class KakaoAddressSearchServiceRetryTest extends AbstractIntegrationContainerBas
     @Autowired
     private KakaoAddressSearchService kakaoAddressSearchService
 
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry
+
     @SpringBean
     private KakaoUriBuilderService kakaoUriBuilderService = Mock()
 
@@ -80,4 +84,22 @@ class KakaoAddressSearchServiceRetryTest extends AbstractIntegrationContainerBas
         2 * kakaoUriBuilderService.buildUriByAddressSearch(inputAddress) >> uri
         result == null
     }
-}
\ No newline at end of file
+
+    def "requestAddressSearch circuit breaker 가 열려 있으면 호출하지 않고 바로 null 을 반환한다"() {
+        given:
+        def uri = mockWebServer.url("/").uri()
+        def circuitBreaker = circuitBreakerRegistry.circuitBreaker(KakaoApiClient.Endpoint.ADDRESS_SEARCH.name)
+        circuitBreaker.transitionToOpenState()
+
+        when:
+        def result = kakaoAddressSearchService.requestAddressSearch(inputAddress)
+
+        then:
+        1 * kakaoUriBuilderService.buildUriByAddressSearch(inputAddress) >> uri
+        mockWebServer.requestCount == 0
+        result == null
+
+        cleanup:
+        circuitBreaker.reset()
+    }
+}
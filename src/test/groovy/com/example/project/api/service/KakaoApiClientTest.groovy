@@ -0,0 +1,80 @@
+package com.example.project.api.service
+
+import com.example.project.api.dto.KakaoApiResponseDto
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpStatus
+import org.springframework.http.ResponseEntity
+import org.springframework.web.client.HttpClientErrorException
+import org.springframework.web.client.HttpServerErrorException
+import org.springframework.web.client.RestTemplate
+import spock.lang.Specification
+
+class KakaoApiClientTest extends Specification {
+
+    private RestTemplate restTemplate = Mock()
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    private CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .recordException(e -> !(e instanceof HttpClientErrorException))
+            .build())
+
+    private KakaoApiClient kakaoApiClient
+    private URI uri = URI.create("http://localhost/v2/local/search/address.json")
+
+    def setup() {
+        kakaoApiClient = new KakaoApiClient(restTemplate, circuitBreakerRegistry, meterRegistry)
+    }
+
+    def "get - 호출 시간을 api 와 결과별로 기록한다"() {
+        given:
+        def response = new KakaoApiResponseDto()
+        restTemplate.exchange(uri, HttpMethod.GET, _ as HttpEntity, KakaoApiResponseDto.class) >> ResponseEntity.ok(response)
+
+        when:
+        def result = kakaoApiClient.get(KakaoApiClient.Endpoint.ADDRESS_SEARCH, uri)
+
+        then:
+        result == response
+        meterRegistry.get("kakao.api.requests")
+                .tag("endpoint", "address-search")
+                .tag("outcome", "success")
+                .timer().count() == 1
+    }
+
+    def "get - 장애가 계속되면 circuit breaker 가 열려 호출하지 않고 바로 실패한다"() {
+        when:
+        2.times {
+            try {
+                kakaoApiClient.get(KakaoApiClient.Endpoint.ADDRESS_SEARCH, uri)
+            } catch (HttpServerErrorException ignored) {
+            }
+        }
+        kakaoApiClient.get(KakaoApiClient.Endpoint.ADDRESS_SEARCH, uri)
+
+        then:
+        2 * restTemplate.exchange(*_) >> { throw new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT) }
+        thrown(CallNotPermittedException)
+        meterRegistry.get("kakao.api.requests").tag("outcome", "rejected").timer().count() == 1
+    }
+
+    def "get - 4xx 응답은 장애로 보지 않는다"() {
+        when:
+        3.times {
+            try {
+                kakaoApiClient.get(KakaoApiClient.Endpoint.CATEGORY_SEARCH, uri)
+            } catch (HttpClientErrorException ignored) {
+            }
+        }
+
+        then:
+        3 * restTemplate.exchange(*_) >> { throw new HttpClientErrorException(HttpStatus.BAD_REQUEST) }
+        circuitBreakerRegistry.circuitBreaker("category-search").state.name() == "CLOSED"
+    }
+}
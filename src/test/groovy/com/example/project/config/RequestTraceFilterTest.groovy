@@ -0,0 +1,37 @@
+package com.example.project.config
+
+import javax.servlet.FilterChain
+import org.slf4j.MDC
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+
+class RequestTraceFilterTest extends Specification {
+
+    private RequestTraceFilter requestTraceFilter = new RequestTraceFilter()
+
+    def "요청 처리 중에만 traceId 를 MDC 에 넣고, sample-rate 에 따라 추적 대상으로 표시"() {
+        given:
+        requestTraceFilter.sampleRate = sampleRate
+        def traceId = null
+        def sampled = null
+        FilterChain filterChain = { request, response ->
+            traceId = MDC.get(RequestTraceFilter.TRACE_ID_KEY)
+            sampled = MDC.get(RequestTraceFilter.SAMPLED_KEY)
+        }
+
+        when:
+        requestTraceFilter.doFilter(new MockHttpServletRequest("GET", "/search"), new MockHttpServletResponse(), filterChain)
+
+        then:
+        traceId != null
+        sampled == expectedSampled
+        MDC.get(RequestTraceFilter.TRACE_ID_KEY) == null
+        MDC.get(RequestTraceFilter.SAMPLED_KEY) == null
+
+        where:
+        sampleRate | expectedSampled
+        0.0        | null
+        1.0        | "true"
+    }
+}
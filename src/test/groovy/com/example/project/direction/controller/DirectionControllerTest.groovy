@@ -16,8 +16,7 @@ class DirectionControllerTest extends Specification {
     private DirectionService directionService = Mock()
 
     def setup() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new DirectionController(directionService))
-                .build()
+        mockMvc = MockMvcBuilders.standaloneSetup(new DirectionController(directionService)).build()
     }
 
     def "GET /dir/{encodedId}"() {
@@ -36,4 +35,15 @@ class DirectionControllerTest extends Specification {
                 .andDo(print())
     }
 
-}
\ No newline at end of file
+    def "GET /dir/{encodedId} - 존재하지 않는 길안내 링크는 404"() {
+        given:
+        String encodedId = "unknown"
+
+        when:
+        directionService.findDirectionUrlById(encodedId) >> null
+        def result = mockMvc.perform(MockMvcRequestBuilders.get("/dir/{encodedId}", encodedId))
+
+        then:
+        result.andExpect(status().isNotFound())
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.project.direction.controller
 
 import com.example.project.direction.dto.OutputDto
+import com.example.project.direction.dto.RecommendationResultDto
 import com.example.project.pharmacy.service.PharmacyRecommendationService
+import com.example.project.pharmacy.service.RecommendationSource
 import org.springframework.test.web.servlet.MockMvc
 import org.springframework.test.web.servlet.setup.MockMvcBuilders
 import spock.lang.Specification
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.RejectedExecutionException
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log
@@ -20,7 +26,11 @@ class FormControllerTest extends Specification {
 
     def setup() {
         // FormController MockMvc 객체로 만든다.
-        mockMvc= MockMvcBuilders.standaloneSetup(new FormController(pharmacyRecommendationService))
+        def formController = new FormController(pharmacyRecommendationService)
+        formController.maxRadiusKm = 20.0
+        formController.maxLimit = 10
+        mockMvc= MockMvcBuilders.standaloneSetup(formController)
+                .addInterceptors(new RecommendationSourceHeaderInterceptor())
                 .build()
 
         outputDtoList = new ArrayList<>()
@@ -34,6 +44,13 @@ class FormControllerTest extends Specification {
         )
     }
 
+    private RecommendationResultDto result(RecommendationSource source) {
+        return RecommendationResultDto.builder()
+                .outputDtoList(outputDtoList)
+                .source(source)
+                .build()
+    }
+
     def "GET /"() {
         expect:
         // FormController 의 "/" URI를 get방식으로 호출
@@ -51,19 +68,88 @@ class FormControllerTest extends Specification {
         String inputAddress = "서울 성북구 종암동"
 
         when:
-        def resultActions = mockMvc.perform(post("/search")
+        def mvcResult = mockMvc.perform(post("/search")
                 .param("address", inputAddress))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+        def resultActions = mockMvc.perform(asyncDispatch(mvcResult))
 
         then:
-        1 * pharmacyRecommendationService.recommendPharmacyList(argument -> {
-            assert argument == inputAddress // mock 객체의 argument 검증
-        }) >> outputDtoList
+        // 반경, 약국 수가 없으면 기본값 (10km, 3개)
+        1 * pharmacyRecommendationService.recommendAsync(inputAddress, 10.0, 3) >>
+                CompletableFuture.completedFuture(result(RecommendationSource.MERGED))
 
         resultActions
                 .andExpect(status().isOk())
                 .andExpect(view().name("output"))
                 .andExpect(model().attributeExists("outputFormList")) // model에 outputFormList라는 key가 존재하는지 확인
                 .andExpect(model().attribute("outputFormList", outputDtoList))
+                .andExpect(model().attribute("source", "merged"))
+                .andExpect(header().string(FormController.RECOMMENDATION_SOURCE_HEADER, "merged"))
                 .andDo(print())
     }
+
+    def "POST /search - 처리할 수 있는 요청 수를 넘으면 503"() {
+        given:
+        pharmacyRecommendationService.recommendAsync(*_) >> { throw new RejectedExecutionException() }
+
+        when:
+        def mvcResult = mockMvc.perform(post("/search")
+                .param("address", "서울 성북구 종암동"))
+                .andReturn()
+
+        then:
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable())
+    }
+
+    def "POST /search - 시간 안에 추천이 끝나지 않으면 추천을 취소하고 503"() {
+        given:
+        def future = new CompletableFuture<RecommendationResultDto>()
+        pharmacyRecommendationService.recommendAsync(*_) >> future
+
+        when:
+        def mvcResult = mockMvc.perform(post("/search")
+                .param("address", "서울 성북구 종암동"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+        mvcResult.getRequest().getAsyncContext().getListeners().each { it.onTimeout(null) }
+
+        then:
+        future.isCancelled()
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist(FormController.RECOMMENDATION_SOURCE_HEADER))
+    }
+
+    def "POST /search - 검색 반경, 약국 수를 요청으로 받는다"() {
+        when:
+        def mvcResult = mockMvc.perform(post("/search")
+                .param("address", "서울 성북구 종암동")
+                .param("radiusKm", "5")
+                .param("limit", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+        mockMvc.perform(asyncDispatch(mvcResult))
+
+        then:
+        1 * pharmacyRecommendationService.recommendAsync("서울 성북구 종암동", 5.0, 5) >>
+                CompletableFuture.completedFuture(result(RecommendationSource.LOCAL))
+    }
+
+    def "POST /search - 허용 범위를 벗어난 검색 반경, 약국 수는 400"() {
+        expect:
+        mockMvc.perform(post("/search")
+                .param("address", "서울 성북구 종암동")
+                .param("radiusKm", radiusKm)
+                .param("limit", limit))
+                .andExpect(status().isBadRequest())
+
+        where:
+        radiusKm | limit
+        "0"      | "3"
+        "100"    | "3"
+        "10"     | "0"
+        "10"     | "100"
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.project.direction.service
 
+import org.springframework.test.util.ReflectionTestUtils
 import spock.lang.Specification
 
 class Base62ServiceTest extends Specification {
@@ -22,4 +23,72 @@ class Base62ServiceTest extends Specification {
         then:
         num == decodedId
     }
+
+    def "encodeDirectionId - 새 형식은 '0' 으로 시작한다"() {
+        expect:
+        base62Service.encodeDirectionId(id) == encodedId
+        base62Service.decodeDirectionId(encodedId) == id
+
+        where:
+        id      | encodedId
+        0L      | "00"
+        5L      | "0A"
+        61L     | "01y"
+        12345L  | "06QE"
+    }
+
+    def "decodeDirectionId - 기존 형식으로 발급된 링크도 디코딩한다"() {
+        given:
+        def legacyEncodedId = base62Service.encodeLegacyDirectionId(id)
+
+        expect:
+        !legacyEncodedId.startsWith("0")
+        base62Service.decodeDirectionId(legacyEncodedId) == id
+
+        where:
+        id << [1L, 5L, 100L, 9999999L]
+    }
+
+    def "encodeDirectionId - 큰 id 도 round trip 된다"() {
+        expect:
+        base62Service.decodeDirectionId(base62Service.encodeDirectionId(id)) == id
+
+        where:
+        id << [Integer.MAX_VALUE as long, 1_000_000_000_000L, (1L << 62) - 1]
+    }
+
+    def "encodeDirectionId - 난독화가 켜져 있으면 순차 id 가 드러나지 않고, 이전 링크도 디코딩한다"() {
+        given:
+        def plainEncodedId = base62Service.encodeDirectionId(3L)
+        ReflectionTestUtils.setField(base62Service, "obfuscationEnabled", true)
+        ReflectionTestUtils.setField(base62Service, "obfuscationKey", 987654321L)
+
+        when:
+        def encodedIds = (1L..3L).collect { base62Service.encodeDirectionId(it) }
+
+        then:
+        encodedIds.every { it.startsWith("0") }
+        encodedIds.unique(false).size() == 3
+        encodedIds.collect { base62Service.decodeDirectionId(it) } == [1L, 2L, 3L]
+        base62Service.decodeDirectionId(plainEncodedId) == 3L
+    }
+
+    def "decodeDirectionId - 잘못된 값이면 IllegalArgumentException"() {
+        when:
+        base62Service.decodeDirectionId(encodedId)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        encodedId << ["0!", "0zzzzzzzzzzz", "0" + "1" * 20]
+    }
+
+    def "encodeDirectionId - 음수 id 는 IllegalArgumentException"() {
+        when:
+        base62Service.encodeDirectionId(-1L)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
 }
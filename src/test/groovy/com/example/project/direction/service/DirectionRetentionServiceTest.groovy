@@ -0,0 +1,127 @@
+package com.example.project.direction.service
+
+import com.example.project.direction.cache.DirectionUrlCacheService
+import org.springframework.data.redis.core.RedisTemplate
+import org.springframework.data.redis.core.ValueOperations
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.util.ReflectionTestUtils
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.LocalDateTime
+
+class DirectionRetentionServiceTest extends Specification {
+
+    private JdbcTemplate jdbcTemplate = Mock()
+    private PlatformTransactionManager transactionManager = Mock()
+    private RedisTemplate<String, Object> redisTemplate = Mock()
+    private ValueOperations<String, Object> valueOperations = Mock()
+    private Base62Service base62Service = new Base62Service()
+    private DirectionUrlCacheService directionUrlCacheService = Mock()
+
+    private DirectionRetentionService directionRetentionService
+
+    private LocalDateTime cutoff = LocalDateTime.of(2022, 1, 1, 0, 0)
+
+    def setup() {
+        redisTemplate.opsForValue() >> valueOperations
+        directionRetentionService = new DirectionRetentionService(jdbcTemplate,
+                new TransactionTemplate(transactionManager), redisTemplate, base62Service, directionUrlCacheService)
+        ReflectionTestUtils.setField(directionRetentionService, "batchSize", 2)
+        ReflectionTestUtils.setField(directionRetentionService, "batchPauseMillis", 0L)
+    }
+
+    def "purgeBefore - 보관 기간이 지난 길안내를 batch 단위로 archive 로 옮기고 삭제한다"() {
+        when:
+        def result = directionRetentionService.purgeBefore(cutoff)
+
+        then:
+        2 * jdbcTemplate.queryForList({ it.startsWith("select id from direction") }, Long, *_) >>> [[1L, 2L], [3L]]
+        1 * jdbcTemplate.update({ it.startsWith("insert into direction_archive") && it.endsWith("(?,?)") }, _, 1L, 2L) >> 2
+        1 * jdbcTemplate.update("delete from direction where id in (?,?)", 1L, 2L) >> 2
+        1 * jdbcTemplate.update({ it.startsWith("insert into direction_archive") && it.endsWith("(?)") }, _, 3L) >> 1
+        1 * jdbcTemplate.update("delete from direction where id in (?)", 3L) >> 1
+        2 * transactionManager.commit(_)
+
+        result.success
+        result.completed
+        result.mode == "archive"
+        result.archivedCount == 3
+        result.deletedCount == 3
+        result.batchCount == 2
+        directionRetentionService.getDeletedCount() == 3
+    }
+
+    def "purgeBefore - 커밋한 batch 의 길안내 링크를 url 캐시에서 지운다"() {
+        when:
+        directionRetentionService.purgeBefore(cutoff)
+
+        then:
+        2 * jdbcTemplate.queryForList(*_) >>> [[1L, 2L], [3L]]
+        jdbcTemplate.update(*_) >> 1
+        1 * directionUrlCacheService.evict([base62Service.encodeDirectionId(1L), base62Service.encodeLegacyDirectionId(1L),
+                                            base62Service.encodeDirectionId(2L), base62Service.encodeLegacyDirectionId(2L)])
+        1 * directionUrlCacheService.evict([base62Service.encodeDirectionId(3L), base62Service.encodeLegacyDirectionId(3L)])
+    }
+
+    def "purgeBefore - delete 모드는 archive 로 옮기지 않고 삭제만 한다"() {
+        given:
+        ReflectionTestUtils.setField(directionRetentionService, "mode", DirectionRetentionMode.DELETE)
+
+        when:
+        def result = directionRetentionService.purgeBefore(cutoff)
+
+        then:
+        1 * jdbcTemplate.queryForList(*_) >> [1L]
+        0 * jdbcTemplate.update({ it.startsWith("insert") }, *_)
+        1 * jdbcTemplate.update("delete from direction where id in (?)", 1L) >> 1
+
+        result.success
+        result.archivedCount == 0
+        result.deletedCount == 1
+    }
+
+    def "purgeBefore - 실행 시간 제한을 넘으면 남은 대상은 다음 실행에서 처리한다"() {
+        given:
+        ReflectionTestUtils.setField(directionRetentionService, "maxRunDuration", Duration.ZERO)
+
+        when:
+        def result = directionRetentionService.purgeBefore(cutoff)
+
+        then:
+        1 * jdbcTemplate.queryForList(*_) >> [1L, 2L]
+        jdbcTemplate.update(*_) >> 2
+
+        result.success
+        !result.completed
+        result.batchCount == 1
+    }
+
+    def "purgeBefore - 실패한 batch 는 롤백하고 결과에 남긴다"() {
+        when:
+        def result = directionRetentionService.purgeBefore(cutoff)
+
+        then:
+        1 * jdbcTemplate.queryForList(*_) >> [1L]
+        jdbcTemplate.update(*_) >> { throw new IllegalStateException("lock wait timeout") }
+        1 * transactionManager.rollback(_)
+        0 * directionUrlCacheService.evict(_)
+
+        !result.success
+        result.message == "lock wait timeout"
+        result.deletedCount == 0
+    }
+
+    def "purge - 다른 서버가 실행 중이면 실행하지 않는다"() {
+        when:
+        def result = directionRetentionService.purge()
+
+        then:
+        1 * valueOperations.setIfAbsent("DIRECTION_RETENTION_LOCK", _, _) >> false
+        0 * jdbcTemplate.queryForList(*_)
+
+        !result.success
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.project.direction.service
 
+import com.example.project.api.cache.KakaoCategorySearchCacheService
 import com.example.project.api.dto.DocumentDto
-import com.example.project.api.service.KakaoCategorySearchService
+import com.example.project.direction.cache.DirectionUrlCacheService
 import com.example.project.direction.direction.DirectionRepository
+import com.example.project.direction.entity.Direction
+import com.example.project.pharmacy.cache.PharmacySnapshot
 import com.example.project.pharmacy.entity.PharmacyDto
+import com.example.project.pharmacy.index.PharmacyCellService
+import com.example.project.pharmacy.index.PharmacyIndexService
 import com.example.project.pharmacy.service.PharmacySearchService
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import spock.lang.Specification
 
 class DirectionServiceTest extends Specification {
     private PharmacySearchService pharmacySearchService = Mock()
+    private PharmacyCellService pharmacyCellService = Mock()
     private DirectionRepository directionRepository = Mock()
-    private KakaoCategorySearchService kakaoCategorySearchService = Mock()
+    private KakaoCategorySearchCacheService kakaoCategorySearchCacheService = Mock()
     private Base62Service base62Service = Mock()
+    private DirectionWriteBehindService directionWriteBehindService = Mock()
+    private DirectionUrlCacheService directionUrlCacheService = Mock()
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
 
     private DirectionService directionService = new DirectionService(
-            pharmacySearchService, directionRepository, kakaoCategorySearchService,base62Service)
+            new PharmacyIndexService(pharmacySearchService), pharmacySearchService, pharmacyCellService, directionRepository, kakaoCategorySearchCacheService,base62Service,
+            directionWriteBehindService, directionUrlCacheService, meterRegistry)
 
     private List<PharmacyDto> pharmacyList
 
@@ -53,7 +64,7 @@ class DirectionServiceTest extends Specification {
         when:
         // pharmacySearchService는 목객체이다.
         // 테스트용 DocumentDto 리턴해주려면 키워드 >> 를 사용하면 됨
-        pharmacySearchService.searchPharmacyDtoList() >> pharmacyList
+        pharmacySearchService.getSnapshot() >> PharmacySnapshot.of(0L, pharmacyList)
 
         def results = directionService.buildDirectionList(documentDto)
 
@@ -85,14 +96,77 @@ class DirectionServiceTest extends Specification {
                 .build()
 
         when:
-        pharmacySearchService.searchPharmacyDtoList() >> pharmacyList
+        pharmacySearchService.getSnapshot() >> PharmacySnapshot.of(0L, pharmacyList)
 
         def results = directionService.buildDirectionList(documentDto)
 
         then:
         // 경기약국은 10Km가 넘어감.
         results.size() == 2
+        meterRegistry.get("pharmacy.ranking").tag("strategy", "index").timer().count() == 1
         results.get(0).targetPharmacyName == "호수온누리약국"
         results.get(1).targetPharmacyName == "돌곶이온누리약국"
     }
+
+    def "findDirectionUrlById - 캐시된 url 이 있으면 DB를 조회하지 않는다"() {
+        given:
+        def url = "https://map.kakao.com/link/map/pharmacy,38.11,128.11"
+
+        when:
+        directionUrlCacheService.get("r") >> url
+        def result = directionService.findDirectionUrlById("r")
+
+        then:
+        0 * directionRepository.findById(_)
+        result == url
+    }
+
+    def "findDirectionUrlById - DB에서 조회한 url 을 캐시한다"() {
+        given:
+        def direction = Direction.builder()
+                .id(5L)
+                .targetPharmacyName("pharmacy")
+                .targetLatitude(38.11)
+                .targetLongitude(128.11)
+                .build()
+
+        when:
+        base62Service.decodeDirectionId("r") >> 5L
+        directionRepository.findById(5L) >> Optional.of(direction)
+        def result = directionService.findDirectionUrlById("r")
+
+        then:
+        1 * directionUrlCacheService.put("r", "https://map.kakao.com/link/map/pharmacy,38.11,128.11")
+        result == "https://map.kakao.com/link/map/pharmacy,38.11,128.11"
+        meterRegistry.get("direction.redirect").tag("source", "db").timer().count() == 1
+    }
+
+    def "findDirectionUrlById - 존재하지 않는 id 는 null 을 반환"() {
+        when:
+        base62Service.decodeDirectionId("r") >> 5L
+        directionRepository.findById(5L) >> Optional.empty()
+        def result = directionService.findDirectionUrlById("r")
+
+        then:
+        result == null
+    }
+
+    def "saveAll - 저장한 Direction 의 길안내 url 을 캐시한다"() {
+        given:
+        def direction = Direction.builder()
+                .id(5L)
+                .targetPharmacyName("pharmacy")
+                .targetLatitude(38.11)
+                .targetLongitude(128.11)
+                .build()
+
+        when:
+        directionRepository.saveAll(_) >> [direction]
+        base62Service.encodeDirectionId(5L) >> "r"
+        directionService.saveAll([direction])
+
+        then:
+        1 * directionUrlCacheService.putAll(["r": "https://map.kakao.com/link/map/pharmacy,38.11,128.11"])
+        0 * directionUrlCacheService.put(*_)
+    }
 }
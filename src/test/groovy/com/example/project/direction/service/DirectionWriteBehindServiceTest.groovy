@@ -0,0 +1,205 @@
+package com.example.project.direction.service
+
+import com.example.project.direction.cache.DirectionUrlCacheService
+import com.example.project.direction.entity.Direction
+import org.springframework.dao.DataAccessResourceFailureException
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter
+import org.springframework.test.util.ReflectionTestUtils
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class DirectionWriteBehindServiceTest extends Specification {
+
+    private JdbcTemplate jdbcTemplate = Mock()
+    private DirectionIdAllocator directionIdAllocator = Mock()
+    private Base62Service base62Service = Mock()
+    private DirectionUrlCacheService directionUrlCacheService = Mock()
+
+    private DirectionWriteBehindService directionWriteBehindService
+
+    def setup() {
+        directionWriteBehindService = new DirectionWriteBehindService(jdbcTemplate, directionIdAllocator,
+                base62Service, directionUrlCacheService)
+        ReflectionTestUtils.setField(directionWriteBehindService, "capacity", 10)
+        ReflectionTestUtils.setField(directionWriteBehindService, "batchSize", 3)
+        ReflectionTestUtils.setField(directionWriteBehindService, "flushIntervalMillis", 50L)
+        ReflectionTestUtils.setField(directionWriteBehindService, "offerTimeoutMillis", 10L)
+        ReflectionTestUtils.setField(directionWriteBehindService, "maxAttempts", 3)
+        ReflectionTestUtils.setField(directionWriteBehindService, "retryBackoffMillis", 1L)
+        base62Service.encodeDirectionId(_) >> { Long id -> "e" + id }
+    }
+
+    def "enqueue - 저장 전에 id를 발급하고, batch 로 저장한다"() {
+        given:
+        long id = 100
+        directionIdAllocator.nextId() >> { id++ }
+        def directionList = (1..3).collect { Direction.builder().targetPharmacyName("pharmacy" + it).build() }
+        def conditions = new PollingConditions(timeout: 2)
+
+        when:
+        directionWriteBehindService.start()
+        def result = directionWriteBehindService.enqueue(directionList)
+
+        then:
+        result*.id == [100L, 101L, 102L]
+
+        conditions.eventually {
+            assert directionWriteBehindService.getFlushedCount() == 3
+            assert directionWriteBehindService.findPending(100L) == null
+        }
+
+        cleanup:
+        directionWriteBehindService.shutdown()
+    }
+
+    def "enqueue - 저장 전에는 대기 중인 Direction 을 조회할 수 있다"() {
+        given:
+        directionIdAllocator.nextId() >> 7L
+        def direction = Direction.builder().targetPharmacyName("pharmacy").build()
+
+        when:
+        // flush 스레드를 시작하지 않은 상태
+        ReflectionTestUtils.setField(directionWriteBehindService, "queue",
+                new ArrayBlockingQueue<Direction>(10))
+        ReflectionTestUtils.setField(directionWriteBehindService, "running", true)
+        directionWriteBehindService.enqueue([direction])
+
+        then:
+        directionWriteBehindService.findPending(7L).is(direction)
+        directionWriteBehindService.getQueueDepth() == 1
+    }
+
+    def "shutdown - 종료시 큐에 남은 데이터를 모두 저장한다"() {
+        given:
+        long id = 1
+        directionIdAllocator.nextId() >> { id++ }
+
+        when:
+        // flush 스레드를 시작하지 않은 상태
+        ReflectionTestUtils.setField(directionWriteBehindService, "queue",
+                new ArrayBlockingQueue<Direction>(10))
+        ReflectionTestUtils.setField(directionWriteBehindService, "running", true)
+        directionWriteBehindService.enqueue((1..5).collect { Direction.builder().build() })
+        directionWriteBehindService.shutdown()
+
+        then:
+        2 * jdbcTemplate.batchUpdate(_ as String, _ as Collection, _ as Integer, _ as ParameterizedPreparedStatementSetter)
+        directionWriteBehindService.getQueueDepth() == 0
+        directionWriteBehindService.getFlushedCount() == 5
+    }
+
+    def "shutdown - flush 스레드가 재시도 중인 batch 를 끝낼 때까지 기다린다"() {
+        given:
+        long id = 1
+        directionIdAllocator.nextId() >> { id++ }
+        ReflectionTestUtils.setField(directionWriteBehindService, "retryBackoffMillis", 1000L)
+        def firstAttempt = new CountDownLatch(1)
+        int calls = 0
+        jdbcTemplate.batchUpdate(*_) >> {
+            firstAttempt.countDown()
+            if (++calls == 1) {
+                throw new DataAccessResourceFailureException("connection refused")
+            }
+            return [[1, 1] as int[]] as int[][]
+        }
+
+        when:
+        directionWriteBehindService.start()
+        directionWriteBehindService.enqueue((1..2).collect { Direction.builder().build() })
+        firstAttempt.await(2, TimeUnit.SECONDS)
+        directionWriteBehindService.shutdown()
+
+        then:
+        calls == 2
+        directionWriteBehindService.getFlushedCount() == 2
+        directionWriteBehindService.getFailedCount() == 0
+        directionWriteBehindService.findPending(1L) == null
+    }
+
+    def "flushTimeoutMillis - batch 를 모으는 시간과 재시도 대기 시간을 모두 기다린다"() {
+        given:
+        ReflectionTestUtils.setField(directionWriteBehindService, "flushIntervalMillis", 200L)
+        ReflectionTestUtils.setField(directionWriteBehindService, "maxAttempts", 5)
+        ReflectionTestUtils.setField(directionWriteBehindService, "retryBackoffMillis", 200L)
+
+        expect:
+        // 200 * 2 + 5000 + (200 + 400 + 800 + 1600)
+        directionWriteBehindService.flushTimeoutMillis() == 8400L
+    }
+
+    // flush 스레드를 시작하지 않고, shutdown 에서 큐에 남은 데이터를 저장하도록 한다.
+    private void enqueueWithoutFlushThread(List<Direction> directionList) {
+        long id = 1
+        directionIdAllocator.nextId() >> { id++ }
+        ReflectionTestUtils.setField(directionWriteBehindService, "queue",
+                new ArrayBlockingQueue<Direction>(10))
+        ReflectionTestUtils.setField(directionWriteBehindService, "running", true)
+        directionWriteBehindService.enqueue(directionList)
+    }
+
+    def "flush - 저장에 실패하면 pending 에 남겨 두고 다시 저장한다"() {
+        given:
+        enqueueWithoutFlushThread((1..2).collect { Direction.builder().build() })
+        int calls = 0
+
+        when:
+        directionWriteBehindService.shutdown()
+
+        then:
+        3 * jdbcTemplate.batchUpdate(_ as String, _ as Collection, _ as Integer, _ as ParameterizedPreparedStatementSetter) >> {
+            assert directionWriteBehindService.findPending(1L) != null
+            if (++calls < 3) {
+                throw new DataAccessResourceFailureException("connection refused")
+            }
+            return [[1, 1] as int[]] as int[][]
+        }
+        0 * directionUrlCacheService.evict(_)
+
+        and:
+        directionWriteBehindService.getFlushedCount() == 2
+        directionWriteBehindService.getRetriedCount() == 2
+        directionWriteBehindService.getFailedCount() == 0
+        directionWriteBehindService.findPending(1L) == null
+    }
+
+    def "flush - 재시도 후에도 저장하지 못한 Direction 은 버리고, 길안내 url 캐시에서 지운다"() {
+        given:
+        enqueueWithoutFlushThread((1..2).collect { Direction.builder().build() })
+
+        when:
+        directionWriteBehindService.shutdown()
+
+        then:
+        // batch 3번 + 한 건씩 2번
+        5 * jdbcTemplate.batchUpdate(_ as String, _ as Collection, _ as Integer, _ as ParameterizedPreparedStatementSetter) >> {
+            throw new DataAccessResourceFailureException("connection refused")
+        }
+        1 * directionUrlCacheService.evict(["e1", "e2"])
+
+        and:
+        directionWriteBehindService.getFlushedCount() == 0
+        directionWriteBehindService.getFailedCount() == 2
+        directionWriteBehindService.findPending(1L) == null
+    }
+
+    def "enqueue - 큐가 가득 차서 요청 스레드에서 저장하다 실패하면 예외를 던진다"() {
+        given:
+        directionIdAllocator.nextId() >> 1L
+        ReflectionTestUtils.setField(directionWriteBehindService, "queue",
+                new ArrayBlockingQueue<Direction>(1))
+        ReflectionTestUtils.setField(directionWriteBehindService, "running", false)
+        jdbcTemplate.batchUpdate(*_) >> { throw new DataAccessResourceFailureException("connection refused") }
+
+        when:
+        directionWriteBehindService.enqueue([Direction.builder().build()])
+
+        then:
+        thrown(IllegalStateException)
+        directionWriteBehindService.findPending(1L) == null
+    }
+}
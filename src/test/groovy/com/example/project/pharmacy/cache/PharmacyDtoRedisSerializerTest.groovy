@@ -0,0 +1,88 @@
+package com.example.project.pharmacy.cache
+
+import com.example.project.pharmacy.entity.PharmacyDto
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.data.redis.serializer.SerializationException
+import spock.lang.Specification
+
+class PharmacyDtoRedisSerializerTest extends Specification {
+
+    private ObjectMapper objectMapper = new ObjectMapper()
+    private PharmacyDtoRedisSerializer binarySerializer = new PharmacyDtoRedisSerializer(objectMapper, PharmacyCacheFormat.BINARY)
+    private PharmacyDtoRedisSerializer jsonSerializer = new PharmacyDtoRedisSerializer(objectMapper, PharmacyCacheFormat.JSON)
+
+    private PharmacyDto pharmacyDto = PharmacyDto.builder()
+            .id(123456L)
+            .pharmacyName("돌곶이온누리약국")
+            .pharmacyAddress("서울특별시 성북구 월곡로 107 (석관동)")
+            .latitude(37.61040424)
+            .longitude(127.0569046)
+            .build()
+
+    def "binary 형식으로 저장하고 읽는다"() {
+        when:
+        def bytes = binarySerializer.serialize(pharmacyDto)
+        def result = binarySerializer.deserialize(bytes)
+
+        then:
+        bytes[0] == PharmacyDtoRedisSerializer.BINARY_VERSION_1
+        bytes.length < jsonSerializer.serialize(pharmacyDto).length
+        result.id == pharmacyDto.id
+        result.pharmacyName == pharmacyDto.pharmacyName
+        result.pharmacyAddress == pharmacyDto.pharmacyAddress
+        result.latitude == pharmacyDto.latitude
+        result.longitude == pharmacyDto.longitude
+    }
+
+    def "null 과 빈 문자열을 구분한다"() {
+        given:
+        def dto = PharmacyDto.builder().id(1L).pharmacyName("").build()
+
+        when:
+        def result = binarySerializer.deserialize(binarySerializer.serialize(dto))
+
+        then:
+        result.pharmacyName == ""
+        result.pharmacyAddress == null
+    }
+
+    def "기존 JSON 형식으로 저장된 값도 읽는다"() {
+        given:
+        def json = objectMapper.writeValueAsBytes(pharmacyDto)
+
+        when:
+        def result = binarySerializer.deserialize(json)
+
+        then:
+        result.id == pharmacyDto.id
+        result.pharmacyName == pharmacyDto.pharmacyName
+    }
+
+    def "JSON 형식으로 설정하면 JSON 으로 저장한다"() {
+        when:
+        def bytes = jsonSerializer.serialize(pharmacyDto)
+
+        then:
+        new String(bytes, "UTF-8").startsWith("{")
+        binarySerializer.deserialize(bytes).id == pharmacyDto.id
+    }
+
+    def "잘못된 값이면 SerializationException"() {
+        when:
+        binarySerializer.deserialize(bytes as byte[])
+
+        then:
+        thrown(SerializationException)
+
+        where:
+        bytes << [[0x02, 0x01], [0x01, 0x01, 0x00]]
+    }
+
+    def "id 가 없으면 저장할 수 없다"() {
+        when:
+        binarySerializer.serialize(PharmacyDto.builder().build())
+
+        then:
+        thrown(SerializationException)
+    }
+}
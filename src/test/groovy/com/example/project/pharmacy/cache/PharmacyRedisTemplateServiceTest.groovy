@@ -3,12 +3,16 @@ package com.example.project.pharmacy.cache
 import com.example.project.AbstractIntegrationContainerBaseTest
 import com.example.project.pharmacy.entity.PharmacyDto
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.redis.core.RedisTemplate
 
 class PharmacyRedisTemplateServiceTest extends AbstractIntegrationContainerBaseTest {
 
     @Autowired
     private PharmacyRedisTemplateService pharmacyRedisTemplateService;
 
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate
+
     def setup(){
         pharmacyRedisTemplateService.findAll()
             .forEach(dto -> {
@@ -71,4 +75,80 @@ class PharmacyRedisTemplateServiceTest extends AbstractIntegrationContainerBaseT
         then:
         result.size() == 0
     }
+
+    def "findNearby - 반경 이내의 약국을 거리순으로 limit 개까지 조회"() {
+        given:
+        def near = PharmacyDto.builder()
+                .id(1L)
+                .pharmacyName("호수온누리약국")
+                .latitude(37.60894036)
+                .longitude(127.029052)
+                .build()
+        def nearest = PharmacyDto.builder()
+                .id(2L)
+                .pharmacyName("홀리데이약국")
+                .latitude(37.60101417)
+                .longitude(127.0331664)
+                .build()
+        def far = PharmacyDto.builder()
+                .id(3L)
+                .pharmacyName("경기약국")
+                .latitude(37.3825107393401)
+                .longitude(127.236707811313)
+                .build()
+
+        when:
+        [near, nearest, far].each { pharmacyRedisTemplateService.save(it) }
+        def result = pharmacyRedisTemplateService.findNearby(37.5960650456809, 127.037033003036, 10.0, 3)
+
+        then:
+        result.size() == 2
+        result.get(0).pharmacyDto.pharmacyName == "홀리데이약국"
+        result.get(1).pharmacyDto.pharmacyName == "호수온누리약국"
+        result.get(0).distance < result.get(1).distance
+    }
+
+    def "publishStaging - staging 에 적재한 데이터는 교체 전까지 조회되지 않는다"() {
+        given:
+        pharmacyRedisTemplateService.save(PharmacyDto.builder().id(100L).pharmacyName("기존약국").build())
+        def pharmacyList = (1..3).collect {
+            PharmacyDto.builder()
+                    .id(it as Long)
+                    .pharmacyName("약국" + it)
+                    .latitude(37.60894036)
+                    .longitude(127.029052)
+                    .build()
+        }
+
+        when:
+        pharmacyRedisTemplateService.clearStaging()
+        pharmacyRedisTemplateService.saveAllToStaging(pharmacyList)
+        def beforePublish = pharmacyRedisTemplateService.findAll()
+        def published = pharmacyRedisTemplateService.publishStaging()
+        def afterPublish = pharmacyRedisTemplateService.findAll()
+
+        then:
+        published
+        beforePublish*.id == [100L]
+        afterPublish*.id.sort() == [1L, 2L, 3L]
+        pharmacyRedisTemplateService.findNearby(37.60894036, 127.029052, 1.0, 3).size() == 3
+    }
+
+    def "publishStaging - staging key 중 하나라도 없으면 교체하지 않는다"() {
+        given:
+        pharmacyRedisTemplateService.save(PharmacyDto.builder().id(100L).pharmacyName("기존약국")
+                .latitude(37.60894036).longitude(127.029052).build())
+
+        when: "staging GEO key 가 없는 상태"
+        pharmacyRedisTemplateService.clearStaging()
+        pharmacyRedisTemplateService.saveAllToStaging([PharmacyDto.builder().id(1L).pharmacyName("약국1")
+                .latitude(37.60894036).longitude(127.029052).build()])
+        redisTemplate.delete("PHARMACY_GEO_STAGING")
+        def published = pharmacyRedisTemplateService.publishStaging()
+
+        then:
+        !published
+        pharmacyRedisTemplateService.findAll()*.id == [100L]
+        pharmacyRedisTemplateService.findNearby(37.60894036, 127.029052, 1.0, 3)*.pharmacyDto*.id == [100L]
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.project.pharmacy.importer
+
+import spock.lang.Specification
+
+class PharmacyCsvReaderTest extends Specification {
+
+    def "next - header 를 건너뛰고 한 줄씩 약국으로 읽는다"() {
+        given:
+        def csv = """id,pharmacy_name,pharmacy_address,latitude,longitude
+1,호수온누리약국,서울특별시 성북구 동소문로47길 12,37.60894036,127.029052
+
+2,"돌곶이 ""온누리"" 약국","서울특별시 성북구 화랑로, 1층",37.61040424,127.0569046
+"""
+        def reader = new PharmacyCsvReader(new StringReader(csv))
+
+        when:
+        def first = reader.next()
+        def second = reader.next()
+        def end = reader.next()
+
+        then:
+        first.id == 1L
+        first.pharmacyName == "호수온누리약국"
+        first.latitude == 37.60894036d
+        second.id == 2L
+        second.pharmacyName == "돌곶이 \"온누리\" 약국"
+        second.pharmacyAddress == "서울특별시 성북구 화랑로, 1층"
+        end == null
+        reader.invalidLineCount == 0
+    }
+
+    def "next - 형식이 잘못된 줄은 건너뛰고 개수를 센다"() {
+        given:
+        def csv = """1,약국,주소,37.5,127.0
+2,약국,주소,abc,127.0
+3,약국,주소
+4,약국,주소,137.5,127.0
+5,약국,주소,37.5,127.1
+"""
+        def reader = new PharmacyCsvReader(new StringReader(csv))
+
+        when:
+        def ids = []
+        def pharmacyDto
+        while ((pharmacyDto = reader.next()) != null) {
+            ids << pharmacyDto.id
+        }
+
+        then:
+        ids == [1L, 5L]
+        reader.invalidLineCount == 3
+        reader.lineNumber == 5
+    }
+
+    def "next - 좌표가 NaN 이나 Infinity 인 줄은 건너뛴다"() {
+        given:
+        def csv = """1,약국,주소,NaN,127.0
+2,약국,주소,37.5,Infinity
+3,약국,주소,-Infinity,127.0
+4,약국,주소,37.5,127.0
+"""
+        def reader = new PharmacyCsvReader(new StringReader(csv))
+
+        when:
+        def first = reader.next()
+        def end = reader.next()
+
+        then:
+        first.id == 4L
+        end == null
+        reader.invalidLineCount == 3
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.project.pharmacy.index
+
+import spock.lang.Specification
+
+class GeoCellTest extends Specification {
+
+    def "toGeoHash - geohash 6자리로 변환"() {
+        expect:
+        GeoCell.of(latitude, longitude).toGeoHash() == expected
+
+        where:
+        latitude    | longitude   | expected
+        37.5665     | 126.9780    | "wydm9q"
+        37.61040424 | 127.0569046 | "wydmgq"
+        35.1795543  | 129.0756416 | "wy7b1h"
+        -33.8688    | 151.2093    | "r3gx2f"
+        0.0         | 0.0         | "s00000"
+    }
+
+    def "getHalfDiagonalKm - 격자 안의 모든 지점은 중심에서 대각선 절반 이내"() {
+        given:
+        def random = new Random(42)
+        def cell = GeoCell.of(37.5665, 126.9780)
+        double halfDiagonalKm = cell.getHalfDiagonalKm()
+
+        expect:
+        (1..1000).every {
+            double latitude = -90.0 + cell.row * GeoCell.LATITUDE_DEGREE + random.nextDouble() * GeoCell.LATITUDE_DEGREE
+            double longitude = -180.0 + cell.column * GeoCell.LONGITUDE_DEGREE + random.nextDouble() * GeoCell.LONGITUDE_DEGREE
+            GeoCell.of(latitude, longitude) == cell &&
+                    GeoDistance.calculateDistance(cell.centerLatitude, cell.centerLongitude, latitude, longitude) <= halfDiagonalKm
+        }
+    }
+
+    def "covering, withNeighbors - 영역과 겹치는 격자, 주변 격자"() {
+        given:
+        def cell = GeoCell.of(37.5665, 126.9780)
+
+        when:
+        def neighbors = cell.withNeighbors()
+        def covering = GeoCell.covering(GeoBoundingBox.of(cell.centerLatitude, cell.centerLongitude, 1.0))
+
+        then:
+        neighbors.size() == 9
+        neighbors.toSet().size() == 9
+        neighbors.contains(cell)
+        covering.containsAll(neighbors)
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.project.pharmacy.index
+
+import com.example.project.pharmacy.cache.PharmacySnapshot
+import com.example.project.pharmacy.entity.PharmacyDto
+import spock.lang.Specification
+
+class GeoDistanceKernelTest extends Specification {
+
+    private List<PharmacyDto> pharmacyList = [
+            PharmacyDto.builder().id(1L).latitude(37.61040424).longitude(127.0569046).build(),
+            PharmacyDto.builder().id(2L).latitude(37.60894036).longitude(127.029052).build(),
+            PharmacyDto.builder().id(3L).latitude(35.1795543).longitude(129.0756416).build(),
+            PharmacyDto.builder().id(4L).latitude(37.6104042).longitude(127.0569047).build()
+    ]
+
+    def "distances - Haversine 거리와 같은 값을 반환한다"() {
+        given:
+        def kernel = GeoDistanceKernel.of(PharmacySnapshot.of(0L, pharmacyList))
+        double inputLatitude = 37.5960650456809
+        double inputLongitude = 127.037033003036
+        double[] out = new double[kernel.size()]
+
+        when:
+        kernel.distances(inputLatitude, inputLongitude, out)
+
+        then:
+        pharmacyList.eachWithIndex { pharmacy, i ->
+            assert Math.abs(out[i] - GeoDistance.calculateDistance(inputLatitude, inputLongitude,
+                    pharmacy.latitude, pharmacy.longitude)) < 1e-9
+        }
+    }
+
+    def "distance - 아주 가까운 거리도 계산한다"() {
+        given:
+        def kernel = GeoDistanceKernel.of(PharmacySnapshot.of(0L, pharmacyList))
+
+        when:
+        // 약 1cm 떨어진 두 지점
+        def distance = kernel.distance(3, GeoDistanceKernel.unitVector(37.61040424, 127.0569046))
+
+        then:
+        distance > 0
+        distance < 0.00002
+    }
+
+    def "chordSquaredOf - 반경 이내 여부를 현의 제곱으로 비교한다"() {
+        given:
+        def kernel = GeoDistanceKernel.of(PharmacySnapshot.of(0L, pharmacyList))
+        def queryVector = GeoDistanceKernel.unitVector(37.5960650456809, 127.037033003036)
+        def maxChordSquared = GeoDistanceKernel.chordSquaredOf(10.0)
+
+        expect:
+        (0..<kernel.size()).findAll { kernel.chordSquared(it, queryVector) <= maxChordSquared } == [0, 1, 3]
+        GeoDistanceKernel.chordSquaredOf(100000.0) == 4.0d
+    }
+
+    def "distances - out 배열이 작으면 IllegalArgumentException"() {
+        given:
+        def kernel = GeoDistanceKernel.of(PharmacySnapshot.of(0L, pharmacyList))
+
+        when:
+        kernel.distances(37.5, 127.0, new double[1])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.project.pharmacy.index
+
+import com.example.project.pharmacy.cache.PharmacySnapshot
+import com.example.project.pharmacy.entity.PharmacyDto
+import com.example.project.pharmacy.event.PharmacyDataChangedEvent
+import com.example.project.pharmacy.service.PharmacySearchService
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+import org.springframework.data.redis.core.HashOperations
+import org.springframework.data.redis.core.RedisTemplate
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class PharmacyCellServiceTest extends Specification {
+
+    private PharmacySearchService pharmacySearchService = Mock()
+    private RedisTemplate<String, Object> redisTemplate = Mock()
+    private HashOperations<String, String, String> hashOperations = Mock()
+
+    private PharmacyIndexService pharmacyIndexService = new PharmacyIndexService(pharmacySearchService)
+    private PharmacyCellService pharmacyCellService = new PharmacyCellService(pharmacyIndexService, redisTemplate)
+
+    private List<PharmacyDto> pharmacyList
+    private volatile PharmacySnapshot snapshot
+
+    def setup() {
+        def random = new Random(42)
+        pharmacyList = (1..2000).collect {
+            PharmacyDto.builder()
+                    .id(it as Long)
+                    .pharmacyName("약국" + it)
+                    .latitude(37.3 + random.nextDouble() * 0.5)
+                    .longitude(126.8 + random.nextDouble() * 0.5)
+                    .build()
+        }
+        snapshot = PharmacySnapshot.of(1L, pharmacyList)
+        pharmacySearchService.getSnapshot() >> { snapshot }
+        redisTemplate.opsForHash() >> hashOperations
+
+        pharmacyCellService.searchStrategy = NearestSearchStrategy.CELL
+        pharmacyCellService.radiusKm = 10.0
+        pharmacyCellService.limit = 3
+        pharmacyCellService.maxCandidates = 500
+        pharmacyCellService.writeChunkSize = 1000
+        pharmacyCellService.localMaximumSize = 1000
+        pharmacyCellService.localExpireAfterWrite = Duration.ofSeconds(30)
+        pharmacyCellService.snapshotWaitTimeout = Duration.ofSeconds(5)
+        pharmacyCellService.start()
+    }
+
+    def cleanup() {
+        pharmacyCellService.shutdown()
+    }
+
+    def "searchNearest - 격자 후보만으로 인덱스 전체 검색과 같은 결과를 반환"() {
+        given:
+        def random = new Random(7)
+        hashOperations.get("PHARMACY_CELL", _) >> null
+
+        expect:
+        (1..300).every {
+            double latitude = 37.25 + random.nextDouble() * 0.6
+            double longitude = 126.75 + random.nextDouble() * 0.6
+            pharmacyCellService.searchNearest(latitude, longitude, 10.0, 3)*.pharmacyDto*.id ==
+                    pharmacyIndexService.searchNearest(latitude, longitude, 10.0, 3)*.pharmacyDto*.id
+        }
+    }
+
+    def "searchNearest - Redis 에 없는 격자는 계산하여 저장"() {
+        given:
+        def cell = GeoCell.of(37.55, 127.05)
+
+        when:
+        pharmacyCellService.searchNearest(37.55, 127.05, 10.0, 3)
+        pharmacyCellService.searchNearest(37.55, 127.05, 10.0, 3)
+
+        then:
+        1 * hashOperations.get("PHARMACY_CELL", cell.toGeoHash()) >> null
+        1 * hashOperations.putIfAbsent("PHARMACY_CELL", cell.toGeoHash(), { it.split(",").size() >= 3 })
+    }
+
+    def "searchNearest - Redis 에 저장된 후보 중에서만 검색"() {
+        given:
+        hashOperations.get("PHARMACY_CELL", _) >> "10,20"
+
+        when:
+        def results = pharmacyCellService.searchNearest(37.55, 127.05, 10.0, 3)
+
+        then:
+        results*.pharmacyDto*.id.toSet() == [10L, 20L].toSet()
+        results == results.sort(false) { it.distance }
+    }
+
+    def "searchNearest - 후보가 너무 많은 격자이거나 반경이 더 크면 인덱스 전체 검색"() {
+        given:
+        hashOperations.get("PHARMACY_CELL", _) >> "*"
+
+        expect:
+        pharmacyCellService.searchNearest(37.55, 127.05, radiusKm, limit)*.pharmacyDto*.id ==
+                pharmacyIndexService.searchNearest(37.55, 127.05, radiusKm, limit)*.pharmacyDto*.id
+
+        where:
+        radiusKm | limit
+        10.0     | 3
+        20.0     | 3
+        10.0     | 5
+    }
+
+    def "rebuild - 변경된 약국의 격자와 이미 계산된 주변 격자를 다시 계산"() {
+        given:
+        def changed = pharmacyList[0]
+        def changedCell = GeoCell.of(changed.latitude, changed.longitude)
+        def computedCell = GeoCell.of(changed.latitude + 0.05, changed.longitude + 0.05)
+
+        hashOperations.multiGet("PHARMACY_CELL", _) >> { key, fields ->
+            fields.collect { it == computedCell.toGeoHash() ? "1" : null }
+        }
+
+        when:
+        pharmacyCellService.rebuild([changed])
+
+        then:
+        1 * hashOperations.putAll("PHARMACY_CELL", { Map values ->
+            values.size() == 10 &&
+                    values.keySet().containsAll(changedCell.withNeighbors()*.toGeoHash()) &&
+                    values.containsKey(computedCell.toGeoHash())
+        })
+    }
+
+    def "onPharmacyDataChanged - 격자 리스너가 먼저 실행되어도 변경이 스냅샷에 반영된 후 다시 계산"() {
+        given:
+        def previous = pharmacyList[0]
+        def moved = PharmacyDto.builder().id(previous.id).pharmacyName(previous.pharmacyName)
+                .latitude(37.95).longitude(127.55).build()
+        def movedCell = GeoCell.of(moved.latitude, moved.longitude)
+        def written = new CopyOnWriteArrayList<Map>()
+        hashOperations.multiGet("PHARMACY_CELL", _) >> { key, fields -> fields.collect { null } }
+        hashOperations.putAll("PHARMACY_CELL", _) >> { key, Map values -> written.add(values) }
+
+        when: "약국 데이터 스냅샷에 변경이 반영되기 전에 이벤트를 받는다."
+        pharmacyCellService.onPharmacyDataChanged(PharmacyDataChangedEvent.local(2L, [previous, moved], [moved], []))
+        Thread.sleep(300)
+
+        then:
+        written.isEmpty()
+
+        when: "스냅샷을 갱신하는 리스너가 나중에 실행된다."
+        snapshot = snapshot.withChanges(2L, [moved], [])
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert written.size() == 1
+        }
+        written[0][movedCell.toGeoHash()].split(",").contains(String.valueOf(moved.id))
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.project.pharmacy.index
+
+import com.example.project.pharmacy.cache.PharmacySnapshot
+import com.example.project.pharmacy.entity.PharmacyDto
+import spock.lang.Specification
+
+class PharmacySpatialIndexTest extends Specification {
+
+    private List<PharmacyDto> pharmacyList
+
+    def setup() {
+        pharmacyList = new ArrayList<>()
+        pharmacyList.addAll(
+                PharmacyDto.builder()
+                        .id(1L)
+                        .pharmacyName("돌곶이온누리약국")
+                        .latitude(37.61040424)
+                        .longitude(127.0569046)
+                        .build(),
+                PharmacyDto.builder()
+                        .id(2L)
+                        .pharmacyName("호수온누리약국")
+                        .latitude(37.60894036)
+                        .longitude(127.029052)
+                        .build(),
+                PharmacyDto.builder()
+                        .id(3L)
+                        .pharmacyName("홀리데이약국")
+                        .latitude(37.60101417)
+                        .longitude(127.0331664)
+                        .build(),
+                PharmacyDto.builder()
+                        .id(4L)
+                        .pharmacyName("경기약국")
+                        .latitude(37.3825107393401)
+                        .longitude(127.236707811313)
+                        .build()
+        )
+    }
+
+    def "searchNearest - 반경 이내의 약국만 거리순으로 limit 개까지 조회"() {
+        given:
+        def index = PharmacySpatialIndex.of(pharmacyList)
+        double inputLatitude = 37.5960650456809
+        double inputLongitude = 127.037033003036
+
+        when:
+        def results = index.searchNearest(inputLatitude, inputLongitude, 10.0, limit)
+
+        then:
+        results*.pharmacyDto*.pharmacyName == expectedNames
+
+        where:
+        limit | expectedNames
+        3     | ["홀리데이약국", "호수온누리약국", "돌곶이온누리약국"]
+        2     | ["홀리데이약국", "호수온누리약국"]
+        0     | []
+    }
+
+    def "searchNearest - 전체 탐색 결과와 동일한 결과를 반환"() {
+        given:
+        def random = new Random(42)
+        def randomList = (1..2000).collect {
+            PharmacyDto.builder()
+                    .id(it as Long)
+                    .latitude(37.3 + random.nextDouble() * 0.5)
+                    .longitude(126.8 + random.nextDouble() * 0.5)
+                    .build()
+        }
+        def index = PharmacySpatialIndex.of(randomList)
+        double inputLatitude = 37.55
+        double inputLongitude = 127.05
+
+        when:
+        def results = index.searchNearest(inputLatitude, inputLongitude, 10.0, 3)
+
+        then:
+        def expected = randomList
+                .findAll { GeoDistance.calculateDistance(inputLatitude, inputLongitude, it.latitude, it.longitude) <= 10.0 }
+                .sort { GeoDistance.calculateDistance(inputLatitude, inputLongitude, it.latitude, it.longitude) }
+                .take(3)
+        results*.pharmacyDto*.id == expected*.id
+    }
+
+    def "searchNearest - 병렬 검색도 순차 검색과 같은 결과를 반환"() {
+        given:
+        def random = new Random(7)
+        def randomList = (1..5000).collect {
+            PharmacyDto.builder()
+                    .id(it as Long)
+                    .latitude(37.3 + random.nextDouble() * 0.5)
+                    .longitude(126.8 + random.nextDouble() * 0.5)
+                    .build()
+        }
+        def snapshot = PharmacySnapshot.of(0L, randomList)
+        def sequentialIndex = PharmacySpatialIndex.of(snapshot)
+        def parallelIndex = PharmacySpatialIndex.of(snapshot, 1)
+
+        expect:
+        sequentialIndex.searchNearest(37.55, 127.05, radiusKm, limit)*.pharmacyDto*.id ==
+                parallelIndex.searchNearest(37.55, 127.05, radiusKm, limit)*.pharmacyDto*.id
+
+        where:
+        radiusKm | limit
+        10.0     | 3
+        20.0     | 50
+        1.0      | 10
+    }
+
+    def "데이터가 없는 경우 빈 결과를 반환"() {
+        when:
+        def results = PharmacySpatialIndex.of([]).searchNearest(37.55, 127.05, 10.0, 3)
+
+        then:
+        results.isEmpty()
+    }
+}
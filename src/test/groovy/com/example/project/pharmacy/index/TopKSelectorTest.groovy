@@ -0,0 +1,71 @@
+package com.example.project.pharmacy.index
+
+import spock.lang.Specification
+
+class TopKSelectorTest extends Specification {
+
+    def "offer, sort - key 가 작은 순으로 k 개, key 가 같으면 index 가 작은 순"() {
+        given:
+        def selector = new TopKSelector(3)
+        [5.0, 1.0, 4.0, 1.0, 3.0, 2.0].eachWithIndex { key, index -> selector.offer(index, key) }
+
+        when:
+        selector.sort()
+
+        then:
+        selector.size() == 3
+        (0..<3).collect { selector.getIndex(it) } == [1, 3, 5]
+        (0..<3).collect { selector.getKey(it) } == [1.0d, 1.0d, 2.0d]
+    }
+
+    def "merge - 나누어 고른 결과를 합쳐도 한 번에 고른 결과와 같다"() {
+        given:
+        def random = new Random(42)
+        def keys = (0..<1000).collect { random.nextInt(100) as double }
+        def all = new TopKSelector(10)
+        def even = new TopKSelector(10)
+        def odd = new TopKSelector(10)
+        keys.eachWithIndex { key, index ->
+            all.offer(index, key)
+            (index % 2 == 0 ? even : odd).offer(index, key)
+        }
+
+        when:
+        even.merge(odd)
+        all.sort()
+        even.sort()
+
+        then:
+        (0..<10).collect { even.getIndex(it) } == (0..<10).collect { all.getIndex(it) }
+        (0..<10).collect { all.getIndex(it) } == (0..<1000).sort(false) { a, b -> keys[a] <=> keys[b] ?: a <=> b }.take(10)
+    }
+
+    def "worstKey - 가득 차기 전에는 무한대"() {
+        given:
+        def selector = new TopKSelector(2)
+
+        when:
+        selector.offer(0, 3.0)
+
+        then:
+        selector.worstKey() == Double.POSITIVE_INFINITY
+
+        when:
+        selector.offer(1, 1.0)
+
+        then:
+        selector.worstKey() == 3.0d
+    }
+
+    def "k 가 0 이면 아무것도 고르지 않는다"() {
+        given:
+        def selector = new TopKSelector(0)
+
+        when:
+        selector.offer(0, 1.0)
+        selector.sort()
+
+        then:
+        selector.size() == 0
+    }
+}
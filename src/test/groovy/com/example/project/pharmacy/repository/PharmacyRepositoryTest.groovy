@@ -2,7 +2,10 @@ package com.example.project.pharmacy.repository
 
 import com.example.project.AbstractIntegrationContainerBaseTest
 import com.example.project.pharmacy.entity.Pharmacy
+import com.example.project.pharmacy.entity.PharmacyDto
+import com.example.project.pharmacy.index.GeoBoundingBox
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.domain.PageRequest
 
 import java.time.LocalDateTime
 
@@ -80,4 +83,52 @@ class PharmacyRepositoryTest extends AbstractIntegrationContainerBaseTest {
         result.get(0).getCreatedDate().isAfter(now)
         result.get(0).getModifiedDate().isAfter(now)
     }
+
+    def "PharmacyRepository findAllInBoundingBox - 영역 안의 약국만 dto 로 조회"() {
+        given:
+        def inside = Pharmacy.builder()
+                .pharmacyName("호수온누리약국")
+                .pharmacyAddress("서울특별시 성북구 동소문로47길 12")
+                .latitude(37.60894036)
+                .longitude(127.029052)
+                .build()
+        def outside = Pharmacy.builder()
+                .pharmacyName("경기약국")
+                .pharmacyAddress("경기도")
+                .latitude(37.3825107393401)
+                .longitude(127.236707811313)
+                .build()
+        pharmacyRepository.saveAll(Arrays.asList(inside, outside))
+
+        def boundingBox = GeoBoundingBox.of(37.5960650456809, 127.037033003036, 10.0)
+
+        when:
+        def result = pharmacyRepository.findAllInBoundingBox(
+                boundingBox.minLatitude, boundingBox.maxLatitude,
+                boundingBox.minLongitude, boundingBox.maxLongitude)
+
+        then:
+        result.size() == 1
+        result.get(0) instanceof PharmacyDto
+        result.get(0).pharmacyName == "호수온누리약국"
+        result.get(0).pharmacyAddress == "서울특별시 성북구 동소문로47길 12"
+    }
+
+    def "PharmacyRepository findAllByIdGreaterThan - id 순으로 다음 페이지를 조회"() {
+        given:
+        def saved = pharmacyRepository.saveAll((1..5).collect {
+            Pharmacy.builder().pharmacyName("약국" + it).latitude(37.6).longitude(127.0).build()
+        })
+        def ids = saved*.id.sort()
+
+        when:
+        def firstPage = pharmacyRepository.findAllByIdGreaterThan(0L, PageRequest.of(0, 2))
+        def secondPage = pharmacyRepository.findAllByIdGreaterThan(firstPage.last().id, PageRequest.of(0, 2))
+        def lastPage = pharmacyRepository.findAllByIdGreaterThan(ids[3], PageRequest.of(0, 2))
+
+        then:
+        firstPage*.id == ids[0..1]
+        secondPage*.id == ids[2..3]
+        lastPage*.id == [ids[4]]
+    }
 }
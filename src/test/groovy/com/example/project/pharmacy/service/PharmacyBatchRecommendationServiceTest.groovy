@@ -0,0 +1,114 @@
+package com.example.project.pharmacy.service
+
+import com.example.project.api.cache.KakaoAddressSearchCacheService
+import com.example.project.api.dto.DocumentDto
+import com.example.project.api.dto.KakaoApiResponseDto
+import com.example.project.api.dto.MetaDto
+import com.example.project.direction.dto.BatchOutputDto
+import com.example.project.direction.dto.OutputDto
+import com.example.project.direction.entity.Direction
+import com.example.project.direction.service.DirectionService
+import org.springframework.test.util.ReflectionTestUtils
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class PharmacyBatchRecommendationServiceTest extends Specification {
+
+    private KakaoAddressSearchCacheService kakaoAddressSearchCacheService = Mock()
+    private DirectionService directionService = Mock()
+    private PharmacyRecommendationService pharmacyRecommendationService = Mock()
+
+    private PharmacyBatchRecommendationService pharmacyBatchRecommendationService
+
+    def setup() {
+        pharmacyBatchRecommendationService = new PharmacyBatchRecommendationService(
+                kakaoAddressSearchCacheService, directionService, pharmacyRecommendationService)
+        ReflectionTestUtils.setField(pharmacyBatchRecommendationService, "geocodingConcurrency", 4)
+        ReflectionTestUtils.setField(pharmacyBatchRecommendationService, "requestConcurrency", 2)
+        ReflectionTestUtils.setField(pharmacyBatchRecommendationService, "chunkSize", 10)
+        pharmacyBatchRecommendationService.start()
+
+        directionService.buildDirectionList(_ as DocumentDto) >> { DocumentDto documentDto ->
+            [Direction.builder().inputAddress(documentDto.addressName).targetPharmacyName("약국").build()]
+        }
+        directionService.saveAll(_ as List) >> { List<Direction> directionList -> directionList }
+        pharmacyRecommendationService.convertToOutputDto(_ as Direction) >> { Direction direction ->
+            OutputDto.builder().pharmacyName(direction.targetPharmacyName).pharmacyAddress(direction.inputAddress).build()
+        }
+    }
+
+    def cleanup() {
+        pharmacyBatchRecommendationService.shutdown()
+    }
+
+    def "recommendPharmacyList - 모든 주소의 결과를 전달하고, 변환에 실패한 주소는 success 가 false"() {
+        given:
+        def addressList = (0..<20).collect { "주소" + it }
+        kakaoAddressSearchCacheService.requestAddressSearch(_ as String) >> { String address ->
+            address == "주소3" ? null : new KakaoApiResponseDto(new MetaDto(1),
+                    [DocumentDto.builder().addressName(address).latitude(37.5).longitude(127.0).build()])
+        }
+        def results = Collections.synchronizedList(new ArrayList<BatchOutputDto>())
+
+        when:
+        pharmacyBatchRecommendationService.recommendPharmacyList(addressList, results.&add)
+
+        then:
+        results.size() == 20
+        results*.index.sort() == (0..<20).toList()
+        results.every { it.address == addressList[it.index] }
+        results.find { it.index == 3 }.with { !it.success && it.outputDtoList.isEmpty() }
+        results.findAll { it.index != 3 }.every { it.success && it.outputDtoList*.pharmacyAddress == [it.address] }
+    }
+
+    def "recommendPharmacyList - 주소 변환 중 예외가 발생해도 나머지 주소를 처리한다"() {
+        given:
+        kakaoAddressSearchCacheService.requestAddressSearch("error") >> { throw new RuntimeException("kakao error") }
+        kakaoAddressSearchCacheService.requestAddressSearch("서울") >> new KakaoApiResponseDto(new MetaDto(1),
+                [DocumentDto.builder().addressName("서울").build()])
+        def results = []
+
+        when:
+        pharmacyBatchRecommendationService.recommendPharmacyList(["error", "서울"], results.&add)
+
+        then:
+        results.size() == 2
+        results.find { it.address == "error" }.success == false
+        results.find { it.address == "서울" }.success
+    }
+
+    def "recommendPharmacyList - 요청 하나가 동시에 변환하는 주소 수를 제한한다"() {
+        given:
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        kakaoAddressSearchCacheService.requestAddressSearch(_ as String) >> { String address ->
+            maxRunning.accumulateAndGet(running.incrementAndGet(), { a, b -> Math.max(a, b) })
+            Thread.sleep(20)
+            running.decrementAndGet()
+            return new KakaoApiResponseDto(new MetaDto(1), [DocumentDto.builder().addressName(address).build()])
+        }
+        def results = Collections.synchronizedList(new ArrayList<BatchOutputDto>())
+
+        when:
+        pharmacyBatchRecommendationService.recommendPharmacyList((0..<10).collect { "주소" + it }, results.&add)
+
+        then:
+        results.size() == 10
+        maxRunning.get() <= 2
+    }
+
+    def "recommendPharmacyList - 모든 주소를 처리하지 못하면 예외를 던진다"() {
+        given:
+        def results = []
+
+        when:
+        Thread.currentThread().interrupt()
+        pharmacyBatchRecommendationService.recommendPharmacyList(["서울", "부산"], results.&add)
+
+        then:
+        thrown(IllegalStateException)
+        Thread.interrupted()
+        results.isEmpty()
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.project.pharmacy.service
+
+import com.example.project.pharmacy.cache.PharmacyRedisTemplateService
+import com.example.project.pharmacy.entity.PharmacyDto
+import org.springframework.test.util.ReflectionTestUtils
+import spock.lang.Specification
+
+class PharmacyCacheLoadServiceTest extends Specification {
+
+    private PharmacyRepositoryService pharmacyRepositoryService = Mock()
+    private PharmacyRedisTemplateService pharmacyRedisTemplateService = Mock()
+
+    private PharmacyCacheLoadService pharmacyCacheLoadService
+
+    def setup() {
+        pharmacyCacheLoadService = new PharmacyCacheLoadService(pharmacyRepositoryService, pharmacyRedisTemplateService)
+        ReflectionTestUtils.setField(pharmacyCacheLoadService, "chunkSize", 2)
+    }
+
+    def "load - 페이지 단위로 staging 에 적재한 뒤 한 번에 교체한다"() {
+        given:
+        def pharmacyList = (1..5).collect { PharmacyDto.builder().id(it as Long).build() }
+
+        when:
+        def result = pharmacyCacheLoadService.load()
+
+        then:
+        1 * pharmacyRedisTemplateService.clearStaging()
+
+        then:
+        1 * pharmacyRepositoryService.findPageAfter(0L, 2) >> pharmacyList[0..1]
+        1 * pharmacyRepositoryService.findPageAfter(2L, 2) >> pharmacyList[2..3]
+        1 * pharmacyRepositoryService.findPageAfter(4L, 2) >> pharmacyList[4..4]
+        3 * pharmacyRedisTemplateService.saveAllToStaging(_)
+
+        then:
+        1 * pharmacyRedisTemplateService.publishStaging() >> true
+
+        and:
+        result.success
+        result.rowCount == 5
+        result.rowsPerSecond > 0
+    }
+
+    def "load - staging 을 교체하지 못하면 실패로 처리하고 staging 을 지운다"() {
+        given:
+        pharmacyRepositoryService.findPageAfter(0L, 2) >> [PharmacyDto.builder().id(1L).build()]
+
+        when:
+        def result = pharmacyCacheLoadService.load()
+
+        then:
+        1 * pharmacyRedisTemplateService.publishStaging() >> false
+        2 * pharmacyRedisTemplateService.clearStaging()
+        !result.success
+    }
+
+    def "load - 적재할 데이터가 없으면 기존 캐시를 교체하지 않는다"() {
+        given:
+        pharmacyRepositoryService.findPageAfter(0L, 2) >> []
+
+        when:
+        def result = pharmacyCacheLoadService.load()
+
+        then:
+        0 * pharmacyRedisTemplateService.publishStaging()
+        !result.success
+    }
+
+    def "load - 적재 중 오류가 나면 staging 을 지우고 교체하지 않는다"() {
+        given:
+        pharmacyRepositoryService.findPageAfter(0L, 2) >> [PharmacyDto.builder().id(1L).build(),
+                                                          PharmacyDto.builder().id(2L).build()]
+        pharmacyRepositoryService.findPageAfter(2L, 2) >> { throw new RuntimeException("db error") }
+
+        when:
+        def result = pharmacyCacheLoadService.load()
+
+        then:
+        2 * pharmacyRedisTemplateService.clearStaging()
+        0 * pharmacyRedisTemplateService.publishStaging()
+        !result.success
+        result.rowCount == 2
+    }
+
+    def "onApplicationReady - 캐시가 비어 있는 경우에만 적재한다"() {
+        given:
+        ReflectionTestUtils.setField(pharmacyCacheLoadService, "loadOnStartup", true)
+        pharmacyRedisTemplateService.hasCache() >> hasCache
+
+        when:
+        pharmacyCacheLoadService.onApplicationReady()
+
+        then:
+        loadCount * pharmacyRepositoryService.findPageAfter(0L, 2) >> []
+
+        where:
+        hasCache | loadCount
+        true     | 0
+        false    | 1
+    }
+}
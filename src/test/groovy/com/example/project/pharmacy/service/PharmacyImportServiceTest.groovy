@@ -0,0 +1,192 @@
+package com.example.project.pharmacy.service
+
+import com.example.project.pharmacy.cache.PharmacyRedisTemplateService
+import com.example.project.pharmacy.entity.PharmacyDto
+import com.example.project.pharmacy.importer.PharmacyCsvReader
+import org.springframework.data.redis.core.RedisTemplate
+import org.springframework.data.redis.core.ValueOperations
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.util.ReflectionTestUtils
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+import java.time.Duration
+
+class PharmacyImportServiceTest extends Specification {
+
+    private PharmacyRepositoryService pharmacyRepositoryService = Mock()
+    private PharmacyRedisTemplateService pharmacyRedisTemplateService = Mock()
+    private PharmacyCacheLoadService pharmacyCacheLoadService = Mock()
+    private JdbcTemplate jdbcTemplate = Mock()
+    private PlatformTransactionManager transactionManager = Mock()
+    private RedisTemplate<String, Object> redisTemplate = Mock()
+    private ValueOperations<String, Object> valueOperations = Mock()
+
+    private PharmacyImportService pharmacyImportService
+
+    def setup() {
+        redisTemplate.opsForValue() >> valueOperations
+        pharmacyImportService = new PharmacyImportService(pharmacyRepositoryService, pharmacyRedisTemplateService,
+                pharmacyCacheLoadService, jdbcTemplate, new TransactionTemplate(transactionManager), redisTemplate)
+        ReflectionTestUtils.setField(pharmacyImportService, "chunkSize", 2)
+        ReflectionTestUtils.setField(pharmacyImportService, "checkpointTtl", Duration.ofDays(1))
+        ReflectionTestUtils.setField(pharmacyImportService, "maxRemoveRatio", 0.5d)
+    }
+
+    private static PharmacyDto pharmacy(long id, String name) {
+        return new PharmacyDto(id, name, "서울특별시 성북구", 37.6, 127.0)
+    }
+
+    private static PharmacyImportService.CsvReaderOpener csv(List<PharmacyDto> rows) {
+        return lines(rows.collect { line(it) })
+    }
+
+    private static String line(PharmacyDto row) {
+        return "${row.id},${row.pharmacyName},${row.pharmacyAddress},${row.latitude},${row.longitude}"
+    }
+
+    // 읽을 때마다 새 reader (검증, 반영에서 두 번 읽는다)
+    private static PharmacyImportService.CsvReaderOpener lines(List<String> rows) {
+        def content = (["id,pharmacy_name,pharmacy_address,latitude,longitude"] + rows).join("\n")
+        return { new PharmacyCsvReader(new StringReader(content)) } as PharmacyImportService.CsvReaderOpener
+    }
+
+    def "importFrom - DB 와 비교하여 추가/수정/삭제된 약국만 chunk 단위로 DB 와 캐시에 반영한다"() {
+        given:
+        pharmacyRedisTemplateService.hasCache() >> true
+        pharmacyRepositoryService.findPageAfter(0L, 2) >> [pharmacy(1L, "a"), pharmacy(2L, "b")]
+        pharmacyRepositoryService.findPageAfter(2L, 2) >> [pharmacy(4L, "d"), pharmacy(5L, "e")]
+        pharmacyRepositoryService.findPageAfter(5L, 2) >> []
+        def reader = csv([pharmacy(1L, "a"), pharmacy(2L, "b2"), pharmacy(3L, "c"), pharmacy(5L, "e")])
+
+        when:
+        def result = pharmacyImportService.importFrom("pharmacy.csv", reader, false)
+
+        then:
+        1 * jdbcTemplate.batchUpdate({ it.startsWith("insert") }, { it*.id == [2L] }, 1, _)
+        1 * pharmacyRedisTemplateService.applyChanges({ it*.pharmacyName == ["b2"] }, [], { it*.pharmacyName == ["b"] }) >> true
+        1 * valueOperations.set("PHARMACY_IMPORT_CHECKPOINT:pharmacy.csv", "2", _)
+
+        then:
+        1 * jdbcTemplate.batchUpdate({ it.startsWith("insert") }, { it*.id == [3L] }, 1, _)
+        1 * jdbcTemplate.batchUpdate({ it.startsWith("delete") }, { it*.id == [4L] }, 1, _)
+        1 * pharmacyRedisTemplateService.applyChanges({ it*.id == [3L] }, { it*.id == [4L] }, []) >> true
+        1 * valueOperations.set("PHARMACY_IMPORT_CHECKPOINT:pharmacy.csv", "5", _)
+
+        then:
+        1 * redisTemplate.delete("PHARMACY_IMPORT_CHECKPOINT:pharmacy.csv")
+        0 * pharmacyCacheLoadService.load()
+
+        and:
+        result.success
+        result.readCount == 4
+        result.addedCount == 1
+        result.changedCount == 1
+        result.unchangedCount == 2
+        result.removedCount == 1
+        result.lastId == 5L
+        result.rowsPerSecond > 0
+    }
+
+    def "importFrom - resume 이면 checkpoint 이후의 약국부터 비교한다"() {
+        given:
+        valueOperations.get("PHARMACY_IMPORT_CHECKPOINT:pharmacy.csv") >> "2"
+        pharmacyRedisTemplateService.hasCache() >> true
+        def reader = csv([pharmacy(1L, "a"), pharmacy(2L, "b"), pharmacy(3L, "c")])
+
+        when:
+        def result = pharmacyImportService.importFrom("pharmacy.csv", reader, true)
+
+        then:
+        0 * pharmacyRepositoryService.findPageAfter(0L, _)
+        // 검증, 반영에서 한 번씩
+        2 * pharmacyRepositoryService.findPageAfter(2L, 2) >> [pharmacy(3L, "c")]
+        0 * jdbcTemplate.batchUpdate(*_)
+
+        and:
+        result.success
+        result.skippedCount == 2
+        result.unchangedCount == 1
+    }
+
+    def "importFrom - id 가 오름차순이 아니면 아무것도 반영하지 않는다"() {
+        given:
+        pharmacyRedisTemplateService.hasCache() >> false
+        pharmacyRepositoryService.findPageAfter(*_) >> []
+        def reader = csv([pharmacy(1L, "a"), pharmacy(2L, "b"), pharmacy(1L, "c")])
+
+        when:
+        def result = pharmacyImportService.importFrom("pharmacy.csv", reader, false)
+
+        then:
+        0 * jdbcTemplate.batchUpdate(*_)
+        0 * pharmacyRedisTemplateService.applyChanges(*_)
+        0 * pharmacyCacheLoadService.load()
+
+        and:
+        !result.success
+        result.message.startsWith("id must be in ascending order")
+    }
+
+    def "importFrom - 형식이 잘못된 줄이 있으면 그 약국을 삭제하지 않고, 아무것도 반영하지 않는다"() {
+        given:
+        pharmacyRedisTemplateService.hasCache() >> true
+        pharmacyRepositoryService.findPageAfter(0L, 2) >> [pharmacy(1L, "a"), pharmacy(2L, "b")]
+        pharmacyRepositoryService.findPageAfter(2L, 2) >> [pharmacy(3L, "c")]
+        def reader = lines([line(pharmacy(1L, "a")), "2,b,서울특별시 성북구,not-a-latitude", line(pharmacy(3L, "c2"))])
+
+        when:
+        def result = pharmacyImportService.importFrom("pharmacy.csv", reader, false)
+
+        then:
+        0 * jdbcTemplate.batchUpdate(*_)
+        0 * pharmacyRedisTemplateService.applyChanges(*_)
+
+        and:
+        !result.success
+        result.message.startsWith("too many invalid lines")
+    }
+
+    def "importFrom - 삭제할 약국이 max-remove-ratio 를 넘으면 (잘린 파일) 아무것도 반영하지 않는다"() {
+        given:
+        pharmacyRedisTemplateService.hasCache() >> true
+        pharmacyRepositoryService.findPageAfter(0L, 2) >> [pharmacy(1L, "a"), pharmacy(2L, "b")]
+        pharmacyRepositoryService.findPageAfter(2L, 2) >> [pharmacy(3L, "c"), pharmacy(4L, "d")]
+        pharmacyRepositoryService.findPageAfter(4L, 2) >> []
+
+        when:
+        def result = pharmacyImportService.importFrom("pharmacy.csv", csv([pharmacy(1L, "a2")]), false)
+
+        then:
+        0 * jdbcTemplate.batchUpdate(*_)
+
+        and:
+        !result.success
+        result.message.startsWith("too many removals: 3 of 4")
+    }
+
+    def "importFrom - 읽은 약국이 없으면 DB 의 약국을 삭제하지 않는다"() {
+        given:
+        pharmacyRepositoryService.findPageAfter(*_) >> [pharmacy(1L, "a")]
+
+        when:
+        def result = pharmacyImportService.importFrom("pharmacy.csv", csv([]), false)
+
+        then:
+        0 * jdbcTemplate.batchUpdate(*_)
+        !result.success
+    }
+
+    def "importFile - 디렉토리 밖의 파일은 읽지 않는다"() {
+        given:
+        ReflectionTestUtils.setField(pharmacyImportService, "directory", "build")
+
+        when:
+        def result = pharmacyImportService.importFile("../build.gradle", false)
+
+        then:
+        !result.success
+        0 * pharmacyRepositoryService.findPageAfter(*_)
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.project.pharmacy.service
+
+import com.example.project.api.cache.KakaoAddressSearchCacheService
+import com.example.project.api.dto.DocumentDto
+import com.example.project.api.dto.KakaoApiResponseDto
+import com.example.project.api.dto.MetaDto
+import com.example.project.direction.entity.Direction
+import com.example.project.direction.service.Base62Service
+import com.example.project.direction.service.DirectionService
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.test.util.ReflectionTestUtils
+import spock.lang.Specification
+
+class PharmacyRecommendationServiceHedgedTest extends Specification {
+
+    private KakaoAddressSearchCacheService kakaoAddressSearchCacheService = Mock()
+    private DirectionService directionService = Mock()
+    private Base62Service base62Service = new Base62Service()
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    private PharmacyRecommendationService pharmacyRecommendationService
+
+    private static final String ADDRESS = "서울 성북구 종암동"
+
+    def setup() {
+        pharmacyRecommendationService = new PharmacyRecommendationService(kakaoAddressSearchCacheService,
+                directionService, base62Service, meterRegistry)
+        ReflectionTestUtils.setField(pharmacyRecommendationService, "baseUrl", "http://localhost:8080/dir/")
+        ReflectionTestUtils.setField(pharmacyRecommendationService, "mode", RecommendationMode.HEDGED)
+        ReflectionTestUtils.setField(pharmacyRecommendationService, "hedgedDeadlineMillis", 200L)
+        ReflectionTestUtils.setField(pharmacyRecommendationService, "asyncPoolSize", 1)
+        ReflectionTestUtils.setField(pharmacyRecommendationService, "asyncQueueCapacity", 1)
+        pharmacyRecommendationService.start()
+
+        kakaoAddressSearchCacheService.requestAddressSearch(ADDRESS) >> new KakaoApiResponseDto(new MetaDto(1),
+                [DocumentDto.builder().addressName(ADDRESS).latitude(37.59).longitude(127.03).build()])
+        directionService.saveAll(_) >> { List<Direction> directionList ->
+            directionList.eachWithIndex { direction, i -> direction.assignId(i + 1L) }
+            return directionList
+        }
+    }
+
+    def cleanup() {
+        pharmacyRecommendationService.shutdown()
+    }
+
+    private static Direction direction(String name, double latitude, double distance) {
+        return Direction.builder()
+                .targetPharmacyName(name)
+                .targetLatitude(latitude)
+                .targetLongitude(127.03)
+                .distance(distance)
+                .build()
+    }
+
+    def "recommend - 두 결과를 가까운 순으로 합치고, 같은 약국은 한 번만 추천한다"() {
+        given:
+        directionService.buildDirectionList(_, 10.0, 3) >> [direction("종암약국", 37.600, 1.0), direction("돌곶이약국", 37.620, 3.0)]
+        directionService.buildDirectionListByCategoryApi(_, 10.0, 3) >> [direction("종암 약국", 37.6003, 1.02), direction("고려약국", 37.610, 2.0)]
+
+        when:
+        def result = pharmacyRecommendationService.recommend(ADDRESS, 10.0, 3)
+
+        then:
+        result.outputDtoList*.pharmacyName == ["종암약국", "고려약국", "돌곶이약국"]
+        result.source == RecommendationSource.MERGED
+        meterRegistry.get("pharmacy.recommendation").tag("mode", "hedged").tag("source", "merged").timer().count() == 1
+    }
+
+    def "recommend - 마감 시간까지 카테고리 검색이 끝나지 않으면 약국 데이터 결과만 반환한다"() {
+        given:
+        directionService.buildDirectionList(*_) >> [direction("종암약국", 37.600, 1.0)]
+        directionService.buildDirectionListByCategoryApi(*_) >> {
+            Thread.sleep(2000)
+            return [direction("고려약국", 37.590, 0.1)]
+        }
+
+        when:
+        def startedAt = System.currentTimeMillis()
+        def result = pharmacyRecommendationService.recommend(ADDRESS, 10.0, 3)
+        def elapsed = System.currentTimeMillis() - startedAt
+
+        then:
+        result.outputDtoList*.pharmacyName == ["종암약국"]
+        result.source == RecommendationSource.LOCAL
+        elapsed < 1000
+    }
+
+    def "recommend - 주소 변환이 마감 시간보다 오래 걸려도 카테고리 검색 결과를 기다린다"() {
+        given:
+        String slowAddress = "서울 성북구 안암동"
+        kakaoAddressSearchCacheService.requestAddressSearch(slowAddress) >> {
+            Thread.sleep(300)
+            return new KakaoApiResponseDto(new MetaDto(1),
+                    [DocumentDto.builder().addressName(slowAddress).latitude(37.59).longitude(127.03).build()])
+        }
+        directionService.buildDirectionList(*_) >> [direction("종암약국", 37.600, 1.0)]
+        directionService.buildDirectionListByCategoryApi(*_) >> {
+            Thread.sleep(50)
+            return [direction("고려약국", 37.590, 0.1)]
+        }
+
+        when:
+        def result = pharmacyRecommendationService.recommend(slowAddress, 10.0, 3)
+
+        then:
+        result.outputDtoList*.pharmacyName == ["고려약국", "종암약국"]
+        result.source == RecommendationSource.MERGED
+    }
+
+    def "recommend - 약국 데이터 검색에 실패하면 카테고리 검색 결과를 반환한다"() {
+        given:
+        directionService.buildDirectionList(*_) >> { throw new IllegalStateException("no snapshot") }
+        directionService.buildDirectionListByCategoryApi(*_) >> [direction("고려약국", 37.590, 0.1)]
+
+        when:
+        def result = pharmacyRecommendationService.recommend(ADDRESS, 10.0, 3)
+
+        then:
+        result.outputDtoList*.pharmacyName == ["고려약국"]
+        result.source == RecommendationSource.CATEGORY
+    }
+
+    def "recommend - 주소 변환에 실패하면 빈 결과"() {
+        when:
+        def result = pharmacyRecommendationService.recommend("잘못된 주소", 10.0, 3)
+
+        then:
+        result.outputDtoList.isEmpty()
+        result.source == RecommendationSource.NONE
+        0 * directionService.buildDirectionListByCategoryApi(*_)
+    }
+}
@@ -2,6 +2,10 @@ package com.example.project.pharmacy.service
 
 import com.example.project.pharmacy.cache.PharmacyRedisTemplateService
 import com.example.project.pharmacy.entity.Pharmacy
+import com.example.project.pharmacy.entity.PharmacyDto
+import com.example.project.pharmacy.event.PharmacyDataChangedEvent
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.test.util.ReflectionTestUtils
 import org.testcontainers.shaded.com.google.common.collect.Lists
 import spock.lang.Specification
 
@@ -11,11 +15,12 @@ class PharmacySearchServiceTest extends Specification {
 
     private PharmacyRepositoryService pharmacyRepositoryService = Mock()
     private PharmacyRedisTemplateService pharmacyRedisTemplateService = Mock()
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
 
     private List<Pharmacy> pharmacyList
 
     def setup() {
-        pharmacySearchService = new PharmacySearchService(pharmacyRepositoryService, pharmacyRedisTemplateService)
+        pharmacySearchService = new PharmacySearchService(pharmacyRepositoryService, pharmacyRedisTemplateService, meterRegistry)
 
         pharmacyList = Lists.newArrayList(
                 Pharmacy.builder()
@@ -42,5 +47,153 @@ class PharmacySearchServiceTest extends Specification {
         then:
         // 레디스는 null 리턴, 위에서 추가한 2개 약국만 조회
         result.size() == 2
+        meterRegistry.get("pharmacy.load").tag("source", "db").timer().count() == 1
+    }
+
+    def "searchNearby - 레디스 geo 데이터가 없으면 DB를 이용하여 거리순으로 조회"() {
+        when:
+        pharmacyRedisTemplateService.findNearby(*_) >> []
+        pharmacyRedisTemplateService.hasGeoIndex() >> false
+        pharmacyRepositoryService.findAllInBoundingBox(_) >> pharmacyList.collect {
+            new PharmacyDto(it.id, it.pharmacyName, it.pharmacyAddress, it.latitude, it.longitude)
+        }
+
+        def result = pharmacySearchService.searchNearby(37.5960650456809, 127.037033003036, 10.0, 1)
+
+        then:
+        result.size() == 1
+        result.get(0).pharmacyDto.pharmacyName == "호수온누리약국"
+    }
+
+    def "searchNearby - 레디스 geo 데이터가 있는데 결과가 없으면 DB를 조회하지 않는다"() {
+        when:
+        pharmacyRedisTemplateService.findNearby(*_) >> []
+        pharmacyRedisTemplateService.hasGeoIndex() >> true
+
+        def result = pharmacySearchService.searchNearby(37.5960650456809, 127.037033003036, 10.0, 3)
+
+        then:
+        0 * pharmacyRepositoryService.findAllInBoundingBox(_)
+        result.isEmpty()
+    }
+
+    def "getSnapshot - 레디스 데이터 버전이 바뀌지 않으면 다시 조회하지 않는다"() {
+        when:
+        def first = pharmacySearchService.getSnapshot()
+        def second = pharmacySearchService.getSnapshot()
+
+        then:
+        2 * pharmacyRedisTemplateService.getVersion() >> 1L
+        1 * pharmacyRedisTemplateService.findAll() >> []
+        1 * pharmacyRepositoryService.findAll() >> pharmacyList
+        first.is(second)
+        first.size() == 2
+    }
+
+    def "getSnapshot - 레디스 데이터 버전이 바뀌면 다시 조회한다"() {
+        given:
+        pharmacyRedisTemplateService.findAll() >> []
+        pharmacyRepositoryService.findAll() >> pharmacyList
+
+        when:
+        pharmacyRedisTemplateService.getVersion() >>> [1L, 2L]
+        def first = pharmacySearchService.getSnapshot()
+        def second = pharmacySearchService.getSnapshot()
+
+        then:
+        !first.is(second)
+        second.version == 2L
+        second.indexOf(2L) >= 0
+        second.getPharmacyDto(second.indexOf(2L)).pharmacyName == "돌곶이온누리약국"
+    }
+
+    def "getSnapshot - 데이터가 없는 스냅샷도 버전과 함께 보관한다"() {
+        when:
+        def first = pharmacySearchService.getSnapshot()
+        def second = pharmacySearchService.getSnapshot()
+
+        then:
+        2 * pharmacyRedisTemplateService.getVersion() >> 1L
+        1 * pharmacyRedisTemplateService.findAll() >> []
+        1 * pharmacyRepositoryService.findAll() >> []
+        first.isEmpty()
+        first.is(second)
+    }
+
+    def "getSnapshot - 조회 도중 변경 이벤트를 받으면 다음 요청에서 바로 버전을 확인한다"() {
+        given:
+        ReflectionTestUtils.setField(pharmacySearchService, "versionCheckIntervalMillis", 60_000L)
+        pharmacyRedisTemplateService.findAll() >> []
+        pharmacyRepositoryService.findAll() >> {
+            pharmacySearchService.onPharmacyDataChanged(PharmacyDataChangedEvent.remote())
+            pharmacyList
+        }
+
+        when:
+        pharmacySearchService.getSnapshot()
+        pharmacySearchService.getSnapshot()
+
+        then:
+        2 * pharmacyRedisTemplateService.getVersion() >> 1L
+    }
+
+    def "getSnapshotSize - 보관 중인 스냅샷의 약국 수, 스냅샷이 없으면 0"() {
+        given:
+        pharmacyRedisTemplateService.getVersion() >> 1L
+        pharmacyRedisTemplateService.findAll() >> []
+        pharmacyRepositoryService.findAll() >> pharmacyList
+
+        expect:
+        pharmacySearchService.getSnapshotSize() == 0
+
+        when:
+        pharmacySearchService.getSnapshot()
+
+        then:
+        pharmacySearchService.getSnapshotSize() == 2
+    }
+
+    def "onPharmacyDataChanged - 바로 다음 버전의 변경이면 다시 조회하지 않고 변경된 약국만 반영한다"() {
+        given:
+        def changed = new PharmacyDto(1L, "호수약국", "서울특별시 성북구", 37.60894036, 127.029052)
+        def added = new PharmacyDto(3L, "종암약국", "서울특별시 성북구 종암로", 37.5960650456809, 127.037033003036)
+        def removed = new PharmacyDto(2L, "돌곶이온누리약국", null, 37.61040424, 127.0569046)
+
+        when:
+        def first = pharmacySearchService.getSnapshot()
+        pharmacySearchService.onPharmacyDataChanged(PharmacyDataChangedEvent.local(2L,
+                [changed, added, removed], [changed, added], [2L]))
+        def second = pharmacySearchService.getSnapshot()
+
+        then:
+        _ * pharmacyRedisTemplateService.getVersion() >>> [1L, 2L]
+        1 * pharmacyRedisTemplateService.findAll() >> []
+        1 * pharmacyRepositoryService.findAll() >> pharmacyList
+
+        and:
+        first.size() == 2
+        second.version == 2L
+        second.size() == 2
+        second.getId(0) == 1L
+        second.getId(1) == 3L
+        second.getPharmacyDto(0).pharmacyName == "호수약국"
+        second.indexOf(2L) < 0
+    }
+
+    def "onPharmacyDataChanged - 건너뛴 버전이 있으면 다음 조회 때 다시 조회한다"() {
+        given:
+        pharmacyRedisTemplateService.findAll() >> []
+        pharmacyRepositoryService.findAll() >> pharmacyList
+        def added = new PharmacyDto(3L, "종암약국", null, 37.59, 127.03)
+
+        when:
+        pharmacyRedisTemplateService.getVersion() >>> [1L, 3L]
+        pharmacySearchService.getSnapshot()
+        pharmacySearchService.onPharmacyDataChanged(PharmacyDataChangedEvent.local(3L, [added], [added], []))
+        def second = pharmacySearchService.getSnapshot()
+
+        then:
+        second.version == 3L
+        second.size() == 2
     }
 }
@@ -0,0 +1,117 @@
+package com.example.project.util
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class SingleFlightTest extends Specification {
+
+    private SingleFlight<String, String> singleFlight = new SingleFlight<>()
+
+    def "execute - 같은 key 로 동시에 호출하면 한 번만 처리하고 결과를 함께 사용한다"() {
+        given:
+        int callerCount = 5
+        def executor = Executors.newFixedThreadPool(callerCount)
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def invocationCount = new AtomicInteger()
+
+        when:
+        def first = executor.submit({
+            singleFlight.execute("key", {
+                invocationCount.incrementAndGet()
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+                return "result"
+            })
+        } as Callable)
+        started.await(5, TimeUnit.SECONDS)
+
+        def others = (1..<callerCount).collect {
+            executor.submit({ singleFlight.execute("key", { invocationCount.incrementAndGet(); "other" }) } as Callable)
+        }
+        // 나머지 요청이 모두 기다리는 상태가 된 뒤에 처리를 끝낸다.
+        while (singleFlight.getCoalescedCount() < callerCount - 1) {
+            Thread.sleep(10)
+        }
+        release.countDown()
+
+        then:
+        first.get(5, TimeUnit.SECONDS) == "result"
+        others.every { it.get(5, TimeUnit.SECONDS) == "result" }
+        invocationCount.get() == 1
+        singleFlight.getCoalescedCount() == callerCount - 1
+        singleFlight.getInFlightCount() == 0
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "execute - 처리가 끝난 뒤에 들어온 요청은 다시 처리한다"() {
+        given:
+        def invocationCount = new AtomicInteger()
+
+        when:
+        singleFlight.execute("key", { invocationCount.incrementAndGet(); "first" })
+        def result = singleFlight.execute("key", { invocationCount.incrementAndGet(); "second" })
+
+        then:
+        result == "second"
+        invocationCount.get() == 2
+        singleFlight.getCoalescedCount() == 0
+    }
+
+    def "execute - 예외가 발생하면 그대로 던지고, 다음 요청은 다시 처리한다"() {
+        when:
+        singleFlight.execute("key", { throw new IllegalStateException("error") })
+
+        then:
+        thrown(IllegalStateException)
+        singleFlight.getInFlightCount() == 0
+        singleFlight.execute("key", { "retry" }) == "retry"
+    }
+
+    def "execute - 처리 중 Error 가 발생해도 기다리던 요청은 같은 Error 로 끝난다"() {
+        given:
+        def executor = Executors.newFixedThreadPool(2)
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+
+        when:
+        def leader = executor.submit({
+            singleFlight.execute("key", {
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+                throw new StackOverflowError("error")
+            })
+        } as Callable)
+        started.await(5, TimeUnit.SECONDS)
+        def waiter = executor.submit({ singleFlight.execute("key", { "other" }) } as Callable)
+        while (singleFlight.getCoalescedCount() < 1) {
+            Thread.sleep(10)
+        }
+        release.countDown()
+
+        leader.get(5, TimeUnit.SECONDS)
+
+        then:
+        def leaderError = thrown(ExecutionException)
+        leaderError.cause instanceof StackOverflowError
+
+        when:
+        waiter.get(5, TimeUnit.SECONDS)
+
+        then:
+        def waiterError = thrown(ExecutionException)
+        waiterError.cause instanceof StackOverflowError
+        singleFlight.getInFlightCount() == 0
+
+        cleanup:
+        executor.shutdownNow()
+    }
+}